@@ -0,0 +1,131 @@
+package datastructure.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datastructure.BPlusTree;
+import datastructure.BST;
+import datastructure.OrderedSymbolTable;
+
+
+/**
+ * BPlusTree against the in-memory BST: point lookups, overwrites and
+ * 100-key range scans over random long keys.
+ *
+ * The default size fits in RAM. For the larger-than-RAM case, pass a size
+ * whose file (about 16 bytes per key) exceeds the memory available to the
+ * page cache, and exclude BST, which would not fit in the heap.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class BPlusTreeBenchmark {
+	
+	public enum Engine {
+		BPLUS_TREE, BPLUS_TREE_LOADED, BST
+	}
+	
+	private static final int OPS = 1 << 16;
+	// Keys are uniform over all longs, so a span this wide holds about 100.
+	private static final int RANGE = 100;
+	
+	@Param({"BPLUS_TREE", "BPLUS_TREE_LOADED", "BST"})
+	public Engine engine;
+	
+	@Param({"1000000"})
+	public int size;
+	
+	private OrderedSymbolTable<Long, Long> table;
+	private long[] keys;
+	private long[] lookups;
+	private int next;
+	private long span;
+	private Path dir;
+	
+	// BPLUS_TREE is built by random inserts, BPLUS_TREE_LOADED by bulk loading.
+	@Setup
+	public void setup() throws IOException {
+		Random random = new Random(42L);
+		keys = random.longs(size).distinct().toArray();
+		lookups = new long[OPS];
+		for (int i = 0; i < OPS; i++) {
+			lookups[i] = keys[random.nextInt(keys.length)];
+		}
+		span = Long.MAX_VALUE / size * 2 * RANGE;
+		dir = Files.createTempDirectory("bplustree");
+		switch (engine) {
+		case BPLUS_TREE:
+			table = new BPlusTree(dir.resolve("tree"));
+			break;
+		case BPLUS_TREE_LOADED:
+			long[] sorted = keys.clone();
+			Arrays.sort(sorted);
+			table = BPlusTree.bulkLoad(dir.resolve("tree"), sorted, sorted);
+			return;
+		default:
+			table = new BST<Long, Long>();
+		}
+		for (long key : keys) {
+			table.put(key, key);
+		}
+	}
+	
+	@TearDown
+	public void tearDown() throws IOException {
+		if (table instanceof BPlusTree) {
+			((BPlusTree) table).close();
+			Files.delete(dir.resolve("tree"));
+		}
+		Files.delete(dir);
+	}
+	
+	private long nextKey() {
+		long key = lookups[next];
+		next = (next + 1) & (OPS - 1);
+		return key;
+	}
+	
+	@Benchmark
+	public Long get() {
+		return table.get(nextKey());
+	}
+	
+	@Benchmark
+	public void overwrite() {
+		long key = nextKey();
+		table.put(key, key + 1);
+	}
+	
+	@Benchmark
+	public long rangeScan() {
+		long low = nextKey();
+		long high = low > Long.MAX_VALUE - span ? Long.MAX_VALUE : low + span;
+		long sum = 0;
+		for (long key : table.keys(low, high)) {
+			sum += key;
+		}
+		return sum;
+	}
+	
+}
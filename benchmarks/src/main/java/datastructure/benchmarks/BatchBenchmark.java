@@ -0,0 +1,121 @@
+package datastructure.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datastructure.BST;
+import datastructure.HashMap;
+import datastructure.Map_Trie;
+import datastructure.SymbolTable;
+import datastructure.benchmarks.Workloads.Distribution;
+
+
+/**
+ * getAll() and putAll() on a batch of keys against a loop of get() or put()
+ * over the same batch. Puts overwrite keys already in the table, so its size
+ * stays fixed. Scores are per batch; divide by batchSize for the cost per key.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+public class BatchBenchmark {
+	
+	private static final int OPS = 1 << 16;
+	
+	public enum Engine {
+		HASH_MAP, BST, TRIE
+	}
+	
+	@Param({"65536"})
+	public int size;
+	
+	@Param({"HASH_MAP", "BST", "TRIE"})
+	public Engine engine;
+	
+	@Param({"16", "256", "4096"})
+	public int batchSize;
+	
+	private SymbolTable<String, Integer> table;
+	private String[][] batches;
+	private Integer[] values;
+	private Integer[] out;
+	private int next;
+	
+	@Setup
+	public void setup() {
+		String[] keys = Workloads.keys(Distribution.UNIFORM, size);
+		int[] accesses = Workloads.accesses(Distribution.UNIFORM, size, OPS);
+		switch (engine) {
+		case BST:
+			table = new BST<String, Integer>();
+			break;
+		case TRIE:
+			table = new Map_Trie<Integer>();
+			break;
+		default:
+			table = new HashMap<String, Integer>();
+		}
+		for (int i = 0; i < keys.length; i++) {
+			table.put(keys[i], i);
+		}
+		batches = new String[OPS / batchSize][batchSize];
+		for (int i = 0; i < OPS; i++) {
+			batches[i / batchSize][i % batchSize] = keys[accesses[i]];
+		}
+		values = new Integer[batchSize];
+		for (int i = 0; i < batchSize; i++) {
+			values[i] = i;
+		}
+		out = new Integer[batchSize];
+	}
+	
+	private String[] nextBatch() {
+		String[] batch = batches[next];
+		next = (next + 1) % batches.length;
+		return batch;
+	}
+	
+	@Benchmark
+	public Integer[] perKey() {
+		String[] batch = nextBatch();
+		for (int i = 0; i < batch.length; i++) {
+			out[i] = table.get(batch[i]);
+		}
+		return out;
+	}
+	
+	@Benchmark
+	public Integer[] getAll() {
+		table.getAll(nextBatch(), out);
+		return out;
+	}
+	
+	@Benchmark
+	public void perKeyPut() {
+		String[] batch = nextBatch();
+		for (int i = 0; i < batch.length; i++) {
+			table.put(batch[i], values[i]);
+		}
+	}
+	
+	@Benchmark
+	public void putAll() {
+		table.putAll(nextBatch(), values);
+	}
+	
+}
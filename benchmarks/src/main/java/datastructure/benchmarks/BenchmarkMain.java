@@ -0,0 +1,47 @@
+package datastructure.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Entry point of benchmarks.jar. Runs JMH with the GC profiler and writes
+ * machine-readable results to jmh-result.json unless told otherwise, so two
+ * runs can be diffed to catch regressions. Any JMH option can be passed.
+ */
+
+public final class BenchmarkMain {
+	
+	private BenchmarkMain() {
+	}
+	
+	public static void main(String[] args) throws Exception {
+		List<String> options = new ArrayList<String>(Arrays.asList(args));
+		if (!profilesGc(options)) {
+			options.add("-prof");
+			options.add("gc");
+		}
+		if (!options.contains("-rf")) {
+			options.add("-rf");
+			options.add("json");
+		}
+		if (!options.contains("-rff")) {
+			options.add("-rff");
+			options.add("jmh-result.json");
+		}
+		org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+	}
+	
+	// Other profilers given with -prof run alongside gc, so only -prof gc counts.
+	private static boolean profilesGc(List<String> options) {
+		for (int i = 0; i + 1 < options.size(); i++) {
+			String profiler = options.get(i + 1);
+			if (options.get(i).equals("-prof") && (profiler.equals("gc") || profiler.startsWith("gc:"))) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+}
@@ -0,0 +1,133 @@
+package datastructure.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datastructure.CompactTrie;
+import datastructure.Map_Trie;
+import datastructure.benchmarks.Workloads.Distribution;
+
+
+/**
+ * Map_Trie against CompactTrie as a word counter: lookups, counter updates
+ * and prefix enumeration. Allocation per operation comes from the gc
+ * profiler (gc.alloc.rate.norm); setup prints the heap each trie retains.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactTrieBenchmark {
+	
+	private static final int OPS = 1 << 12;
+	
+	public enum Engine {
+		MAP_TRIE, COMPACT
+	}
+	
+	@Param({"65536"})
+	public int size;
+	
+	@Param({"MAP_TRIE", "COMPACT"})
+	public Engine engine;
+	
+	private Map_Trie<Integer> mapTrie;
+	private CompactTrie<Integer> compact;
+	private String[] lookups;
+	private String[] prefixes;
+	private int next;
+	
+	@Setup
+	public void setup() {
+		String[] keys = Workloads.keys(Distribution.UNIFORM, size);
+		int[] accesses = Workloads.accesses(Distribution.ZIPFIAN, size, OPS);
+		long before = usedHeap();
+		if (engine == Engine.MAP_TRIE) {
+			mapTrie = new Map_Trie<Integer>();
+			for (int i = 0; i < keys.length; i++) {
+				mapTrie.put(keys[i], 1);
+			}
+		} else {
+			compact = CompactTrie.intCounters();
+			for (int i = 0; i < keys.length; i++) {
+				compact.add(keys[i], 1);
+			}
+		}
+		System.out.printf("%n%s retains %.1f bytes per key%n", engine, (usedHeap() - before) / (double) size);
+		lookups = new String[OPS];
+		prefixes = new String[OPS];
+		for (int i = 0; i < OPS; i++) {
+			lookups[i] = keys[accesses[i]];
+			prefixes[i] = lookups[i].substring(0, Math.min(2, lookups[i].length()));
+		}
+	}
+	
+	// The keys themselves are held by the workload either way, so they are not counted.
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+	
+	private int nextIndex() {
+		int i = next;
+		next = (next + 1) & (OPS - 1);
+		return i;
+	}
+	
+	@Benchmark
+	public long get() {
+		String key = lookups[nextIndex()];
+		if (engine == Engine.MAP_TRIE) {
+			return mapTrie.get(key);
+		}
+		return compact.count(key);
+	}
+	
+	@Benchmark
+	public long increment() {
+		String key = lookups[nextIndex()];
+		if (engine == Engine.MAP_TRIE) {
+			Integer count = mapTrie.get(key);
+			int updated = count == null ? 1 : count + 1;
+			mapTrie.put(key, updated);
+			return updated;
+		}
+		return compact.add(key, 1);
+	}
+	
+	@Benchmark
+	public long prefixScan() {
+		String prefix = prefixes[nextIndex()];
+		if (engine == Engine.MAP_TRIE) {
+			long length = 0;
+			for (String key : mapTrie.keysWithPrefix(prefix)) {
+				length += key.length();
+			}
+			return length;
+		}
+		final long[] length = new long[1];
+		compact.forEachCount(prefix, (key, count) -> {
+			length[0] += key.length();
+			return true;
+		});
+		return length[0];
+	}
+	
+}
@@ -0,0 +1,116 @@
+package datastructure.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datastructure.ConcurrentGraph;
+import datastructure.GraphSearch;
+import datastructure.Graph_AdjList;
+
+
+/**
+ * Mixed ingest and query workload on one R-MAT graph: three threads add
+ * random edges while a fourth runs BFS from vertex 0 on a consistent view.
+ *   SNAPSHOT         - ConcurrentGraph; each query takes a lock-free snapshot()
+ *   LOCKED_ADJ_LIST  - Graph_AdjList behind a read-write lock; each query
+ *                      holds the read lock for the whole BFS
+ * JMH reports the ingest and query throughputs of the group separately.
+ * The graph is rebuilt for every iteration, so it grows by one iteration's
+ * worth of edges at most.
+ */
+
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ConcurrentGraphBenchmark {
+	
+	public enum Engine {
+		SNAPSHOT, LOCKED_ADJ_LIST
+	}
+	
+	@Param({"SNAPSHOT", "LOCKED_ADJ_LIST"})
+	public Engine engine;
+	
+	@Param({"16"})
+	public int scale;
+	
+	@Param({"8"})
+	public int edgeFactor;
+	
+	private ConcurrentGraph concurrent;
+	private Graph_AdjList list;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	
+	@Setup(Level.Iteration)
+	public void setup() {
+		list = Workloads.rmat(scale, edgeFactor);
+		if (engine == Engine.SNAPSHOT) {
+			concurrent = new ConcurrentGraph(list.V());
+			for (int v = 0; v < list.V(); v++) {
+				// a self-loop is listed twice at its vertex
+				boolean second = false;
+				for (int w : list.adj(v)) {
+					if (v < w || (v == w && (second = !second))) {
+						concurrent.addEdge(v, w);
+					}
+				}
+			}
+			list = null;
+		}
+	}
+	
+	@Benchmark
+	@Group("mixed")
+	@GroupThreads(3)
+	public void ingest() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int V = 1 << scale;
+		int v = random.nextInt(V);
+		int w = random.nextInt(V);
+		if (engine == Engine.SNAPSHOT) {
+			concurrent.addEdge(v, w);
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			list.addEdge(v, w);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	@Benchmark
+	@Group("mixed")
+	@GroupThreads(1)
+	public int[] query() {
+		if (engine == Engine.SNAPSHOT) {
+			return GraphSearch.bfs(concurrent.snapshot(), 0);
+		}
+		lock.readLock().lock();
+		try {
+			return GraphSearch.bfs(list, 0);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+}
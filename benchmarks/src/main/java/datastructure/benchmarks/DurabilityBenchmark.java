@@ -0,0 +1,157 @@
+package datastructure.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datastructure.BST;
+import datastructure.Codec;
+import datastructure.DurableSymbolTable;
+import datastructure.DurableSymbolTable.Sync;
+import datastructure.HashMap;
+import datastructure.SymbolTable;
+
+
+/**
+ * Write throughput of HashMap and BST with and without DurableSymbolTable,
+ * and recovery time from a snapshot plus a log tail.
+ *
+ * Run the writes with -t 1,4,16 to see group commit share fsyncs.
+ * Recovery defaults to 1M entries; -p entries=10000000 gives the 10M case.
+ */
+
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class DurabilityBenchmark {
+	
+	public enum Engine {
+		HASH_MAP, BST;
+		
+		SymbolTable<Integer, Integer> create() {
+			return this == HASH_MAP ? new HashMap<Integer, Integer>() : new BST<Integer, Integer>();
+		}
+	}
+	
+	public enum Log {
+		NONE, NEVER, INTERVAL, EVERY_WRITE
+	}
+	
+	private static final int KEYS = 1 << 20;
+	
+	@State(Scope.Benchmark)
+	public static class Writes {
+		
+		@Param({"HASH_MAP", "BST"})
+		public Engine engine;
+		
+		@Param({"NONE", "NEVER", "INTERVAL", "EVERY_WRITE"})
+		public Log log;
+		
+		SymbolTable<Integer, Integer> table;
+		int[] keys;
+		final AtomicInteger next = new AtomicInteger();
+		private Path dir;
+		
+		@Setup(Level.Iteration)
+		public void setup() throws IOException {
+			keys = new Random(42L).ints(KEYS).toArray();
+			if (log == Log.NONE) {
+				table = new LockedSymbolTable<Integer, Integer>(engine.create());
+			} else {
+				dir = Files.createTempDirectory("durability");
+				table = new DurableSymbolTable<Integer, Integer>(dir, engine.create(), Codec.INTEGER, Codec.INTEGER,
+						Sync.valueOf(log.name()), 10, 64L << 20);
+			}
+		}
+		
+		@TearDown(Level.Iteration)
+		public void tearDown() throws IOException {
+			if (table instanceof DurableSymbolTable) {
+				((DurableSymbolTable<Integer, Integer>) table).close();
+				delete(dir);
+			}
+		}
+	}
+	
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	@Warmup(iterations = 2, time = 2)
+	@Measurement(iterations = 5, time = 2)
+	public void put(Writes state) {
+		int i = state.next.getAndIncrement() & (KEYS - 1);
+		state.table.put(state.keys[i], i);
+	}
+	
+	@State(Scope.Benchmark)
+	public static class Recovery {
+		
+		@Param({"HASH_MAP", "BST"})
+		public Engine engine;
+		
+		@Param({"1000000"})
+		public int entries;
+		
+		Path dir;
+		
+		// A snapshot of every entry, then a log tail of 10% overwrites.
+		@Setup(Level.Trial)
+		public void setup() throws IOException {
+			dir = Files.createTempDirectory("recovery");
+			Random random = new Random(42L);
+			int[] keys = random.ints(entries).toArray();
+			try (DurableSymbolTable<Integer, Integer> table = new DurableSymbolTable<Integer, Integer>(dir,
+					engine.create(), Codec.INTEGER, Codec.INTEGER, Sync.NEVER, 10, Long.MAX_VALUE)) {
+				for (int i = 0; i < entries; i++) {
+					table.put(keys[i], i);
+				}
+				table.snapshot();
+				for (int i = 0; i < entries / 10; i++) {
+					table.put(keys[random.nextInt(entries)], -i);
+				}
+			}
+		}
+		
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException {
+			delete(dir);
+		}
+	}
+	
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 1)
+	@Measurement(iterations = 5)
+	public int recover(Recovery state) throws IOException {
+		try (DurableSymbolTable<Integer, Integer> table = new DurableSymbolTable<Integer, Integer>(state.dir,
+				state.engine.create(), Codec.INTEGER, Codec.INTEGER, Sync.NEVER, 10, Long.MAX_VALUE)) {
+			return table.size();
+		}
+	}
+	
+	private static void delete(Path dir) throws IOException {
+		try (Stream<Path> files = Files.walk(dir)) {
+			files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+		}
+	}
+	
+}
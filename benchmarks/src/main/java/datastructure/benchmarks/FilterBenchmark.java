@@ -0,0 +1,101 @@
+package datastructure.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datastructure.BloomFilter;
+import datastructure.CuckooFilter;
+import datastructure.FilteredSymbolTable;
+import datastructure.HashMap;
+import datastructure.Map_Trie;
+import datastructure.SymbolTable;
+import datastructure.benchmarks.Workloads.Distribution;
+
+
+/**
+ * Lookups on HashMap and Map_Trie with and without a membership filter in
+ * front, as the share of lookups for absent keys grows from 50% to 99%.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+	
+	private static final int OPS = 1 << 16;
+	private static final double FPP = 0.01;
+	
+	public enum Engine {
+		HASH_MAP, TRIE
+	}
+	
+	public enum Filter {
+		NONE, BLOOM, CUCKOO
+	}
+	
+	@Param({"65536"})
+	public int size;
+	
+	@Param({"HASH_MAP", "TRIE"})
+	public Engine engine;
+	
+	@Param({"NONE", "BLOOM", "CUCKOO"})
+	public Filter filter;
+	
+	@Param({"50", "90", "99"})
+	public int negativePercent;
+	
+	private SymbolTable<String, Integer> table;
+	private String[] lookups;
+	private int next;
+	
+	@Setup
+	public void setup() {
+		// the second half of the key set is never inserted
+		String[] keys = Workloads.keys(Distribution.UNIFORM, 2 * size);
+		SymbolTable<String, Integer> base = engine == Engine.TRIE
+				? new Map_Trie<Integer>() : new HashMap<String, Integer>();
+		switch (filter) {
+		case BLOOM:
+			table = new FilteredSymbolTable<String, Integer>(base, n -> new BloomFilter<String>(n, FPP));
+			break;
+		case CUCKOO:
+			table = new FilteredSymbolTable<String, Integer>(base, n -> new CuckooFilter<String>(n, FPP));
+			break;
+		default:
+			table = base;
+		}
+		for (int i = 0; i < size; i++) {
+			table.put(keys[i], i);
+		}
+		Random random = new Random(7);
+		lookups = new String[OPS];
+		for (int i = 0; i < OPS; i++) {
+			boolean negative = random.nextInt(100) < negativePercent;
+			lookups[i] = keys[(negative ? size : 0) + random.nextInt(size)];
+		}
+	}
+	
+	@Benchmark
+	public Integer get() {
+		String key = lookups[next];
+		next = (next + 1) & (OPS - 1);
+		return table.get(key);
+	}
+	
+}
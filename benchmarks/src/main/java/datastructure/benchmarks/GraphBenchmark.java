@@ -0,0 +1,423 @@
+package datastructure.benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datastructure.EdgeWeightedGraph;
+import datastructure.Graph;
+import datastructure.GraphAnalytics;
+import datastructure.GraphSearch;
+import datastructure.Graph_AdjList;
+import datastructure.Graph_AdjMatrix;
+import datastructure.Graph_CSR;
+import datastructure.MinimumSpanningTree;
+import datastructure.ShortestPaths;
+
+
+/**
+ * Neighbor scans, BFS and triangle counting over the same R-MAT graph stored
+ * as adjacency lists, CSR and a bit matrix; setup prints the heap each form
+ * retains.
+ * Insertion compares addEdge() with batched addEdges(); Search reports
+ * traversal throughput by graph size and thread count.
+ * RoadNetwork times weighted queries on a grid standing in for a road map;
+ * Analytics reports GraphAnalytics throughput by thread count.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphBenchmark {
+	
+	public enum Representation {
+		ADJ_LIST, CSR, ADJ_MATRIX
+	}
+	
+	@Param({"ADJ_LIST", "CSR", "ADJ_MATRIX"})
+	public Representation representation;
+	
+	// 2^14 vertices keeps the bit matrix at 32 MB
+	@Param({"14"})
+	public int scale;
+	
+	@Param({"16"})
+	public int edgeFactor;
+	
+	private Graph G;
+	
+	@Setup
+	public void setup() {
+		long before = usedHeap();
+		G = build();
+		System.out.printf("%n%s retains %.1f bytes per edge%n", representation, (usedHeap() - before) / (double) G.E());
+	}
+	
+	// The R-MAT edge arrays and, for CSR and the matrix, the list they are
+	// copied from are garbage once this returns, so setup() measures G alone.
+	private Graph build() {
+		Graph_AdjList list = Workloads.rmat(scale, edgeFactor);
+		switch (representation) {
+		case ADJ_LIST:
+			return list;
+		case CSR:
+			return new Graph_CSR(list);
+		default:
+			Graph_AdjMatrix matrix = new Graph_AdjMatrix(list.V());
+			for (int v = 0; v < list.V(); v++) {
+				for (int w : list.adj(v)) {
+					if (v < w) {
+						matrix.addEdge(v, w);
+					}
+				}
+			}
+			return matrix;
+		}
+	}
+	
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+	
+	@Benchmark
+	public long scanIterable() {
+		long sum = 0;
+		for (int v = 0; v < G.V(); v++) {
+			for (int w : G.adj(v)) {
+				sum += w;
+			}
+		}
+		return sum;
+	}
+	
+	@Benchmark
+	public long scanForEachAdj() {
+		final long[] sum = new long[1];
+		for (int v = 0; v < G.V(); v++) {
+			G.forEachAdj(v, w -> {
+				sum[0] += w;
+				return true;
+			});
+		}
+		return sum[0];
+	}
+	
+	@Benchmark
+	public int[] bfs() {
+		return GraphSearch.bfs(G, 0);
+	}
+	
+	@Benchmark
+	public long triangles() {
+		return GraphAnalytics.triangles(G);
+	}
+	
+	// The bit matrix counts by intersecting rows a word at a time; the list
+	// forms have no kernel of their own, so this is GraphAnalytics for them.
+	// A row costs V / 64 words whatever the degree, so try -p edgeFactor=256
+	// to see where the matrix overtakes the lists.
+	@Benchmark
+	public long trianglesNative() {
+		if (G instanceof Graph_AdjMatrix) {
+			return ((Graph_AdjMatrix) G).triangles();
+		}
+		return GraphAnalytics.triangles(G);
+	}
+	
+	
+	/**
+	 * Builds a Graph_AdjList from the R-MAT edge list, either by one addEdge()
+	 * per edge or by addEdges() over consecutive batches of the given size.
+	 * Allocation per build comes from the gc profiler (gc.alloc.rate.norm).
+	 */
+	@State(Scope.Benchmark)
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 3, time = 1)
+	@Measurement(iterations = 5, time = 1)
+	@Fork(1)
+	public static class Insertion {
+		
+		@Param({"16"})
+		public int scale;
+		
+		@Param({"16"})
+		public int edgeFactor;
+		
+		@Param({"16", "1024", "1048576"})
+		public int batch;
+		
+		private int[] from, to;
+		private int[][] batchFrom, batchTo;
+		
+		@Setup
+		public void setup() {
+			int[][] edges = Workloads.rmatEdges(scale, edgeFactor);
+			from = edges[0];
+			to = edges[1];
+			int batches = (from.length + batch - 1) / batch;
+			batchFrom = new int[batches][];
+			batchTo = new int[batches][];
+			for (int b = 0; b < batches; b++) {
+				int lo = b * batch, hi = Math.min(lo + batch, from.length);
+				batchFrom[b] = Arrays.copyOfRange(from, lo, hi);
+				batchTo[b] = Arrays.copyOfRange(to, lo, hi);
+			}
+		}
+		
+		@Benchmark
+		public Graph_AdjList addEdge() {
+			Graph_AdjList G = new Graph_AdjList(1 << scale);
+			for (int i = 0; i < from.length; i++) {
+				G.addEdge(from[i], to[i]);
+			}
+			return G;
+		}
+		
+		@Benchmark
+		public Graph_AdjList addEdges() {
+			Graph_AdjList G = new Graph_AdjList(1 << scale);
+			for (int b = 0; b < batchFrom.length; b++) {
+				G.addEdges(batchFrom[b], batchTo[b]);
+			}
+			return G;
+		}
+		
+	}
+	
+	
+	/**
+	 * GraphAnalytics kernels on a CSR R-MAT graph, run in a fork/join pool of
+	 * the given size (parallel streams started inside a pool stay in it).
+	 * Besides runs per second, the edges counter reports edges processed
+	 * per second: E() per run, and E() per iteration for PageRank.
+	 */
+	@State(Scope.Benchmark)
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	@Warmup(iterations = 3, time = 2)
+	@Measurement(iterations = 5, time = 2)
+	@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+	public static class Analytics {
+		
+		private static final int PAGERANK_ITERATIONS = 10;
+		
+		@Param({"1", "2", "4", "8"})
+		public int threads;
+		
+		@Param({"18"})
+		public int scale;
+		
+		@Param({"16"})
+		public int edgeFactor;
+		
+		private Graph G;
+		private ForkJoinPool pool;
+		
+		@State(Scope.Thread)
+		@AuxCounters(AuxCounters.Type.OPERATIONS)
+		public static class Edges {
+			public long edges;
+			
+			@Setup(Level.Iteration)
+			public void reset() {
+				edges = 0;
+			}
+		}
+		
+		@Setup
+		public void setup() {
+			G = new Graph_CSR(Workloads.rmat(scale, edgeFactor));
+			pool = new ForkJoinPool(threads);
+		}
+		
+		@TearDown
+		public void tearDown() {
+			pool.shutdown();
+		}
+		
+		private <T> T run(Supplier<T> kernel) {
+			return pool.submit(kernel::get).join();
+		}
+		
+		@Benchmark
+		public double[] pageRank(Edges counter) {
+			counter.edges += (long) PAGERANK_ITERATIONS * G.E();
+			// epsilon 0 runs every iteration
+			return run(() -> GraphAnalytics.pageRank(G, 0.85, 0.0, PAGERANK_ITERATIONS));
+		}
+		
+		@Benchmark
+		public long[] trianglesPerVertex(Edges counter) {
+			counter.edges += G.E();
+			return run(() -> GraphAnalytics.trianglesPerVertex(G));
+		}
+		
+		@Benchmark
+		public int[] coreNumbers(Edges counter) {
+			counter.edges += G.E();
+			return run(() -> GraphAnalytics.coreNumbers(G));
+		}
+		
+		@Benchmark
+		public long[] degreeDistribution(Edges counter) {
+			counter.edges += G.E();
+			return run(() -> GraphAnalytics.degreeDistribution(G));
+		}
+		
+	}
+	
+	
+	/**
+	 * GraphSearch scaling on CSR R-MAT graphs of several sizes, with bfs()
+	 * and components() run in a fork/join pool of the given size, as in
+	 * Analytics. dfs() is sequential and is there as the one-thread
+	 * baseline. The edges counter reports E() per run, per second.
+	 */
+	@State(Scope.Benchmark)
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	@Warmup(iterations = 3, time = 2)
+	@Measurement(iterations = 5, time = 2)
+	@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+	public static class Search {
+		
+		@Param({"1", "2", "4", "8"})
+		public int threads;
+		
+		@Param({"16", "18", "20"})
+		public int scale;
+		
+		@Param({"16"})
+		public int edgeFactor;
+		
+		private Graph G;
+		private ForkJoinPool pool;
+		
+		@Setup
+		public void setup() {
+			G = new Graph_CSR(Workloads.rmat(scale, edgeFactor));
+			pool = new ForkJoinPool(threads);
+		}
+		
+		@TearDown
+		public void tearDown() {
+			pool.shutdown();
+		}
+		
+		@Benchmark
+		public int[] bfs(Analytics.Edges counter) {
+			counter.edges += G.E();
+			return pool.submit(() -> GraphSearch.bfs(G, 0)).join();
+		}
+		
+		@Benchmark
+		public int[] components(Analytics.Edges counter) {
+			counter.edges += G.E();
+			return pool.submit(() -> GraphSearch.components(G)).join();
+		}
+		
+		@Benchmark
+		public int[] dfs(Analytics.Edges counter) {
+			counter.edges += G.E();
+			return GraphSearch.dfs(G, 0);
+		}
+		
+	}
+	
+	
+	/**
+	 * Query latency on Workloads.roadGrid(): 10M edges at the default side.
+	 * Each call takes the next of 64 seeded (source, target) pairs. Dijkstra
+	 * and delta-stepping settle the whole graph; A* stops at the target,
+	 * guided by the Manhattan distance. The spanning trees cover everything.
+	 */
+	@State(Scope.Benchmark)
+	@BenchmarkMode(Mode.SampleTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 3, time = 2)
+	@Measurement(iterations = 5, time = 2)
+	@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+	public static class RoadNetwork {
+		
+		private static final int QUERIES = 64;
+		
+		@Param({"2237"})
+		public int side;
+		
+		@Param({"2.0"})
+		public double delta;
+		
+		private EdgeWeightedGraph G;
+		private int[] sources, targets;
+		private int next;
+		
+		@Setup
+		public void setup() {
+			G = Workloads.roadGrid(side);
+			sources = new int[QUERIES];
+			targets = new int[QUERIES];
+			Random random = new Random(31);
+			for (int i = 0; i < QUERIES; i++) {
+				sources[i] = random.nextInt(G.V());
+				targets[i] = random.nextInt(G.V());
+			}
+		}
+		
+		@Benchmark
+		public ShortestPaths dijkstra() {
+			int i = next++ % QUERIES;
+			return ShortestPaths.dijkstra(G, sources[i]);
+		}
+		
+		@Benchmark
+		public ShortestPaths aStar() {
+			int i = next++ % QUERIES;
+			final int t = targets[i];
+			return ShortestPaths.aStar(G, sources[i], t,
+					v -> Math.abs(v / side - t / side) + Math.abs(v % side - t % side));
+		}
+		
+		@Benchmark
+		public ShortestPaths deltaStepping() {
+			int i = next++ % QUERIES;
+			return ShortestPaths.deltaStepping(G, sources[i], delta);
+		}
+		
+		@Benchmark
+		public MinimumSpanningTree prim() {
+			return MinimumSpanningTree.prim(G);
+		}
+		
+		@Benchmark
+		public MinimumSpanningTree kruskal() {
+			return MinimumSpanningTree.kruskal(G);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,50 @@
+package datastructure.benchmarks;
+
+import java.util.Map;
+
+import datastructure.SymbolTable;
+
+
+/**
+ * Baseline engine: a java.util.Map behind the SymbolTable API, so the JDK
+ * collections run through exactly the same benchmark code as ours.
+ */
+
+final class JdkSymbolTable<Key, Value> implements SymbolTable<Key, Value> {
+	
+	private final Map<Key, Value> map;
+	
+	JdkSymbolTable(Map<Key, Value> map) {
+		this.map = map;
+	}
+	
+	@Override
+	public void put(Key key, Value value) {
+		if (value == null) {
+			map.remove(key);
+		} else {
+			map.put(key, value);
+		}
+	}
+	
+	@Override
+	public Value get(Key key) {
+		return map.get(key);
+	}
+	
+	@Override
+	public void delete(Key key) {
+		map.remove(key);
+	}
+	
+	@Override
+	public int size() {
+		return map.size();
+	}
+	
+	@Override
+	public Iterable<Key> keys() {
+		return map.keySet();
+	}
+	
+}
@@ -0,0 +1,71 @@
+package datastructure.benchmarks;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import datastructure.SymbolTable;
+
+
+/**
+ * Baseline for multi-threaded runs: a single-threaded engine behind one lock.
+ */
+
+final class LockedSymbolTable<Key, Value> implements SymbolTable<Key, Value> {
+	
+	private final SymbolTable<Key, Value> table;
+	private final ReentrantLock lock = new ReentrantLock();
+	
+	LockedSymbolTable(SymbolTable<Key, Value> table) {
+		this.table = table;
+	}
+	
+	@Override
+	public void put(Key key, Value value) {
+		lock.lock();
+		try {
+			table.put(key, value);
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	@Override
+	public Value get(Key key) {
+		lock.lock();
+		try {
+			return table.get(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	@Override
+	public void delete(Key key) {
+		lock.lock();
+		try {
+			table.delete(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	@Override
+	public int size() {
+		lock.lock();
+		try {
+			return table.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	@Override
+	public Iterable<Key> keys() {
+		lock.lock();
+		try {
+			return table.keys();
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+}
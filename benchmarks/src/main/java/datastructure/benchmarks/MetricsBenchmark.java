@@ -0,0 +1,90 @@
+package datastructure.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datastructure.BST;
+import datastructure.HashMap;
+import datastructure.JfrMetrics;
+import datastructure.Metrics;
+import datastructure.MetricsRecorder;
+import datastructure.benchmarks.Workloads.Distribution;
+
+
+/**
+ * Cost of instrumentation on get: no Metrics attached, an in-memory
+ * MetricsRecorder, and JfrMetrics with no recording running.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+	
+	public enum Instrumentation {
+		NONE, RECORDER, JFR
+	}
+	
+	private static final int SIZE = 1 << 14;
+	private static final int OPS = 1 << 16;
+	
+	@Param({"NONE", "RECORDER", "JFR"})
+	public Instrumentation instrumentation;
+	
+	private HashMap<String, Integer> hash;
+	private BST<String, Integer> bst;
+	private String[] keys;
+	private int[] accesses;
+	private int next;
+	
+	@Setup
+	public void setup() {
+		keys = Workloads.keys(Distribution.UNIFORM, SIZE);
+		accesses = Workloads.accesses(Distribution.UNIFORM, SIZE, OPS);
+		hash = new HashMap<String, Integer>();
+		bst = new BST<String, Integer>();
+		for (int i = 0; i < keys.length; i++) {
+			hash.put(keys[i], i);
+			bst.put(keys[i], i);
+		}
+		Metrics metrics = null;
+		if (instrumentation == Instrumentation.RECORDER) {
+			metrics = new MetricsRecorder();
+		} else if (instrumentation == Instrumentation.JFR) {
+			metrics = new JfrMetrics("benchmark");
+		}
+		hash.setMetrics(metrics);
+		bst.setMetrics(metrics);
+	}
+	
+	private String nextKey() {
+		String key = keys[accesses[next]];
+		next = (next + 1) & (OPS - 1);
+		return key;
+	}
+	
+	@Benchmark
+	public Integer hashMapGet() {
+		return hash.get(nextKey());
+	}
+	
+	@Benchmark
+	public Integer bstGet() {
+		return bst.get(nextKey());
+	}
+	
+}
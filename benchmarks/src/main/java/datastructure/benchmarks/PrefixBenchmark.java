@@ -0,0 +1,90 @@
+package datastructure.benchmarks;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datastructure.Map_Trie;
+import datastructure.benchmarks.Workloads.Distribution;
+
+
+/**
+ * Prefix enumeration on Map_Trie against a TreeMap sub-map range scan.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrefixBenchmark {
+	
+	private static final int OPS = 1 << 12;
+	
+	@Param({"65536"})
+	public int size;
+	
+	@Param({"1", "3"})
+	public int prefixLength;
+	
+	private Map_Trie<Integer> trie;
+	private TreeMap<String, Integer> tree;
+	private String[] prefixes;
+	private int next;
+	
+	@Setup
+	public void setup() {
+		String[] keys = Workloads.keys(Distribution.UNIFORM, size);
+		int[] accesses = Workloads.accesses(Distribution.UNIFORM, size, OPS);
+		trie = new Map_Trie<Integer>();
+		tree = new TreeMap<String, Integer>();
+		for (int i = 0; i < keys.length; i++) {
+			trie.put(keys[i], i);
+			tree.put(keys[i], i);
+		}
+		prefixes = new String[OPS];
+		for (int i = 0; i < OPS; i++) {
+			String key = keys[accesses[i]];
+			prefixes[i] = key.substring(0, Math.min(prefixLength, key.length()));
+		}
+	}
+	
+	private String nextPrefix() {
+		String prefix = prefixes[next];
+		next = (next + 1) & (OPS - 1);
+		return prefix;
+	}
+	
+	@Benchmark
+	public int trieKeysWithPrefix() {
+		int count = 0;
+		for (String key : trie.keysWithPrefix(nextPrefix())) {
+			count += key.length();
+		}
+		return count;
+	}
+	
+	@Benchmark
+	public int treeMapSubMap() {
+		String prefix = nextPrefix();
+		int count = 0;
+		for (Map.Entry<String, Integer> entry : tree.subMap(prefix, prefix + Character.MAX_VALUE).entrySet()) {
+			count += entry.getKey().length();
+		}
+		return count;
+	}
+	
+}
@@ -0,0 +1,106 @@
+package datastructure.benchmarks;
+
+import java.util.Collections;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datastructure.MaxPQ;
+import datastructure.TopK;
+
+
+/**
+ * MaxPQ fill-and-drain against java.util.PriorityQueue, and TopK selection
+ * against draining k elements from a full heap.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriorityQueueBenchmark {
+	
+	@Param({"1024", "65536"})
+	public int size;
+	
+	@Param({"16"})
+	public int k;
+	
+	private Integer[] values;
+	
+	@Setup
+	public void setup() {
+		Random random = new Random(42L);
+		values = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			values[i] = random.nextInt();
+		}
+	}
+	
+	@Benchmark
+	public long maxPQ() {
+		MaxPQ<Integer> pq = new MaxPQ<Integer>();
+		for (Integer value : values) {
+			pq.add(value);
+		}
+		long sum = 0;
+		while (!pq.isEmpty()) {
+			sum += pq.delMax();
+		}
+		return sum;
+	}
+	
+	@Benchmark
+	public long jdkPriorityQueue() {
+		PriorityQueue<Integer> pq = new PriorityQueue<Integer>(Collections.<Integer>reverseOrder());
+		for (Integer value : values) {
+			pq.add(value);
+		}
+		long sum = 0;
+		while (!pq.isEmpty()) {
+			sum += pq.poll();
+		}
+		return sum;
+	}
+	
+	@Benchmark
+	public long topK() {
+		TopK<Integer> top = new TopK<Integer>(k);
+		for (Integer value : values) {
+			top.offer(value);
+		}
+		long sum = 0;
+		for (Integer value : top) {
+			sum += value;
+		}
+		return sum;
+	}
+	
+	@Benchmark
+	public long maxPQTopK() {
+		MaxPQ<Integer> pq = new MaxPQ<Integer>();
+		for (Integer value : values) {
+			pq.add(value);
+		}
+		long sum = 0;
+		for (int i = 0; i < k; i++) {
+			sum += pq.delMax();
+		}
+		return sum;
+	}
+	
+}
@@ -0,0 +1,91 @@
+package datastructure.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datastructure.BST;
+import datastructure.Monoid;
+
+
+/**
+ * Window sums over a time series in a BST keyed by timestamp: aggregate()
+ * against collecting keys(lo, hi) and summing get() over them.
+ * The series is loaded with putAll(), which builds a balanced tree from
+ * the sorted timestamps.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RangeAggregateBenchmark {
+	
+	private static final int OPS = 1 << 10;
+	// one point per second
+	private static final long STEP = 1000L;
+	
+	@Param({"10000000"})
+	public int points;
+	
+	// points per window
+	@Param({"1000", "1000000"})
+	public int window;
+	
+	private BST<Long, Double> series;
+	private long[] starts;
+	private int next;
+	
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		Long[] keys = new Long[points];
+		Double[] values = new Double[points];
+		for (int i = 0; i < points; i++) {
+			keys[i] = i * STEP;
+			values[i] = random.nextDouble();
+		}
+		series = new BST<Long, Double>(Monoid.of(0.0, Double::sum));
+		series.putAll(keys, values);
+		starts = new long[OPS];
+		for (int i = 0; i < OPS; i++) {
+			starts[i] = random.nextInt(Math.max(1, points - window)) * STEP;
+		}
+	}
+	
+	private long nextStart() {
+		long start = starts[next];
+		next = (next + 1) & (OPS - 1);
+		return start;
+	}
+	
+	@Benchmark
+	public double aggregate() {
+		long start = nextStart();
+		return series.aggregate(start, start + (window - 1) * STEP);
+	}
+	
+	@Benchmark
+	public double keysThenGet() {
+		long start = nextStart();
+		double sum = 0;
+		for (Long key : series.keys(start, start + (window - 1) * STEP)) {
+			sum += series.get(key);
+		}
+		return sum;
+	}
+	
+}
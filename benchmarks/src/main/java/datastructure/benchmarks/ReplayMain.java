@@ -0,0 +1,59 @@
+package datastructure.benchmarks;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+import datastructure.Codec;
+import datastructure.ConcurrentSkipList;
+import datastructure.SymbolTable;
+import datastructure.TraceReplayer;
+
+
+/**
+ * Replays a trace recorded by RecordingSymbolTable with Codec.STRING keys:
+ *     java -cp benchmarks/target/benchmarks.jar datastructure.benchmarks.ReplayMain trace.bin HASH_MAP 4 1
+ * The arguments are the trace file, the engine (any SymbolTableBenchmark
+ * engine, or SKIP_LIST), the number of threads (default 1) and the speed
+ * (default 0 for full speed, 1 for the recorded rate). With more than one
+ * thread, engines other than SKIP_LIST run behind a single lock. Each run
+ * starts from an empty table; the first run only warms up the JIT.
+ */
+
+public final class ReplayMain {
+	
+	private static final int RUNS = 3;
+	
+	private ReplayMain() {
+	}
+	
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			System.err.println("usage: ReplayMain <trace> <engine> [threads] [speed]");
+			System.exit(2);
+		}
+		String engine = args[1];
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+		double speed = args.length > 3 ? Double.parseDouble(args[3]) : 0;
+		
+		TraceReplayer<String> replayer;
+		try (InputStream in = new FileInputStream(args[0])) {
+			replayer = new TraceReplayer<String>(in, Codec.STRING);
+		}
+		System.out.printf("%s: %d operations on %d keys from %d threads over %.3fs%n", args[0], replayer.size(),
+				replayer.distinctKeys(), replayer.recordedThreads(), replayer.durationNanos() / 1e9);
+				
+		for (int run = 0; run < RUNS; run++) {
+			TraceReplayer.Result result = replayer.replay(create(engine, threads), 1, threads, speed);
+			System.out.printf("%s %s", run == 0 ? "warmup" : "run " + run, result);
+		}
+	}
+	
+	private static SymbolTable<String, Integer> create(String engine, int threads) {
+		if (engine.equals("SKIP_LIST")) {
+			return new ConcurrentSkipList<String, Integer>();
+		}
+		SymbolTable<String, Integer> table = SymbolTableBenchmark.Engine.valueOf(engine).create();
+		return threads > 1 ? new LockedSymbolTable<String, Integer>(table) : table;
+	}
+	
+}
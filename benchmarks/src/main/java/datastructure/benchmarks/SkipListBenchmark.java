@@ -0,0 +1,103 @@
+package datastructure.benchmarks;
+
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datastructure.BST;
+import datastructure.ConcurrentSkipList;
+import datastructure.SymbolTable;
+
+
+/**
+ * Write-heavy ordered workload (40% put, 40% delete, 20% get) shared by
+ * 1, 4 and 16 threads: ConcurrentSkipList against a BST behind one lock
+ * and java.util.concurrent.ConcurrentSkipListMap.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SkipListBenchmark {
+	
+	public enum Engine {
+		SKIP_LIST, LOCKED_BST, JDK_SKIP_LIST
+	}
+	
+	@Param({"SKIP_LIST", "LOCKED_BST", "JDK_SKIP_LIST"})
+	public Engine engine;
+	
+	@Param({"100000"})
+	public int size;
+	
+	private SymbolTable<Integer, Integer> table;
+	
+	// Half the key space is present, so puts and deletes both change the table.
+	@Setup
+	public void setup() {
+		switch (engine) {
+		case SKIP_LIST:
+			table = new ConcurrentSkipList<Integer, Integer>();
+			break;
+		case LOCKED_BST:
+			table = new LockedSymbolTable<Integer, Integer>(new BST<Integer, Integer>());
+			break;
+		default:
+			table = new JdkSymbolTable<Integer, Integer>(new ConcurrentSkipListMap<Integer, Integer>());
+		}
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int i = 0; i < size; i++) {
+			int key = random.nextInt(2 * size);
+			table.put(key, key);
+		}
+	}
+	
+	private Integer operation() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int key = random.nextInt(2 * size);
+		int op = random.nextInt(5);
+		if (op < 2) {
+			table.put(key, key);
+		} else if (op < 4) {
+			table.delete(key);
+		} else {
+			return table.get(key);
+		}
+		return null;
+	}
+	
+	@Benchmark
+	@Threads(1)
+	public Integer threads1() {
+		return operation();
+	}
+	
+	@Benchmark
+	@Threads(4)
+	public Integer threads4() {
+		return operation();
+	}
+	
+	@Benchmark
+	@Threads(16)
+	public Integer threads16() {
+		return operation();
+	}
+	
+}
@@ -0,0 +1,107 @@
+package datastructure.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import datastructure.BST;
+import datastructure.HashMap;
+import datastructure.Map_Trie;
+import datastructure.SymbolTable;
+import datastructure.benchmarks.Workloads.Distribution;
+
+
+/**
+ * get / put / delete throughput of each symbol table engine against the JDK
+ * collections, for every key distribution in Workloads.
+ * BST recurses once per level, so forks get a large stack for the SORTED case.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xss64m"})
+public class SymbolTableBenchmark {
+	
+	public enum Engine {
+		BST, HASH_MAP, TRIE, JDK_HASH_MAP, JDK_TREE_MAP;
+		
+		SymbolTable<String, Integer> create() {
+			switch (this) {
+			case BST:
+				return new BST<String, Integer>();
+			case HASH_MAP:
+				return new HashMap<String, Integer>();
+			case TRIE:
+				return new Map_Trie<Integer>();
+			case JDK_HASH_MAP:
+				return new JdkSymbolTable<String, Integer>(new java.util.HashMap<String, Integer>());
+			default:
+				return new JdkSymbolTable<String, Integer>(new java.util.TreeMap<String, Integer>());
+			}
+		}
+	}
+	
+	private static final int OPS = 1 << 16;
+	
+	@Param({"BST", "HASH_MAP", "TRIE", "JDK_HASH_MAP", "JDK_TREE_MAP"})
+	public Engine engine;
+	
+	@Param({"UNIFORM", "ZIPFIAN", "SORTED", "ADVERSARIAL"})
+	public Distribution distribution;
+	
+	@Param({"1024", "65536"})
+	public int size;
+	
+	private SymbolTable<String, Integer> table;
+	private String[] keys;
+	private int[] accesses;
+	private int next;
+	
+	@Setup
+	public void setup() {
+		keys = Workloads.keys(distribution, size);
+		accesses = Workloads.accesses(distribution, size, OPS);
+		table = engine.create();
+		for (int i = 0; i < keys.length; i++) {
+			table.put(keys[i], i);
+		}
+	}
+	
+	private String nextKey() {
+		String key = keys[accesses[next]];
+		next = (next + 1) & (OPS - 1);
+		return key;
+	}
+	
+	@Benchmark
+	public Integer get() {
+		return table.get(nextKey());
+	}
+	
+	@Benchmark
+	public void put() {
+		table.put(nextKey(), next);
+	}
+	
+	// delete followed by re-insert keeps the table size fixed across iterations
+	@Benchmark
+	public void deleteAndPut() {
+		String key = nextKey();
+		table.delete(key);
+		table.put(key, next);
+	}
+	
+}
@@ -0,0 +1,224 @@
+package datastructure.benchmarks;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import datastructure.EdgeWeightedGraph;
+import datastructure.Graph_AdjList;
+
+
+/**
+ * Key sets, access patterns and graphs shared by the benchmarks.
+ * Every generator is seeded, so runs on different versions see identical data.
+ */
+
+public final class Workloads {
+	
+	public enum Distribution {
+		// distinct random keys, uniform lookups
+		UNIFORM,
+		// distinct random keys, Zipfian lookups (theta = 0.99, as in YCSB)
+		ZIPFIAN,
+		// keys inserted in ascending order, lookups in ascending order
+		SORTED,
+		// keys with one shared String.hashCode(), uniform lookups
+		ADVERSARIAL
+	}
+	
+	private static final long SEED = 42L;
+	private static final double ZIPF_THETA = 0.99;
+	
+	private Workloads() {
+	}
+	
+	
+	/***********************************************************************
+	 *  n distinct String keys, in insertion order.
+	***********************************************************************/
+	public static String[] keys(Distribution distribution, int n) {
+		String[] keys = new String[n];
+		switch (distribution) {
+		case SORTED:
+			for (int i = 0; i < n; i++) {
+				keys[i] = String.format("key%010d", i);
+			}
+			return keys;
+		case ADVERSARIAL:
+			// "Aa" and "BB" hash alike, so every concatenation of them collides
+			int blocks = Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(n - 1, 1)));
+			for (int i = 0; i < n; i++) {
+				StringBuilder sb = new StringBuilder(2 * blocks);
+				for (int b = 0; b < blocks; b++) {
+					sb.append(((i >>> b) & 1) == 0 ? "Aa" : "BB");
+				}
+				keys[i] = sb.toString();
+			}
+			shuffle(keys, new Random(SEED));
+			return keys;
+		default:
+			Random random = new Random(SEED);
+			HashSet<String> seen = new HashSet<String>();
+			for (int i = 0; i < n; i++) {
+				String key;
+				do {
+					key = Long.toString(random.nextLong() & Long.MAX_VALUE, 36);
+				} while (!seen.add(key));
+				keys[i] = key;
+			}
+			return keys;
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  ops indices into a key set of size n, in lookup order.
+	***********************************************************************/
+	public static int[] accesses(Distribution distribution, int n, int ops) {
+		int[] result = new int[ops];
+		Random random = new Random(SEED + 1);
+		switch (distribution) {
+		case SORTED:
+			for (int i = 0; i < ops; i++) {
+				result[i] = i % n;
+			}
+			return result;
+		case ZIPFIAN:
+			Zipf zipf = new Zipf(n, ZIPF_THETA);
+			// scatter the popular ranks over the key set
+			int[] permutation = new int[n];
+			for (int i = 0; i < n; i++) {
+				permutation[i] = i;
+			}
+			shuffle(permutation, random);
+			for (int i = 0; i < ops; i++) {
+				result[i] = permutation[zipf.next(random)];
+			}
+			return result;
+		default:
+			for (int i = 0; i < ops; i++) {
+				result[i] = random.nextInt(n);
+			}
+			return result;
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  R-MAT graph (Chakrabarti et al.) with 2^scale vertices and
+	 *  edgeFactor * 2^scale edges, using the Graph500 probabilities.
+	***********************************************************************/
+	public static Graph_AdjList rmat(int scale, int edgeFactor) {
+		int[][] edges = rmatEdges(scale, edgeFactor);
+		Graph_AdjList G = new Graph_AdjList(1 << scale);
+		G.addEdges(edges[0], edges[1]);
+		return G;
+	}
+	
+	// The edges of rmat() as { from, to }, in generation order.
+	public static int[][] rmatEdges(int scale, int edgeFactor) {
+		int V = 1 << scale;
+		int E = V * edgeFactor;
+		int[] from = new int[E];
+		int[] to = new int[E];
+		Random random = new Random(SEED);
+		for (int e = 0; e < E; e++) {
+			int u = 0, v = 0;
+			for (int bit = scale - 1; bit >= 0; bit--) {
+				double p = random.nextDouble();
+				if (p < 0.57) {
+					continue;
+				} else if (p < 0.76) {
+					v |= 1 << bit;
+				} else if (p < 0.95) {
+					u |= 1 << bit;
+				} else {
+					u |= 1 << bit;
+					v |= 1 << bit;
+				}
+			}
+			from[e] = u;
+			to[e] = v;
+		}
+		return new int[][] { from, to };
+	}
+	
+	
+	/***********************************************************************
+	 *  Road-network-like grid: side x side intersections, vertex
+	 *  row * side + col, each joined to its right and lower neighbor by a
+	 *  road of weight in [1, 2). That is 2 * side * (side - 1) edges, so
+	 *  side 2237 gives 10M. Every step costs at least 1, so the Manhattan
+	 *  distance between two vertices never overestimates their distance.
+	***********************************************************************/
+	public static EdgeWeightedGraph roadGrid(int side) {
+		EdgeWeightedGraph G = new EdgeWeightedGraph(side * side);
+		Random random = new Random(SEED);
+		for (int row = 0; row < side; row++) {
+			for (int col = 0; col < side; col++) {
+				int v = row * side + col;
+				if (col + 1 < side) {
+					G.addEdge(v, v + 1, 1 + random.nextDouble());
+				}
+				if (row + 1 < side) {
+					G.addEdge(v, v + side, 1 + random.nextDouble());
+				}
+			}
+		}
+		return G;
+	}
+	
+	private static void shuffle(Object[] a, Random random) {
+		for (int i = a.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			Object t = a[i];
+			a[i] = a[j];
+			a[j] = t;
+		}
+	}
+	
+	private static void shuffle(int[] a, Random random) {
+		for (int i = a.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int t = a[i];
+			a[i] = a[j];
+			a[j] = t;
+		}
+	}
+	
+	// Zipfian ranks 0 ... n - 1 (Gray et al., as used by YCSB).
+	private static final class Zipf {
+		private final int n;
+		private final double theta, alpha, zetan, eta;
+		
+		private Zipf(int n, double theta) {
+			this.n = n;
+			this.theta = theta;
+			this.zetan = zeta(n, theta);
+			this.alpha = 1.0 / (1.0 - theta);
+			this.eta = (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta(2, theta) / zetan);
+		}
+		
+		private static double zeta(int n, double theta) {
+			double sum = 0;
+			for (int i = 1; i <= n; i++) {
+				sum += 1 / Math.pow(i, theta);
+			}
+			return sum;
+		}
+		
+		private int next(Random random) {
+			double u = random.nextDouble();
+			double uz = u * zetan;
+			if (uz < 1.0) {
+				return 0;
+			}
+			if (uz < 1.0 + Math.pow(0.5, theta)) {
+				return 1;
+			}
+			int rank = (int) (n * Math.pow(eta * u - eta + 1, alpha));
+			return Math.min(rank, n - 1);
+		}
+	}
+	
+	
+}
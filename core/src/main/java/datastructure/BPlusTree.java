@@ -0,0 +1,834 @@
+package datastructure;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+
+/**
+ * Disk-resident B+-tree from long keys to long values, with the ordered
+ * symbol table API of BST.
+ *
+ * The tree lives in a file of 4 KB pages that is memory-mapped 64 MB at a
+ * time, so it can grow past the heap and past RAM: the OS page cache keeps
+ * the hot pages resident and evicts cold ones.
+ *
+ *   page 0     header: magic, version, root, height, size, page count
+ *   leaf       up to 255 sorted keys and their values, and the next leaf
+ *   internal   up to 204 children, the keys separating them, and the number
+ *              of keys under each child
+ *
+ * Key i of an internal page is the smallest key of child i + 1 when the
+ * child was created. The per-child counts give rank() and select() in
+ * O(log n) pages, and the linked leaves let range scans run sequentially.
+ *
+ * Deletion is lazy: a key is removed from its leaf, but pages are never
+ * merged or freed. This keeps deletes to one path of writes, and separator
+ * keys stay valid bounds. A delete-heavy file can be compacted by bulk
+ * loading its entries into a new file.
+ *
+ * Changes reach the file through the mapping. sync() and close() force them
+ * to disk; there is no log, so a crash between syncs can corrupt the tree.
+ * This class is NOT THREAD-SAFE
+ */
+
+public class BPlusTree implements OrderedSymbolTable<Long, Long>, Closeable {
+	
+	static final int MAGIC = 0x54524545;		// "TREE"
+	static final int VERSION = 1;
+	
+	static final int PAGE_SHIFT = 12;
+	static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+	private static final int SEGMENT_SHIFT = 14;		// pages per mapping
+	private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+	
+	private static final int LEAF = 1;
+	private static final int INTERNAL = 2;
+	
+	// Page header: int type, int n, long next leaf.
+	private static final int TYPE = 0;
+	private static final int COUNT = 4;
+	private static final int NEXT = 8;
+	private static final int HEADER = 16;
+	
+	static final int LEAF_CAPACITY = (PAGE_SIZE - HEADER) / 16;
+	private static final int LEAF_VALUES = HEADER + 8 * LEAF_CAPACITY;
+	
+	static final int FANOUT = (PAGE_SIZE - HEADER + 8) / 20;
+	private static final int CHILDREN = HEADER + 8 * (FANOUT - 1);
+	private static final int COUNTS = CHILDREN + 4 * FANOUT;
+	
+	private static final int NONE = -1;
+	
+	private final FileChannel channel;
+	private final List<MappedByteBuffer> segments;
+	private int root;
+	private int height;
+	private long size;
+	private int pages;
+	
+	
+	/**
+	* Opens the tree stored in file, creating an empty one if the file does
+	* not exist or is empty.
+	* @throws IOException if file exists but is not a tree file
+	*/
+	public BPlusTree(Path file) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		segments = new ArrayList<MappedByteBuffer>();
+		if (channel.size() == 0) {
+			pages = 1;
+			ensureMapped(0);
+			root = allocate(LEAF);
+			height = 1;
+			size = 0;
+			writeHeader();
+			return;
+		}
+		ensureMapped(0);
+		ByteBuffer header = segments.get(0);
+		if (header.getInt(0) != MAGIC) {
+			channel.close();
+			throw new IOException("not a tree file: " + file);
+		}
+		if (header.getInt(4) != VERSION) {
+			channel.close();
+			throw new IOException("unsupported tree file version " + header.getInt(4));
+		}
+		root = header.getInt(8);
+		height = header.getInt(12);
+		size = header.getLong(16);
+		pages = header.getInt(24);
+		ensureMapped(pages - 1);
+	}
+	
+	
+	/***********************************************************************
+	 *  Basic functions.
+	***********************************************************************/
+	
+	public int size() {
+		return (int) Math.min(size, Integer.MAX_VALUE);
+	}
+	
+	// size() as a long, for trees past 2^31 keys.
+	public long count() {
+		return size;
+	}
+	
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	public int height() {
+		return height;
+	}
+	
+	public long fileBytes() {
+		return (long) pages << PAGE_SHIFT;
+	}
+	
+	public Long get(Long key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		int p = leafFor(key);
+		int i = lowerBound(p, key);
+		if (i < count(p) && key(p, i) == key) {
+			return value(p, i);
+		}
+		return null;
+	}
+	
+	public boolean contains(Long key) {
+		return get(key) != null;
+	}
+	
+	
+	/***********************************************************************
+	 *  Insert. A full page splits in two and its right half's first key
+	 *  goes up to the parent, possibly splitting it in turn; a split root
+	 *  adds a level.
+	***********************************************************************/
+	public void put(Long key, Long value) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		if (value == null) {
+			delete(key);
+			return;
+		}
+		put(key.longValue(), value.longValue());
+	}
+	
+	private void put(long key, long value) {
+		int[] path = new int[height];
+		int[] slot = new int[height];
+		int depth = 0;
+		int p = root;
+		while (type(p) == INTERNAL) {
+			int i = childIndex(p, key);
+			path[depth] = p;
+			slot[depth++] = i;
+			p = child(p, i);
+		}
+		
+		int n = count(p);
+		int i = lowerBound(p, key);
+		if (i < n && key(p, i) == key) {
+			setValue(p, i, value);
+			return;
+		}
+		size++;
+		if (n < LEAF_CAPACITY) {
+			for (int j = n; j > i; j--) {
+				setKey(p, j, key(p, j - 1));
+				setValue(p, j, value(p, j - 1));
+			}
+			setKey(p, i, key);
+			setValue(p, i, value);
+			setCount(p, n + 1);
+			for (int d = 0; d < depth; d++) {
+				addSubtree(path[d], slot[d], 1);
+			}
+			return;
+		}
+		
+		// Split the leaf: both halves plus the new entry.
+		long[] keys = new long[n + 1];
+		long[] values = new long[n + 1];
+		for (int j = 0, k = 0; j <= n; j++) {
+			if (j == i) {
+				keys[j] = key;
+				values[j] = value;
+			} else {
+				keys[j] = key(p, k);
+				values[j] = value(p, k++);
+			}
+		}
+		int half = (n + 1) >>> 1;
+		int q = allocate(LEAF);
+		for (int j = 0; j < half; j++) {
+			setKey(p, j, keys[j]);
+			setValue(p, j, values[j]);
+		}
+		for (int j = half; j <= n; j++) {
+			setKey(q, j - half, keys[j]);
+			setValue(q, j - half, values[j]);
+		}
+		setCount(p, half);
+		setCount(q, n + 1 - half);
+		setNextLeaf(q, nextLeaf(p));
+		setNextLeaf(p, q);
+		
+		long separator = keys[half];
+		long leftCount = half;
+		long rightCount = n + 1 - half;
+		int right = q;
+		for (int d = depth - 1; d >= 0; d--) {
+			p = path[d];
+			int s = slot[d];
+			n = count(p);
+			if (n < FANOUT) {
+				for (int j = n; j > s + 1; j--) {
+					setChild(p, j, child(p, j - 1));
+					setSubtree(p, j, subtree(p, j - 1));
+					setKey(p, j - 1, key(p, j - 2));
+				}
+				setChild(p, s + 1, right);
+				setSubtree(p, s + 1, rightCount);
+				setKey(p, s, separator);
+				setSubtree(p, s, leftCount);
+				setCount(p, n + 1);
+				for (int e = 0; e < d; e++) {
+					addSubtree(path[e], slot[e], 1);
+				}
+				return;
+			}
+			
+			// Split the internal page around the middle key.
+			int[] children = new int[n + 1];
+			long[] counts = new long[n + 1];
+			long[] seps = new long[n];
+			for (int j = 0, k = 0; j <= n; j++) {
+				if (j == s + 1) {
+					children[j] = right;
+					counts[j] = rightCount;
+				} else {
+					children[j] = child(p, k);
+					counts[j] = k == s ? leftCount : subtree(p, k);
+					k++;
+				}
+			}
+			for (int j = 0, k = 0; j < n; j++) {
+				seps[j] = j == s ? separator : key(p, k++);
+			}
+			half = (n + 1) >>> 1;
+			q = allocate(INTERNAL);
+			leftCount = 0;
+			rightCount = 0;
+			for (int j = 0; j < half; j++) {
+				setChild(p, j, children[j]);
+				setSubtree(p, j, counts[j]);
+				leftCount += counts[j];
+				if (j > 0) {
+					setKey(p, j - 1, seps[j - 1]);
+				}
+			}
+			for (int j = half; j <= n; j++) {
+				setChild(q, j - half, children[j]);
+				setSubtree(q, j - half, counts[j]);
+				rightCount += counts[j];
+				if (j > half) {
+					setKey(q, j - half - 1, seps[j - 1]);
+				}
+			}
+			setCount(p, half);
+			setCount(q, n + 1 - half);
+			separator = seps[half - 1];
+			right = q;
+		}
+		
+		int r = allocate(INTERNAL);
+		setChild(r, 0, root);
+		setSubtree(r, 0, leftCount);
+		setChild(r, 1, right);
+		setSubtree(r, 1, rightCount);
+		setKey(r, 0, separator);
+		setCount(r, 2);
+		root = r;
+		height++;
+	}
+	
+	
+	/***********************************************************************
+	 *  Delete (lazy: pages are never merged)
+	***********************************************************************/
+	public void delete(Long key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		int[] path = new int[height];
+		int[] slot = new int[height];
+		int depth = 0;
+		int p = root;
+		while (type(p) == INTERNAL) {
+			int i = childIndex(p, key);
+			path[depth] = p;
+			slot[depth++] = i;
+			p = child(p, i);
+		}
+		int n = count(p);
+		int i = lowerBound(p, key);
+		if (i == n || key(p, i) != key) {
+			return;
+		}
+		for (int j = i; j < n - 1; j++) {
+			setKey(p, j, key(p, j + 1));
+			setValue(p, j, value(p, j + 1));
+		}
+		setCount(p, n - 1);
+		for (int d = 0; d < depth; d++) {
+			addSubtree(path[d], slot[d], -1);
+		}
+		size--;
+	}
+	
+	public void deleteMin() {
+		if (isEmpty()) {
+			throw new NoSuchElementException();
+		}
+		delete(min());
+	}
+	
+	public void deleteMax() {
+		if (isEmpty()) {
+			throw new NoSuchElementException();
+		}
+		delete(max());
+	}
+	
+	
+	/***********************************************************************
+	 *  Min, max, floor, ceiling, rank and select, all through the counts,
+	 *  since lazy deletion can leave empty leaves at either end.
+	***********************************************************************/
+	public Long min() {
+		if (isEmpty()) {
+			return null;
+		}
+		return select(0);
+	}
+	
+	public Long max() {
+		if (isEmpty()) {
+			return null;
+		}
+		return select(size() - 1);
+	}
+	
+	public Long floor(Long key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		if (contains(key)) {
+			return key;
+		}
+		int rank = rank(key);
+		return rank == 0 ? null : select(rank - 1);
+	}
+	
+	public Long ceiling(Long key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		long rank = rankOf(key);
+		return rank == size ? null : selectKey(rank);
+	}
+	
+	public int rank(Long key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		return (int) Math.min(rankOf(key), Integer.MAX_VALUE);
+	}
+	
+	// Number of keys less than key.
+	private long rankOf(long key) {
+		long rank = 0;
+		int p = root;
+		while (type(p) == INTERNAL) {
+			int i = childIndex(p, key);
+			for (int j = 0; j < i; j++) {
+				rank += subtree(p, j);
+			}
+			p = child(p, i);
+		}
+		return rank + lowerBound(p, key);
+	}
+	
+	public Long select(int k) {
+		if (k < 0 || k >= size) {
+			return null;
+		}
+		return selectKey(k);
+	}
+	
+	private long selectKey(long k) {
+		int p = root;
+		while (type(p) == INTERNAL) {
+			int i = 0;
+			long c;
+			while (k >= (c = subtree(p, i))) {
+				k -= c;
+				i++;
+			}
+			p = child(p, i);
+		}
+		return key(p, (int) k);
+	}
+	
+	
+	/***********************************************************************
+	 *  Range scans walk the leaf chain from the leaf holding low.
+	***********************************************************************/
+	
+	/**
+	* Receives the entries of a range from scan().
+	* Returning false stops the scan.
+	*/
+	public interface EntryVisitor {
+		boolean visit(long key, long value);
+	}
+	
+	/**
+	* Visits the entries with low <= key <= high in ascending key order.
+	* @return false if the visitor stopped the scan
+	*/
+	public boolean scan(long low, long high, EntryVisitor visitor) {
+		if (low > high) {
+			return true;
+		}
+		int p = leafFor(low);
+		int i = lowerBound(p, low);
+		while (p != NONE) {
+			for (int n = count(p); i < n; i++) {
+				long key = key(p, i);
+				if (key > high) {
+					return true;
+				}
+				if (!visitor.visit(key, value(p, i))) {
+					return false;
+				}
+			}
+			p = nextLeaf(p);
+			i = 0;
+		}
+		return true;
+	}
+	
+	public Iterable<Long> keys() {
+		return keys(Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+	
+	// The keys are read lazily from the pages as the iterator advances.
+	public Iterable<Long> keys(final Long low, final Long high) {
+		if (low == null || high == null) {
+			throw new NullPointerException();
+		}
+		return new Iterable<Long>() {
+			public Iterator<Long> iterator() {
+				return new rangeIterator(low, high);
+			}
+		};
+	}
+	
+	private class rangeIterator implements Iterator<Long> {
+		
+		private final long high;
+		private int page;
+		private int index;
+		
+		public rangeIterator(long low, long high) {
+			this.high = high;
+			if (low > high) {
+				page = NONE;
+			} else {
+				page = leafFor(low);
+				index = lowerBound(page, low);
+				advance();
+			}
+		}
+		
+		// Skips exhausted (or lazily emptied) leaves.
+		private void advance() {
+			while (page != NONE && index == count(page)) {
+				page = nextLeaf(page);
+				index = 0;
+			}
+			if (page != NONE && key(page, index) > high) {
+				page = NONE;
+			}
+		}
+		
+		public boolean hasNext() {
+			return page != NONE;
+		}
+		
+		public Long next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			long key = key(page, index++);
+			advance();
+			return key;
+		}
+		
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  Bulk loading
+	***********************************************************************/
+	
+	/**
+	* Builds a tree in a new file from entries in strictly ascending key
+	* order. Leaves are filled completely and written sequentially, and each
+	* level is built as the one below it fills, so the entries never have to
+	* fit in memory.
+	*/
+	public static Loader loader(Path file) throws IOException {
+		return new Loader(file);
+	}
+	
+	/**
+	* Builds a tree in a new file from parallel arrays sorted by key.
+	* @throws IllegalArgumentException if keys are not strictly ascending
+	*/
+	public static BPlusTree bulkLoad(Path file, long[] keys, long[] values) throws IOException {
+		if (keys.length != values.length) {
+			throw new IllegalArgumentException();
+		}
+		Loader loader = loader(file);
+		for (int i = 0; i < keys.length; i++) {
+			loader.add(keys[i], values[i]);
+		}
+		return loader.finish();
+	}
+	
+	public static class Loader {
+		
+		private final BPlusTree tree;
+		// Open page of each level, with its first key and its key count.
+		private final List<Integer> open = new ArrayList<Integer>();
+		private final List<Long> first = new ArrayList<Long>();
+		private final List<Long> total = new ArrayList<Long>();
+		private long last;
+		private boolean finished;
+		
+		private Loader(Path file) throws IOException {
+			tree = new BPlusTree(file);
+			if (!tree.isEmpty()) {
+				tree.close();
+				throw new IllegalArgumentException("file is not empty: " + file);
+			}
+			open.add(tree.root);
+			first.add(0L);
+			total.add(0L);
+		}
+		
+		/**
+		* @throws IllegalArgumentException unless key is greater than the last key added
+		*/
+		public void add(long key, long value) {
+			if (finished) {
+				throw new IllegalStateException();
+			}
+			if (tree.size > 0 && key <= last) {
+				throw new IllegalArgumentException("keys must be strictly ascending");
+			}
+			int p = open.get(0);
+			int n = tree.count(p);
+			if (n == LEAF_CAPACITY) {
+				int q = tree.allocate(LEAF);
+				tree.setNextLeaf(p, q);
+				push(1, p, first.get(0), n);
+				open.set(0, q);
+				p = q;
+				n = 0;
+			}
+			if (n == 0) {
+				first.set(0, key);
+			}
+			tree.setKey(p, n, key);
+			tree.setValue(p, n, value);
+			tree.setCount(p, n + 1);
+			tree.size++;
+			last = key;
+		}
+		
+		// Adds a finished page to its parent level, closing that level's
+		// page first if it is full.
+		private void push(int level, int page, long key, long count) {
+			if (level == open.size()) {
+				open.add(tree.allocate(INTERNAL));
+				first.add(key);
+				total.add(0L);
+			}
+			int p = open.get(level);
+			int n = tree.count(p);
+			if (n == FANOUT) {
+				push(level + 1, p, first.get(level), total.get(level));
+				p = tree.allocate(INTERNAL);
+				open.set(level, p);
+				total.set(level, 0L);
+				n = 0;
+			}
+			if (n == 0) {
+				first.set(level, key);
+			} else {
+				tree.setKey(p, n - 1, key);
+			}
+			tree.setChild(p, n, page);
+			tree.setSubtree(p, n, count);
+			tree.setCount(p, n + 1);
+			total.set(level, total.get(level) + count);
+		}
+		
+		/**
+		* Closes every open page and returns the tree, ready for use.
+		*/
+		public BPlusTree finish() {
+			if (finished) {
+				throw new IllegalStateException();
+			}
+			finished = true;
+			int levels = open.size();
+			if (levels > 1) {
+				push(1, open.get(0), first.get(0), tree.count(open.get(0)));
+				for (int level = 1; level < open.size() - 1; level++) {
+					push(level + 1, open.get(level), first.get(level), total.get(level));
+				}
+				levels = open.size();
+			}
+			tree.root = open.get(levels - 1);
+			tree.height = levels;
+			return tree;
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  File
+	***********************************************************************/
+	
+	/**
+	* Writes the header and forces every change to disk.
+	*/
+	public void sync() throws IOException {
+		writeHeader();
+		for (MappedByteBuffer segment : segments) {
+			segment.force();
+		}
+	}
+	
+	public void close() throws IOException {
+		if (!channel.isOpen()) {
+			return;
+		}
+		sync();
+		channel.close();
+	}
+	
+	private void writeHeader() {
+		ByteBuffer header = segments.get(0);
+		header.putInt(0, MAGIC);
+		header.putInt(4, VERSION);
+		header.putInt(8, root);
+		header.putInt(12, height);
+		header.putLong(16, size);
+		header.putInt(24, pages);
+	}
+	
+	private int allocate(int type) {
+		int p = pages++;
+		try {
+			ensureMapped(p);
+		} catch (IOException e) {
+			pages--;
+			throw new java.io.UncheckedIOException(e);
+		}
+		ByteBuffer b = segment(p);
+		int base = base(p);
+		b.putInt(base + TYPE, type);
+		b.putInt(base + COUNT, 0);
+		b.putLong(base + NEXT, NONE);
+		return p;
+	}
+	
+	private void ensureMapped(int page) throws IOException {
+		while (segments.size() <= page >>> SEGMENT_SHIFT) {
+			long start = (long) segments.size() << (SEGMENT_SHIFT + PAGE_SHIFT);
+			segments.add(channel.map(MapMode.READ_WRITE, start, 1L << (SEGMENT_SHIFT + PAGE_SHIFT)));
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  Page access
+	***********************************************************************/
+	
+	private ByteBuffer segment(int p) {
+		return segments.get(p >>> SEGMENT_SHIFT);
+	}
+	
+	private static int base(int p) {
+		return (p & SEGMENT_MASK) << PAGE_SHIFT;
+	}
+	
+	private int type(int p) {
+		return segment(p).getInt(base(p) + TYPE);
+	}
+	
+	private int count(int p) {
+		return segment(p).getInt(base(p) + COUNT);
+	}
+	
+	private void setCount(int p, int n) {
+		segment(p).putInt(base(p) + COUNT, n);
+	}
+	
+	private int nextLeaf(int p) {
+		return (int) segment(p).getLong(base(p) + NEXT);
+	}
+	
+	private void setNextLeaf(int p, int q) {
+		segment(p).putLong(base(p) + NEXT, q);
+	}
+	
+	// Leaf keys and internal separators share the same offsets.
+	private long key(int p, int i) {
+		return segment(p).getLong(base(p) + HEADER + (i << 3));
+	}
+	
+	private void setKey(int p, int i, long key) {
+		segment(p).putLong(base(p) + HEADER + (i << 3), key);
+	}
+	
+	private long value(int p, int i) {
+		return segment(p).getLong(base(p) + LEAF_VALUES + (i << 3));
+	}
+	
+	private void setValue(int p, int i, long value) {
+		segment(p).putLong(base(p) + LEAF_VALUES + (i << 3), value);
+	}
+	
+	private int child(int p, int i) {
+		return segment(p).getInt(base(p) + CHILDREN + (i << 2));
+	}
+	
+	private void setChild(int p, int i, int child) {
+		segment(p).putInt(base(p) + CHILDREN + (i << 2), child);
+	}
+	
+	private long subtree(int p, int i) {
+		return segment(p).getLong(base(p) + COUNTS + (i << 3));
+	}
+	
+	private void setSubtree(int p, int i, long count) {
+		segment(p).putLong(base(p) + COUNTS + (i << 3), count);
+	}
+	
+	private void addSubtree(int p, int i, long delta) {
+		setSubtree(p, i, subtree(p, i) + delta);
+	}
+	
+	// Index of the child whose range holds key: the number of separators <= key.
+	private int childIndex(int p, long key) {
+		int lo = 0, hi = count(p) - 1;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (key(p, mid) <= key) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+	
+	// Index of the first leaf key >= key.
+	private int lowerBound(int p, long key) {
+		int lo = 0, hi = count(p);
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (key(p, mid) < key) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+	
+	private int leafFor(long key) {
+		int p = root;
+		while (type(p) == INTERNAL) {
+			p = child(p, childIndex(p, key));
+		}
+		return p;
+	}
+	
+}
@@ -2,16 +2,37 @@
 *  REFERENCE : http://algs4.cs.princeton.edu/32bst/BST.java.html
 ***********************************************************************/
 
+package datastructure;
+
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 
-public class BST<Key extends Comparable<Key>, Value> implements Iterable<Key> {
+public class BST<Key extends Comparable<Key>, Value> implements OrderedSymbolTable<Key, Value>, Iterable<Key> {
 	
 	private Node root;
+	private Metrics metrics;
+	private final Monoid<Value> monoid;
+	
+	public BST() {
+		this(null);
+	}
+	
+	/**
+	* Keeps, in every node, the combine() of the values in its subtree in key
+	* order, updated on the way back up from each put and delete just like
+	* size. aggregate(lo, hi) then runs in O(height) however wide the range.
+	* Every node has the aggregate field, monoid or not. With compressed oops
+	* it fills the padding after the reference to the enclosing tree, so a
+	* node stays at 40 bytes; without them it grows from 56 to 64 bytes.
+	*/
+	public BST(Monoid<Value> monoid) {
+		this.monoid = monoid;
+	}
 	
 	
 	/***********************************************************************
@@ -38,12 +59,65 @@ public class BST<Key extends Comparable<Key>, Value> implements Iterable<Key> {
 		return x.size;
 	}
 	
+	// Recomputes size, and the aggregate if there is a monoid, from the children.
+	private void update(Node x) {
+		x.size = 1 + size(x.left) + size(x.right);
+		if (monoid != null) {
+			x.aggregate = monoid.combine(monoid.combine(aggregate(x.left), x.value), aggregate(x.right));
+		}
+	}
+	
+	private Value aggregate(Node x) {
+		if (x == null) {
+			return monoid.identity();
+		}
+		return x.aggregate;
+	}
+	
+	/**
+	* Attaches metrics to get, put and delete, or detaches them if null.
+	* Probes are the depth of the key, so the probe histogram tracks how far
+	* the tree has drifted from balanced without calling height().
+	*/
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	// Number of nodes on the search path for key.
+	private int depth(Key key) {
+		int depth = 0;
+		Node x = root;
+		while (x != null) {
+			depth++;
+			int cmp = key.compareTo(x.key);
+			if (cmp == 0) {
+				break;
+			}
+			x = cmp > 0 ? x.right : x.left;
+		}
+		return depth;
+	}
+	
 	
 	/***********************************************************************
 	 *  Insert key-value pair into BST
 	 *  If key already exists, update with new value
+	 *  If value is null, delete key
 	***********************************************************************/
 	public void put(Key key, Value value) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		if (value == null) {
+			delete(key);
+			return;
+		}
+		if (metrics != null) {
+			long start = System.nanoTime();
+			root = put(root, key, value);
+			metrics.operation(Metrics.Op.PUT, System.nanoTime() - start, depth(key));
+			return;
+		}
 		root = put(root, key, value);
 	}
 	
@@ -60,7 +134,7 @@ public class BST<Key extends Comparable<Key>, Value> implements Iterable<Key> {
 			x.value = value;
 		}
 		
-		x.size = 1 + size(x.left) + size(x.right);
+		update(x);
 		return x;
 	}
 	
@@ -73,6 +147,15 @@ public class BST<Key extends Comparable<Key>, Value> implements Iterable<Key> {
 	}
 	
 	public Value get(Key key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		if (metrics != null) {
+			long start = System.nanoTime();
+			Value value = get(root, key);
+			metrics.operation(Metrics.Op.GET, System.nanoTime() - start, depth(key));
+			return value;
+		}
 		return get(root, key);
 	}
 	
@@ -92,6 +175,101 @@ public class BST<Key extends Comparable<Key>, Value> implements Iterable<Key> {
 	}
 	
 	
+	/***********************************************************************
+	 *  Batch put, with the same result as put() in index order: for a
+	 *  key that appears more than once the last value wins, and a null
+	 *  value deletes. The batch is sorted once and pushed down the tree
+	 *  in a single pass, split around each node's key. A run of new keys
+	 *  that falls into an empty subtree is attached as a balanced subtree,
+	 *  so a sorted load no longer degrades the tree into a list.
+	 *  Deletes follow the pass. Falls back to put() per key while metrics
+	 *  are attached.
+	***********************************************************************/
+	public void putAll(Key[] keys, Value[] values) {
+		if (keys.length != values.length) {
+			throw new IllegalArgumentException();
+		}
+		if (metrics != null) {
+			for (int i = 0; i < keys.length; i++) {
+				put(keys[i], values[i]);
+			}
+			return;
+		}
+		Integer[] order = sortedOrder(keys);
+		// The sort is stable, so the last of each run of equal keys is the one to keep.
+		List<Key> putKeys = new ArrayList<Key>();
+		List<Value> putValues = new ArrayList<Value>();
+		List<Key> deletes = new ArrayList<Key>();
+		for (int i = 0; i < order.length; i++) {
+			if (i + 1 < order.length && keys[order[i]].compareTo(keys[order[i + 1]]) == 0) {
+				continue;
+			}
+			if (values[order[i]] == null) {
+				deletes.add(keys[order[i]]);
+			} else {
+				putKeys.add(keys[order[i]]);
+				putValues.add(values[order[i]]);
+			}
+		}
+		root = putAll(root, putKeys, putValues, 0, putKeys.size());
+		for (Key key : deletes) {
+			root = delete(root, key);
+		}
+	}
+	
+	// Puts the distinct ascending keys lo ... hi - 1 into subtree x.
+	private Node putAll(Node x, List<Key> keys, List<Value> values, int lo, int hi) {
+		if (lo >= hi) {
+			return x;
+		}
+		if (x == null) {
+			return build(keys, values, lo, hi);
+		}
+		int mid = lo, high = hi;
+		while (mid < high) {
+			int m = (mid + high) >>> 1;
+			if (keys.get(m).compareTo(x.key) < 0) {
+				mid = m + 1;
+			} else {
+				high = m;
+			}
+		}
+		int end = mid;
+		if (end < hi && keys.get(end).compareTo(x.key) == 0) {
+			x.value = values.get(end++);
+		}
+		x.left = putAll(x.left, keys, values, lo, mid);
+		x.right = putAll(x.right, keys, values, end, hi);
+		update(x);
+		return x;
+	}
+	
+	private Node build(List<Key> keys, List<Value> values, int lo, int hi) {
+		if (lo >= hi) {
+			return null;
+		}
+		int mid = (lo + hi) >>> 1;
+		Node x = new Node(keys.get(mid), values.get(mid), hi - lo);
+		x.left = build(keys, values, lo, mid);
+		x.right = build(keys, values, mid + 1, hi);
+		update(x);
+		return x;
+	}
+	
+	// Positions of keys, stably sorted by key.
+	private Integer[] sortedOrder(final Key[] keys) {
+		Integer[] order = new Integer[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] == null) {
+				throw new NullPointerException();
+			}
+			order[i] = i;
+		}
+		Arrays.sort(order, (i, j) -> keys[i].compareTo(keys[j]));
+		return order;
+	}
+	
+	
 	/***********************************************************************
 	 *  Delete
 	***********************************************************************/
@@ -108,7 +286,7 @@ public class BST<Key extends Comparable<Key>, Value> implements Iterable<Key> {
 		}
 		
 		x.left = deleteMin(x.left);
-		x.size = size(x.left) + size(x.right) + 1;
+		update(x);
 		return x;
 	}
 	
@@ -124,11 +302,21 @@ public class BST<Key extends Comparable<Key>, Value> implements Iterable<Key> {
 			return x.left;
 		}
 		x.right = deleteMax(x.right);
-		x.size = size(x.left) + size(x.right) + 1;
+		update(x);
 		return x;
 	}
 	
 	public void delete(Key key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		if (metrics != null) {
+			int depth = depth(key);
+			long start = System.nanoTime();
+			root = delete(root, key);
+			metrics.operation(Metrics.Op.DELETE, System.nanoTime() - start, depth);
+			return;
+		}
 		root = delete(root, key);
 	}
 	
@@ -154,7 +342,7 @@ public class BST<Key extends Comparable<Key>, Value> implements Iterable<Key> {
 			x.right = deleteMin(t.right);
 			x.left = t.left;
 		}
-		x.size = size(x.left) + size(x.right) + 1;
+		update(x);
 		return x;
 	}
 	
@@ -190,6 +378,46 @@ public class BST<Key extends Comparable<Key>, Value> implements Iterable<Key> {
 		return max(x.right);
 	}
 	
+	public Key floor(Key key) {
+		Node x = floor(root, key);
+		return x == null ? null : x.key;
+	}
+	
+	// Largest node with key <= given key.
+	private Node floor(Node x, Key key) {
+		if (x == null) {
+			return null;
+		}
+		int cmp = key.compareTo(x.key);
+		if (cmp == 0) {
+			return x;
+		} else if (cmp < 0) {
+			return floor(x.left, key);
+		}
+		Node t = floor(x.right, key);
+		return t == null ? x : t;
+	}
+	
+	public Key ceiling(Key key) {
+		Node x = ceiling(root, key);
+		return x == null ? null : x.key;
+	}
+	
+	// Smallest node with key >= given key.
+	private Node ceiling(Node x, Key key) {
+		if (x == null) {
+			return null;
+		}
+		int cmp = key.compareTo(x.key);
+		if (cmp == 0) {
+			return x;
+		} else if (cmp > 0) {
+			return ceiling(x.right, key);
+		}
+		Node t = ceiling(x.left, key);
+		return t == null ? x : t;
+	}
+	
 	
 	/***********************************************************************
 	    *  Rank and selection Based on 0.
@@ -224,6 +452,9 @@ public class BST<Key extends Comparable<Key>, Value> implements Iterable<Key> {
 	
 	// Number of keys in the subtree less than key.
 	private int rank(Node node, Key key) {
+		if (node == null) {
+			return 0;
+		}
 		int cmp = key.compareTo(node.key);
 		if (cmp > 0) {
 			return size(node.left) + 1 + rank(node.right, key);
@@ -238,6 +469,9 @@ public class BST<Key extends Comparable<Key>, Value> implements Iterable<Key> {
 	    *  Range count and range search.
 	***********************************************************************/
 	public Iterable<Key> keys() {
+		if (isEmpty()) {
+			return new ArrayList<Key>();
+		}
 		return keys(min(), max());
 	}
 	
@@ -266,6 +500,71 @@ public class BST<Key extends Comparable<Key>, Value> implements Iterable<Key> {
 		}
 	}
 	
+	/***********************************************************************
+	 *  Range aggregate.
+	 *  combine() of the values of all keys in [low, high], in key order,
+	 *  or the identity if there are none. Only the two search paths for
+	 *  low and high are walked; the subtrees between them contribute their
+	 *  stored aggregates.
+	***********************************************************************/
+	public Value aggregate(Key low, Key high) {
+		if (low == null || high == null) {
+			throw new NullPointerException();
+		}
+		if (monoid == null) {
+			throw new IllegalStateException("BST was built without a monoid");
+		}
+		if (low.compareTo(high) > 0) {
+			return monoid.identity();
+		}
+		return aggregate(root, low, high);
+	}
+	
+	private Value aggregate(Node x, Key low, Key high) {
+		while (x != null) {
+			if (x.key.compareTo(low) < 0) {
+				x = x.right;
+			} else if (x.key.compareTo(high) > 0) {
+				x = x.left;
+			} else {
+				// x splits the range: keys >= low on the left, keys <= high on the right
+				Value left = aggregateFrom(x.left, low);
+				Value right = aggregateTo(x.right, high);
+				return monoid.combine(monoid.combine(left, x.value), right);
+			}
+		}
+		return monoid.identity();
+	}
+	
+	// Aggregate of the keys >= low in subtree x.
+	private Value aggregateFrom(Node x, Key low) {
+		Value result = monoid.identity();
+		while (x != null) {
+			if (x.key.compareTo(low) < 0) {
+				x = x.right;
+			} else {
+				result = monoid.combine(monoid.combine(x.value, aggregate(x.right)), result);
+				x = x.left;
+			}
+		}
+		return result;
+	}
+	
+	// Aggregate of the keys <= high in subtree x.
+	private Value aggregateTo(Node x, Key high) {
+		Value result = monoid.identity();
+		while (x != null) {
+			if (x.key.compareTo(high) > 0) {
+				x = x.left;
+			} else {
+				result = monoid.combine(result, monoid.combine(aggregate(x.left), x.value));
+				x = x.right;
+			}
+		}
+		return result;
+	}
+	
+	
 	public int height() {
 		return height(root);
 	}
@@ -282,7 +581,9 @@ public class BST<Key extends Comparable<Key>, Value> implements Iterable<Key> {
 	public Iterable<Key> levelOrder() {
 		List<Key> result = new ArrayList<Key>();
 		ArrayDeque<Node> queue = new ArrayDeque<Node>();
-		queue.offer(root);
+		if (root != null) {
+			queue.offer(root);
+		}
 		
 		while (!queue.isEmpty()) {
 			int size = queue.size();
@@ -441,11 +742,15 @@ public class BST<Key extends Comparable<Key>, Value> implements Iterable<Key> {
 		private Node left;
 		private Node right;
 		private int size;
+		// combine() of the subtree's values; only kept up to date with a monoid.
+		// Costs no space with compressed oops, 8 bytes per node without.
+		private Value aggregate;
 		
 		public Node(Key key, Value value, int size) {
 			this.key = key;
 			this.value = value;
 			this.size = size;
+			this.aggregate = value;
 			left = null;
 			right = null;
 		}
@@ -0,0 +1,137 @@
+package datastructure;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+
+/**
+ * Blocked Bloom filter (Putze, Sanders and Singler, 2007). The first half
+ * of a key's hash picks one 512-bit block, a cache line, and all k bits of
+ * the key are set inside it. A lookup therefore costs one cache miss
+ * instead of k. Against a standard Bloom filter of the same size the false
+ * positive rate is slightly higher. Keys cannot be removed.
+ * This class is NOT THREAD-SAFE
+ */
+
+public class BloomFilter<Key> implements MembershipFilter<Key> {
+	
+	private static final int BLOCK_LONGS = 8;
+	private static final int BLOCK_BITS = BLOCK_LONGS * 64;
+	private static final int MAX_HASHES = 16;
+	
+	private final int capacity;
+	private final int k;
+	private final int blocks;
+	private final long[] bits;
+	
+	/**
+	* @param capacity number of keys the filter is sized for
+	* @param fpp false positive probability at capacity
+	* @throws IllegalArgumentException unless capacity > 0 and 0 < fpp < 1
+	*/
+	public BloomFilter(int capacity, double fpp) {
+		if (capacity <= 0 || !(fpp > 0 && fpp < 1)) {
+			throw new IllegalArgumentException();
+		}
+		double ln2 = Math.log(2);
+		double m = -capacity * Math.log(fpp) / (ln2 * ln2);
+		this.capacity = capacity;
+		this.k = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(m / capacity * ln2)));
+		this.blocks = (int) Math.max(1, Math.min(Integer.MAX_VALUE / BLOCK_LONGS, Math.ceil(m / BLOCK_BITS)));
+		this.bits = new long[blocks * BLOCK_LONGS];
+	}
+	
+	private BloomFilter(int capacity, int k, long[] bits) {
+		this.capacity = capacity;
+		this.k = k;
+		this.blocks = bits.length / BLOCK_LONGS;
+		this.bits = bits;
+	}
+	
+	public boolean add(Key key) {
+		long h = MembershipFilter.hash(key);
+		int base = block(h);
+		long g = h;
+		for (int i = 0; i < k; i++) {
+			g = bitHash(g, i);
+			int bit = bitOf(g, i);
+			bits[base + (bit >>> 6)] |= 1L << bit;
+		}
+		return true;
+	}
+	
+	public boolean mightContain(Key key) {
+		long h = MembershipFilter.hash(key);
+		int base = block(h);
+		long g = h;
+		for (int i = 0; i < k; i++) {
+			g = bitHash(g, i);
+			int bit = bitOf(g, i);
+			if ((bits[base + (bit >>> 6)] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	public boolean remove(Key key) {
+		throw new UnsupportedOperationException();
+	}
+	
+	public boolean supportsRemove() {
+		return false;
+	}
+	
+	public int capacity() {
+		return capacity;
+	}
+	
+	public int hashes() {
+		return k;
+	}
+	
+	public long memoryBytes() {
+		return 8L * bits.length;
+	}
+	
+	// Index of the first long of the key's block, from the high 32 bits.
+	private int block(long h) {
+		return (int) (((h >>> 32) * blocks) >>> 32) * BLOCK_LONGS;
+	}
+	
+	// One 64-bit hash yields seven 9-bit positions; mix again every seventh.
+	private static long bitHash(long g, int i) {
+		return i % 7 == 0 ? MembershipFilter.mix(g + i) : g;
+	}
+	
+	private static int bitOf(long g, int i) {
+		return (int) (g >>> ((i % 7) * 9)) & (BLOCK_BITS - 1);
+	}
+	
+	public void writeTo(DataOutput out) throws IOException {
+		out.writeInt(BLOOM);
+		out.writeInt(capacity);
+		out.writeInt(k);
+		out.writeInt(bits.length);
+		for (long word : bits) {
+			out.writeLong(word);
+		}
+	}
+	
+	// Reads the fields after the type written by writeTo().
+	static <Key> BloomFilter<Key> read(DataInput in) throws IOException {
+		int capacity = in.readInt();
+		int k = in.readInt();
+		int length = in.readInt();
+		if (capacity <= 0 || k <= 0 || k > MAX_HASHES || length <= 0 || length % BLOCK_LONGS != 0) {
+			throw new IOException("corrupt bloom filter");
+		}
+		long[] bits = new long[length];
+		for (int i = 0; i < length; i++) {
+			bits[i] = in.readLong();
+		}
+		return new BloomFilter<Key>(capacity, k, bits);
+	}
+	
+}
@@ -0,0 +1,66 @@
+package datastructure;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * Binary encoding of keys or values, used by DurableSymbolTable for its log
+ * and snapshots. read() must return an equal object from the bytes write()
+ * produced, and must consume exactly those bytes.
+ */
+
+public interface Codec<T> {
+	
+	void write(T value, DataOutput out) throws IOException;
+	
+	T read(DataInput in) throws IOException;
+	
+	// Length-prefixed UTF-8; unlike writeUTF() there is no 64 KB limit.
+	Codec<String> STRING = new Codec<String>() {
+		public void write(String value, DataOutput out) throws IOException {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+		
+		public String read(DataInput in) throws IOException {
+			byte[] bytes = new byte[in.readInt()];
+			in.readFully(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+	
+	Codec<Integer> INTEGER = new Codec<Integer>() {
+		public void write(Integer value, DataOutput out) throws IOException {
+			out.writeInt(value);
+		}
+		
+		public Integer read(DataInput in) throws IOException {
+			return in.readInt();
+		}
+	};
+	
+	Codec<Long> LONG = new Codec<Long>() {
+		public void write(Long value, DataOutput out) throws IOException {
+			out.writeLong(value);
+		}
+		
+		public Long read(DataInput in) throws IOException {
+			return in.readLong();
+		}
+	};
+	
+	Codec<Double> DOUBLE = new Codec<Double>() {
+		public void write(Double value, DataOutput out) throws IOException {
+			out.writeDouble(value);
+		}
+		
+		public Double read(DataInput in) throws IOException {
+			return in.readDouble();
+		}
+	};
+	
+}
@@ -0,0 +1,510 @@
+package datastructure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Trie with no object per node, for large dictionaries.
+ * Nodes are indices into parallel arrays: the char on the edge into the
+ * node, its first child and its next sibling (children are kept sorted by
+ * char, so keys come out in order). A node that ends a key holds a
+ * terminal ordinal, and values sit in a dense side array at that ordinal,
+ * so nodes without a value pay 4 bytes for it instead of a field in every
+ * node object. Ordinals and nodes freed by delete are reused.
+ *
+ * counters() and intCounters() store values in a long[] or int[] side
+ * array instead of an Object[]: add() and count() then update and read
+ * counts without boxing, while get() and put() still work on Long or
+ * Integer values.
+ *
+ * forEachKey() and forEachCount() pass each key as a CharSequence view of
+ * a buffer that is reused for the next key, so enumerating a prefix does
+ * not build a String per key. Call toString() on the view to keep a key.
+ * This class is NOT THREAD-SAFE
+ */
+
+public class CompactTrie<Value> implements PrefixSymbolTable<Value> {
+	
+	private static final int OBJECTS = 0;
+	private static final int INTS = 1;
+	private static final int LONGS = 2;
+	
+	private static final int ROOT = 0;
+	private static final int NONE = -1;
+	
+	private final int mode;
+	
+	// per node
+	private char[] label;
+	private int[] child;
+	private int[] sibling;
+	private int[] ordinal;
+	private int nodes;
+	private final IntList freeNodes = new IntList();
+	
+	// per key, at its ordinal; only the array for the mode is allocated
+	private Object[] objects;
+	private int[] ints;
+	private long[] longs;
+	private int ordinals;
+	private final IntList freeOrdinals = new IntList();
+	private int size;
+	
+	public CompactTrie() {
+		this(OBJECTS, 16);
+	}
+	
+	private CompactTrie(int mode, int capacity) {
+		this.mode = mode;
+		label = new char[capacity];
+		child = new int[capacity];
+		sibling = new int[capacity];
+		ordinal = new int[capacity];
+		if (mode == INTS) {
+			ints = new int[capacity];
+		} else if (mode == LONGS) {
+			longs = new long[capacity];
+		} else {
+			objects = new Object[capacity];
+		}
+		newNode('\0');
+	}
+	
+	// A trie of long counters, e.g. for word counts.
+	public static CompactTrie<Long> counters() {
+		return new CompactTrie<Long>(LONGS, 16);
+	}
+	
+	// A trie of int counters; add() throws ArithmeticException on overflow.
+	public static CompactTrie<Integer> intCounters() {
+		return new CompactTrie<Integer>(INTS, 16);
+	}
+	
+	
+	/***********************************************************************
+	 *  Symbol table API.
+	***********************************************************************/
+	
+	public int size() {
+		return size;
+	}
+	
+	public Value get(String key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		int node = find(key);
+		if (node == NONE || ordinal[node] == NONE) {
+			return null;
+		}
+		return valueAt(ordinal[node]);
+	}
+	
+	public boolean contains(String key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		int node = find(key);
+		return node != NONE && ordinal[node] != NONE;
+	}
+	
+	/**
+	* In counter mode the value must be a Number.
+	* @throws NullPointerException if key is null
+	*/
+	public void put(String key, Value value) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		if (value == null) {
+			delete(key);
+			return;
+		}
+		int ord = terminal(insert(key));
+		if (mode == INTS) {
+			ints[ord] = ((Number) value).intValue();
+		} else if (mode == LONGS) {
+			longs[ord] = ((Number) value).longValue();
+		} else {
+			objects[ord] = value;
+		}
+	}
+	
+	public void delete(String key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		int[] path = new int[key.length() + 1];
+		int node = ROOT;
+		path[0] = ROOT;
+		for (int i = 0; i < key.length(); i++) {
+			node = child(node, key.charAt(i));
+			if (node == NONE) {
+				return;
+			}
+			path[i + 1] = node;
+		}
+		int ord = ordinal[node];
+		if (ord == NONE) {
+			return;
+		}
+		if (mode == INTS) {
+			ints[ord] = 0;
+		} else if (mode == LONGS) {
+			longs[ord] = 0;
+		} else {
+			objects[ord] = null;
+		}
+		freeOrdinals.add(ord);
+		ordinal[node] = NONE;
+		size--;
+		
+		// remove the nodes left with neither a key nor a child
+		for (int d = key.length(); d > 0; d--) {
+			int x = path[d];
+			if (ordinal[x] != NONE || child[x] != NONE) {
+				break;
+			}
+			unlink(path[d - 1], x);
+			freeNodes.add(x);
+		}
+	}
+	
+	public Iterable<String> keys() {
+		return keysWithPrefix("");
+	}
+	
+	public Iterable<String> keysWithPrefix(String prefix) {
+		final List<String> result = new ArrayList<String>();
+		visit(prefix, (key, ord) -> result.add(key.toString()));
+		return result;
+	}
+	
+	public String longestPrefixOf(String query) {
+		if (query == null) {
+			throw new NullPointerException();
+		}
+		int length = ordinal[ROOT] != NONE ? 0 : -1;
+		int node = ROOT;
+		for (int i = 0; i < query.length(); i++) {
+			node = child(node, query.charAt(i));
+			if (node == NONE) {
+				break;
+			}
+			if (ordinal[node] != NONE) {
+				length = i + 1;
+			}
+		}
+		return length == -1 ? null : query.substring(0, length);
+	}
+	
+	
+	/***********************************************************************
+	 *  Counters, without boxing.
+	***********************************************************************/
+	
+	/**
+	* Adds delta to the count of key, inserting key with count delta if it is
+	* absent, and returns the new count.
+	* @throws UnsupportedOperationException if this is not a counter trie
+	* @throws ArithmeticException if an int counter overflows
+	*/
+	public long add(String key, long delta) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		if (mode == OBJECTS) {
+			throw new UnsupportedOperationException();
+		}
+		int before = size;
+		int ord = terminal(insert(key));
+		if (mode == INTS) {
+			long count = ints[ord] + delta;
+			if ((int) count != count) {
+				if (size > before) {
+					delete(key);
+				}
+				throw new ArithmeticException("int counter overflow");
+			}
+			ints[ord] = (int) count;
+			return count;
+		}
+		longs[ord] += delta;
+		return longs[ord];
+	}
+	
+	/**
+	* Returns the count of key, or 0 if key is absent.
+	* @throws UnsupportedOperationException if this is not a counter trie
+	*/
+	public long count(String key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		if (mode == OBJECTS) {
+			throw new UnsupportedOperationException();
+		}
+		int node = find(key);
+		if (node == NONE || ordinal[node] == NONE) {
+			return 0;
+		}
+		return mode == INTS ? ints[ordinal[node]] : longs[ordinal[node]];
+	}
+	
+	
+	/***********************************************************************
+	 *  Enumeration with a reused key view. The CharSequence passed to a
+	 *  visitor is only valid until it returns; return false to stop.
+	***********************************************************************/
+	
+	public interface KeyVisitor<Value> {
+		boolean visit(CharSequence key, Value value);
+	}
+	
+	public interface CountVisitor {
+		boolean visit(CharSequence key, long count);
+	}
+	
+	public void forEachKey(String prefix, final KeyVisitor<? super Value> visitor) {
+		visit(prefix, (key, ord) -> visitor.visit(key, valueAt(ord)));
+	}
+	
+	/**
+	* @throws UnsupportedOperationException if this is not a counter trie
+	*/
+	public void forEachCount(String prefix, final CountVisitor visitor) {
+		if (mode == OBJECTS) {
+			throw new UnsupportedOperationException();
+		}
+		if (mode == INTS) {
+			visit(prefix, (key, ord) -> visitor.visit(key, ints[ord]));
+		} else {
+			visit(prefix, (key, ord) -> visitor.visit(key, longs[ord]));
+		}
+	}
+	
+	private interface OrdinalVisitor {
+		boolean visit(CharSequence key, int ordinal);
+	}
+	
+	private void visit(String prefix, OrdinalVisitor visitor) {
+		if (prefix == null) {
+			throw new NullPointerException();
+		}
+		int node = find(prefix);
+		if (node == NONE) {
+			return;
+		}
+		KeyView key = new KeyView(prefix);
+		if (ordinal[node] != NONE && !visitor.visit(key, ordinal[node])) {
+			return;
+		}
+		visit(node, key, visitor);
+	}
+	
+	// Visits the keys below node in order; key holds the path to node.
+	private boolean visit(int node, KeyView key, OrdinalVisitor visitor) {
+		int depth = key.length;
+		for (int x = child[node]; x != NONE; x = sibling[x]) {
+			key.set(depth, label[x]);
+			if (ordinal[x] != NONE && !visitor.visit(key, ordinal[x])) {
+				return false;
+			}
+			if (child[x] != NONE && !visit(x, key, visitor)) {
+				return false;
+			}
+			key.length = depth;
+		}
+		return true;
+	}
+	
+	private static final class KeyView implements CharSequence {
+		private char[] chars;
+		private int length;
+		
+		private KeyView(String prefix) {
+			chars = Arrays.copyOf(prefix.toCharArray(), Math.max(16, 2 * prefix.length()));
+			length = prefix.length();
+		}
+		
+		// Truncates to index and appends c.
+		private void set(int index, char c) {
+			if (index == chars.length) {
+				chars = Arrays.copyOf(chars, 2 * index);
+			}
+			chars[index] = c;
+			length = index + 1;
+		}
+		
+		public int length() {
+			return length;
+		}
+		
+		public char charAt(int index) {
+			if (index < 0 || index >= length) {
+				throw new IndexOutOfBoundsException();
+			}
+			return chars[index];
+		}
+		
+		public CharSequence subSequence(int start, int end) {
+			return toString().substring(start, end);
+		}
+		
+		public String toString() {
+			return new String(chars, 0, length);
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  Statistics.
+	***********************************************************************/
+	
+	public int nodeCount() {
+		return nodes - freeNodes.size;
+	}
+	
+	// Bytes held by the node and value arrays, including unused capacity.
+	public long memoryBytes() {
+		long bytes = 14L * label.length;
+		if (mode == INTS) {
+			return bytes + 4L * ints.length;
+		}
+		if (mode == LONGS) {
+			return bytes + 8L * longs.length;
+		}
+		return bytes + 4L * objects.length;
+	}
+	
+	
+	/***********************************************************************
+	 *  Nodes and ordinals.
+	***********************************************************************/
+	
+	// Node for key, or NONE.
+	private int find(String key) {
+		int node = ROOT;
+		for (int i = 0; i < key.length() && node != NONE; i++) {
+			node = child(node, key.charAt(i));
+		}
+		return node;
+	}
+	
+	// Siblings are sorted by label, so the scan stops at the first larger one.
+	private int child(int node, char c) {
+		for (int x = child[node]; x != NONE; x = sibling[x]) {
+			if (label[x] == c) {
+				return x;
+			}
+			if (label[x] > c) {
+				return NONE;
+			}
+		}
+		return NONE;
+	}
+	
+	// Node for key, adding the missing nodes on its path.
+	private int insert(String key) {
+		int node = ROOT;
+		for (int i = 0; i < key.length(); i++) {
+			char c = key.charAt(i);
+			int prev = NONE;
+			int x = child[node];
+			while (x != NONE && label[x] < c) {
+				prev = x;
+				x = sibling[x];
+			}
+			if (x == NONE || label[x] != c) {
+				int added = newNode(c);
+				sibling[added] = x;
+				if (prev == NONE) {
+					child[node] = added;
+				} else {
+					sibling[prev] = added;
+				}
+				x = added;
+			}
+			node = x;
+		}
+		return node;
+	}
+	
+	// Ordinal of node, giving it one if it does not end a key yet.
+	private int terminal(int node) {
+		if (ordinal[node] != NONE) {
+			return ordinal[node];
+		}
+		int ord;
+		if (freeOrdinals.size > 0) {
+			ord = freeOrdinals.pop();
+		} else {
+			ord = ordinals++;
+			growValues(ordinals);
+		}
+		ordinal[node] = ord;
+		size++;
+		return ord;
+	}
+	
+	private int newNode(char c) {
+		int x;
+		if (freeNodes.size > 0) {
+			x = freeNodes.pop();
+		} else {
+			x = nodes++;
+			if (x == label.length) {
+				int capacity = 2 * x;
+				label = Arrays.copyOf(label, capacity);
+				child = Arrays.copyOf(child, capacity);
+				sibling = Arrays.copyOf(sibling, capacity);
+				ordinal = Arrays.copyOf(ordinal, capacity);
+			}
+		}
+		label[x] = c;
+		child[x] = NONE;
+		sibling[x] = NONE;
+		ordinal[x] = NONE;
+		return x;
+	}
+	
+	private void unlink(int parent, int x) {
+		if (child[parent] == x) {
+			child[parent] = sibling[x];
+			return;
+		}
+		int prev = child[parent];
+		while (sibling[prev] != x) {
+			prev = sibling[prev];
+		}
+		sibling[prev] = sibling[x];
+	}
+	
+	private void growValues(int needed) {
+		if (mode == INTS) {
+			if (needed > ints.length) {
+				ints = Arrays.copyOf(ints, 2 * ints.length);
+			}
+		} else if (mode == LONGS) {
+			if (needed > longs.length) {
+				longs = Arrays.copyOf(longs, 2 * longs.length);
+			}
+		} else if (needed > objects.length) {
+			objects = Arrays.copyOf(objects, 2 * objects.length);
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private Value valueAt(int ord) {
+		if (mode == INTS) {
+			return (Value) Integer.valueOf(ints[ord]);
+		}
+		if (mode == LONGS) {
+			return (Value) Long.valueOf(longs[ord]);
+		}
+		return (Value) objects[ord];
+	}
+	
+}
@@ -0,0 +1,284 @@
+package datastructure;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
+
+
+/**
+ * Undirected graph that many threads may update and read at once.
+ *
+ * The neighbors of a vertex are an immutable (array, count) pair published
+ * through an AtomicReferenceArray. addEdge() writes past the current count
+ * and then publishes a new pair, so readers holding the old pair never see
+ * the slot change; removeEdge() publishes a fresh copy. Readers therefore
+ * never lock and always see a consistent neighbor list for each vertex.
+ *
+ * Writers lock the striped locks of both endpoints in stripe order, so the
+ * two halves of an edge change together.
+ *
+ * snapshot() takes no lock and writers never wait for it. Every write
+ * stamps the lists it publishes with one shared stamp, drawn from a global
+ * clock after both halves are published, and each list keeps a link to the
+ * list it replaced. A snapshot reads the clock once and, for every vertex,
+ * takes the newest list whose stamp is not later, so each write is in it
+ * at both ends or at neither. A list published but not yet stamped makes
+ * the snapshot yield until its writer, already inside its critical
+ * section, sets the stamp. Old lists are unlinked by the next write once
+ * no snapshot is running.
+ */
+
+public class ConcurrentGraph implements Graph {
+	
+	private static final int DEFAULT_DEGREE = 4;
+	private static final int STRIPES = 1024;
+	
+	private final int V;
+	private final LongAdder E;
+	private final AtomicReferenceArray<Adjacency> adj;
+	private final ReentrantLock[] locks;
+	private final AtomicLong clock;
+	private final AtomicInteger snapshots;
+	
+	private static final long PENDING = Long.MAX_VALUE;
+	private static final Adjacency EMPTY = new Adjacency(new int[0], 0, new AtomicLong(0), null);
+	
+	public ConcurrentGraph(int V) {
+		if (V < 0) {
+			throw new IllegalArgumentException();
+		}
+		this.V = V;
+		this.E = new LongAdder();
+		this.adj = new AtomicReferenceArray<Adjacency>(V);
+		for (int v = 0; v < V; v++) {
+			adj.set(v, EMPTY);
+		}
+		this.locks = new ReentrantLock[STRIPES];
+		for (int i = 0; i < STRIPES; i++) {
+			locks[i] = new ReentrantLock();
+		}
+		this.clock = new AtomicLong();
+		this.snapshots = new AtomicInteger();
+	}
+	
+	public int V() {
+		return V;
+	}
+	
+	public int E() {
+		return E.intValue();
+	}
+	
+	public void addEdge(int v, int w) {
+		rangeCheck(v);
+		rangeCheck(w);
+		lock(v, w);
+		try {
+			AtomicLong stamp = new AtomicLong(PENDING);
+			append(v, w, stamp);
+			append(w, v, stamp);
+			E.increment();
+			stamp(stamp);
+		} finally {
+			unlock(v, w);
+		}
+	}
+	
+	// Remove one v-w edge. Returns false if there was none.
+	public boolean removeEdge(int v, int w) {
+		rangeCheck(v);
+		rangeCheck(w);
+		lock(v, w);
+		try {
+			AtomicLong stamp = new AtomicLong(PENDING);
+			if (!remove(v, w, stamp)) {
+				return false;
+			}
+			remove(w, v, stamp);
+			E.decrement();
+			stamp(stamp);
+			return true;
+		} finally {
+			unlock(v, w);
+		}
+	}
+	
+	public int degree(int v) {
+		rangeCheck(v);
+		return adj.get(v).n;
+	}
+	
+	public boolean forEachAdj(int v, IntPredicate visitor) {
+		rangeCheck(v);
+		Adjacency list = adj.get(v);
+		for (int i = 0; i < list.n; i++) {
+			if (!visitor.test(list.a[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	public Iterable<Integer> adj(int v) {
+		rangeCheck(v);
+		return new adjIterator(adj.get(v));
+	}
+	
+	
+	/***********************************************************************
+	 *  Consistent immutable copy of the whole graph, as of one clock time.
+	 *  Writers never wait for it.
+	***********************************************************************/
+	public Graph_CSR snapshot() {
+		snapshots.incrementAndGet();
+		try {
+			long time = clock.get();
+			Adjacency[] lists = new Adjacency[V];
+			int[] offsets = new int[V + 1];
+			for (int v = 0; v < V; v++) {
+				Adjacency list = adj.get(v);
+				while (stampOf(list) > time) {
+					list = list.prev;
+				}
+				lists[v] = list;
+				offsets[v + 1] = offsets[v] + list.n;
+			}
+			int[] targets = new int[offsets[V]];
+			for (int v = 0; v < V; v++) {
+				System.arraycopy(lists[v].a, 0, targets, offsets[v], lists[v].n);
+			}
+			// every edge, self-loops included, is stored at both endpoints
+			return new Graph_CSR(V, offsets[V] >>> 1, offsets, targets);
+		} finally {
+			snapshots.decrementAndGet();
+		}
+	}
+	
+	// Called by the writer once both halves are published.
+	private void stamp(AtomicLong stamp) {
+		stamp.set(clock.incrementAndGet());
+	}
+	
+	private static long stampOf(Adjacency list) {
+		long time;
+		while ((time = list.stamp.get()) == PENDING) {
+			Thread.yield();
+		}
+		return time;
+	}
+	
+	
+	/***********************************************************************
+	 *  Helpers; callers hold the stripe lock of v.
+	***********************************************************************/
+	private void append(int v, int w, AtomicLong stamp) {
+		Adjacency list = adj.get(v);
+		int[] a = list.a;
+		if (list.n == a.length) {
+			a = Arrays.copyOf(a, Math.max(DEFAULT_DEGREE, a.length << 1));
+		}
+		a[list.n] = w;
+		publish(v, list, new Adjacency(a, list.n + 1, stamp, list));
+	}
+	
+	private boolean remove(int v, int w, AtomicLong stamp) {
+		Adjacency list = adj.get(v);
+		for (int i = 0; i < list.n; i++) {
+			if (list.a[i] == w) {
+				int[] a = new int[Math.max(DEFAULT_DEGREE, list.n - 1)];
+				System.arraycopy(list.a, 0, a, 0, i);
+				System.arraycopy(list.a, i + 1, a, i, list.n - i - 1);
+				publish(v, list, new Adjacency(a, list.n - 1, stamp, list));
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	// Lists older than a stamped old list are needed only by snapshots that
+	// are running now: one that starts later reads a clock time at least
+	// as late as that stamp.
+	private void publish(int v, Adjacency old, Adjacency list) {
+		if (old.stamp.get() != PENDING && snapshots.get() == 0) {
+			old.prev = null;
+		}
+		adj.set(v, list);
+	}
+	
+	private void lock(int v, int w) {
+		int i = v & (STRIPES - 1);
+		int j = w & (STRIPES - 1);
+		locks[Math.min(i, j)].lock();
+		if (i != j) {
+			locks[Math.max(i, j)].lock();
+		}
+	}
+	
+	private void unlock(int v, int w) {
+		int i = v & (STRIPES - 1);
+		int j = w & (STRIPES - 1);
+		if (i != j) {
+			locks[Math.max(i, j)].unlock();
+		}
+		locks[Math.min(i, j)].unlock();
+	}
+	
+	private void rangeCheck(int v) {
+		if (v < 0 || v >= V) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+	
+	// Slots below n are never written again once published. prev is the
+	// list this one replaced, kept while a snapshot may still need it.
+	private static class Adjacency {
+		private final int[] a;
+		private final int n;
+		private final AtomicLong stamp;
+		private volatile Adjacency prev;
+		
+		private Adjacency(int[] a, int n, AtomicLong stamp, Adjacency prev) {
+			this.a = a;
+			this.n = n;
+			this.stamp = stamp;
+			this.prev = prev;
+		}
+	}
+	
+	private static class adjIterator implements Iterator<Integer>, Iterable<Integer> {
+		
+		Adjacency list;
+		int i;
+		
+		public adjIterator(Adjacency list) {
+			this.list = list;
+			this.i = 0;
+		}
+		
+		public Iterator<Integer> iterator() {
+			return this;
+		}
+		
+		public boolean hasNext() {
+			return i < list.n;
+		}
+		
+		public Integer next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return list.a[i++];
+		}
+		
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+	
+}
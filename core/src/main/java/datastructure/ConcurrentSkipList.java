@@ -0,0 +1,441 @@
+package datastructure;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Lock-free ordered symbol table on a skip list (Herlihy and Shavit, "The
+ * Art of Multiprocessor Programming", 14.4), for ordered workloads with
+ * many concurrent writers. It never locks and never rebalances.
+ *
+ * Every next reference carries a mark bit. A key is deleted by CASing its
+ * value to null, which is the linearization point, and then marking its
+ * next references from the top level down. Any thread that walks past a
+ * marked node unlinks it. A put that finds its key mid-delete helps finish
+ * the delete and then inserts a fresh node. Reads never write.
+ *
+ * Range iteration is lazy and weakly consistent: it sees every key present
+ * for the whole iteration and may or may not see concurrent changes.
+ *
+ * rank() and select() walk the bottom level in O(n). Exact per-level span
+ * counts would have to change atomically with the links on every level, so
+ * they cannot be kept without locking.
+ *
+ * This class is thread-safe.
+ */
+
+public class ConcurrentSkipList<Key extends Comparable<Key>, Value> implements OrderedSymbolTable<Key, Value> {
+	
+	private static final int MAX_LEVEL = 32;
+	
+	private final Node<Key, Value> head;
+	private final LongAdder size;
+	// Highest level any node has reached; searches start there.
+	private final AtomicInteger levels;
+	
+	public ConcurrentSkipList() {
+		head = new Node<Key, Value>(null, null, MAX_LEVEL);
+		size = new LongAdder();
+		levels = new AtomicInteger(1);
+	}
+	
+	
+	/***********************************************************************
+	 *  Basic functions. size() is exact when no update is running.
+	***********************************************************************/
+	
+	public int size() {
+		return (int) Math.max(0, Math.min(size.sum(), Integer.MAX_VALUE));
+	}
+	
+	public boolean isEmpty() {
+		return ceilingNode(null, true) == null;
+	}
+	
+	public Value get(Key key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		Node<Key, Value> x = ceilingNode(key, true);
+		if (x != null && x.key.compareTo(key) == 0) {
+			return x.value.get();
+		}
+		return null;
+	}
+	
+	public boolean contains(Key key) {
+		return get(key) != null;
+	}
+	
+	
+	/***********************************************************************
+	 *  Insert. If value is null, delete key.
+	***********************************************************************/
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public void put(Key key, Value value) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		if (value == null) {
+			delete(key);
+			return;
+		}
+		int top = randomLevel();
+		Node<Key, Value>[] preds = new Node[top];
+		Node<Key, Value>[] succs = new Node[top];
+		for (int current = levels.get(); current < top && !levels.compareAndSet(current, top); current = levels.get()) {
+		}
+		while (true) {
+			if (find(key, preds, succs)) {
+				Node<Key, Value> x = succs[0];
+				Value old = x.value.get();
+				if (old != null && x.value.compareAndSet(old, value)) {
+					return;
+				}
+				if (old == null) {
+					// mid-delete: finish it, then insert a new node
+					markAll(x);
+				}
+				continue;
+			}
+			
+			Node<Key, Value> x = new Node<Key, Value>(key, value, top);
+			for (int level = 0; level < top; level++) {
+				x.next[level].set(succs[level], false);
+			}
+			if (!preds[0].next[0].compareAndSet(succs[0], x, false, false)) {
+				continue;
+			}
+			size.increment();
+			
+			for (int level = 1; level < top; level++) {
+				while (!preds[level].next[level].compareAndSet(succs[level], x, false, false)) {
+					find(key, preds, succs);
+					// stop linking once x is being deleted
+					Node<Key, Value> succ = x.next[level].getReference();
+					if (x.next[level].isMarked()
+							|| (succ != succs[level] && !x.next[level].compareAndSet(succ, succs[level], false, false))) {
+						return;
+					}
+				}
+			}
+			return;
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  Delete
+	***********************************************************************/
+	public void delete(Key key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		remove(key);
+	}
+	
+	// Returns true if this call deleted key.
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private boolean remove(Key key) {
+		Node<Key, Value>[] preds = new Node[1];
+		Node<Key, Value>[] succs = new Node[1];
+		while (find(key, preds, succs)) {
+			Node<Key, Value> x = succs[0];
+			Value old = x.value.get();
+			if (old == null) {
+				markAll(x);
+				return false;
+			}
+			if (x.value.compareAndSet(old, null)) {
+				size.decrement();
+				markAll(x);
+				find(key, preds, succs);
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	public void deleteMin() {
+		while (true) {
+			Node<Key, Value> x = ceilingNode(null, true);
+			if (x == null) {
+				throw new NoSuchElementException();
+			}
+			if (remove(x.key)) {
+				return;
+			}
+		}
+	}
+	
+	public void deleteMax() {
+		while (true) {
+			Node<Key, Value> x = floorNode(null, true);
+			if (x == null) {
+				throw new NoSuchElementException();
+			}
+			if (remove(x.key)) {
+				return;
+			}
+		}
+	}
+	
+	// Marks every level of x, top down, so that it can be unlinked.
+	private void markAll(Node<Key, Value> x) {
+		for (int level = x.next.length - 1; level >= 0; level--) {
+			Node<Key, Value> succ = x.next[level].getReference();
+			while (!x.next[level].attemptMark(succ, true)) {
+				if (x.next[level].isMarked()) {
+					break;
+				}
+				succ = x.next[level].getReference();
+			}
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  Sets preds and succs to the nodes around key on the levels below
+	 *  preds.length, and unlinks the marked nodes on the way. Returns true
+	 *  if succs[0] holds key.
+	***********************************************************************/
+	private boolean find(Key key, Node<Key, Value>[] preds, Node<Key, Value>[] succs) {
+		boolean[] marked = new boolean[1];
+		retry:
+		while (true) {
+			Node<Key, Value> pred = head;
+			int top = levels.get();
+			for (int level = top; level < preds.length; level++) {
+				preds[level] = head;
+				succs[level] = null;
+			}
+			for (int level = top - 1; level >= 0; level--) {
+				Node<Key, Value> curr = pred.next[level].getReference();
+				while (curr != null) {
+					Node<Key, Value> succ = curr.next[level].get(marked);
+					if (marked[0]) {
+						if (!pred.next[level].compareAndSet(curr, succ, false, false)) {
+							continue retry;
+						}
+						curr = succ;
+					} else if (curr.key.compareTo(key) < 0) {
+						pred = curr;
+						curr = succ;
+					} else {
+						break;
+					}
+				}
+				if (level < preds.length) {
+					preds[level] = pred;
+					succs[level] = curr;
+				}
+			}
+			return succs[0] != null && succs[0].key.compareTo(key) == 0;
+		}
+	}
+	
+	// Is x before key? A null key stands for +infinity.
+	private boolean before(Node<Key, Value> x, Key key, boolean inclusive) {
+		if (key == null) {
+			return true;
+		}
+		int cmp = x.key.compareTo(key);
+		return cmp < 0 || (inclusive && cmp == 0);
+	}
+	
+	// The last node before key (before or at key if inclusive), whether
+	// deleted or not, or head. Reads only.
+	private Node<Key, Value> predecessor(Key key, boolean inclusive) {
+		Node<Key, Value> pred = head;
+		for (int level = levels.get() - 1; level >= 0; level--) {
+			Node<Key, Value> curr = pred.next[level].getReference();
+			while (curr != null && before(curr, key, inclusive)) {
+				pred = curr;
+				curr = curr.next[level].getReference();
+			}
+		}
+		return pred;
+	}
+	
+	// First live node at or after key (after it if !inclusive), or null.
+	// A null key means the first live node.
+	private Node<Key, Value> ceilingNode(Key key, boolean inclusive) {
+		Node<Key, Value> x = key == null ? head.next[0].getReference() : predecessor(key, !inclusive).next[0].getReference();
+		while (x != null && x.value.get() == null) {
+			x = x.next[0].getReference();
+		}
+		return x;
+	}
+	
+	// Last live node at or before key (before it if !inclusive), or null.
+	// A null key means the last live node. A deleted predecessor moves
+	// the search to the keys below it.
+	private Node<Key, Value> floorNode(Key key, boolean inclusive) {
+		while (true) {
+			Node<Key, Value> x = predecessor(key, inclusive);
+			if (x == head) {
+				return null;
+			}
+			if (x.value.get() != null) {
+				return x;
+			}
+			key = x.key;
+			inclusive = false;
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  Min, max, floor, ceiling
+	***********************************************************************/
+	public Key min() {
+		Node<Key, Value> x = ceilingNode(null, true);
+		return x == null ? null : x.key;
+	}
+	
+	public Key max() {
+		Node<Key, Value> x = floorNode(null, true);
+		return x == null ? null : x.key;
+	}
+	
+	public Key floor(Key key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		Node<Key, Value> x = floorNode(key, true);
+		return x == null ? null : x.key;
+	}
+	
+	public Key ceiling(Key key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		Node<Key, Value> x = ceilingNode(key, true);
+		return x == null ? null : x.key;
+	}
+	
+	
+	/***********************************************************************
+	 *  Rank and select: O(n) walks of the bottom level
+	***********************************************************************/
+	public int rank(Key key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		int rank = 0;
+		for (Node<Key, Value> x = ceilingNode(null, true); x != null && x.key.compareTo(key) < 0; x = next(x)) {
+			rank++;
+		}
+		return rank;
+	}
+	
+	public Key select(int k) {
+		if (k < 0) {
+			return null;
+		}
+		for (Node<Key, Value> x = ceilingNode(null, true); x != null; x = next(x)) {
+			if (k-- == 0) {
+				return x.key;
+			}
+		}
+		return null;
+	}
+	
+	// The next live node after x, or null.
+	private Node<Key, Value> next(Node<Key, Value> x) {
+		x = x.next[0].getReference();
+		while (x != null && x.value.get() == null) {
+			x = x.next[0].getReference();
+		}
+		return x;
+	}
+	
+	
+	/***********************************************************************
+	 *  Lazy range iteration
+	***********************************************************************/
+	public Iterable<Key> keys() {
+		return new Iterable<Key>() {
+			public Iterator<Key> iterator() {
+				return new rangeIterator(ceilingNode(null, true), null);
+			}
+		};
+	}
+	
+	public Iterable<Key> keys(final Key low, final Key high) {
+		if (low == null || high == null) {
+			throw new NullPointerException();
+		}
+		return new Iterable<Key>() {
+			public Iterator<Key> iterator() {
+				return new rangeIterator(ceilingNode(low, true), high);
+			}
+		};
+	}
+	
+	private class rangeIterator implements Iterator<Key> {
+		
+		private final Key high;
+		private Node<Key, Value> x;
+		
+		public rangeIterator(Node<Key, Value> first, Key high) {
+			this.high = high;
+			this.x = first;
+			stopPastHigh();
+		}
+		
+		private void stopPastHigh() {
+			if (x != null && high != null && x.key.compareTo(high) > 0) {
+				x = null;
+			}
+		}
+		
+		public boolean hasNext() {
+			return x != null;
+		}
+		
+		public Key next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Key key = x.key;
+			x = ConcurrentSkipList.this.next(x);
+			stopPastHigh();
+			return key;
+		}
+		
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+	
+	
+	// Level k is used with probability 2^-k.
+	private static int randomLevel() {
+		int bits = ThreadLocalRandom.current().nextInt();
+		return Math.min(MAX_LEVEL, 1 + Integer.numberOfTrailingZeros(bits | (1 << (MAX_LEVEL - 1))));
+	}
+	
+	private static class Node<Key, Value> {
+		private final Key key;
+		private final AtomicReference<Value> value;
+		private final AtomicMarkableReference<Node<Key, Value>>[] next;
+		
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		public Node(Key key, Value value, int levels) {
+			this.key = key;
+			this.value = new AtomicReference<Value>(value);
+			this.next = new AtomicMarkableReference[levels];
+			for (int level = 0; level < levels; level++) {
+				next[level] = new AtomicMarkableReference<Node<Key, Value>>(null, false);
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,246 @@
+package datastructure;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+
+/**
+ * Cuckoo filter (Fan, Andersen, Kaminsky and Mitzenmacher, 2014).
+ * Stores a short fingerprint of each key in one of two buckets of four slots.
+ * The second bucket is the first XOR a hash of the fingerprint, so an
+ * entry can be moved between its buckets without the key. Unlike a Bloom
+ * filter, keys can be removed. Fingerprints have between 4 and 16 bits,
+ * chosen from the false positive rate, and each slot takes 16 bits.
+ * When no slot can be freed after MAX_KICKS moves, the displaced entry is
+ * kept aside and add() returns false until something is removed.
+ * This class is NOT THREAD-SAFE
+ */
+
+public class CuckooFilter<Key> implements MembershipFilter<Key> {
+	
+	private static final int SLOTS = 4;
+	private static final int MAX_KICKS = 500;
+	private static final double LOAD = 0.95;
+	
+	private final int capacity;
+	private final int fingerprintBits;
+	private final int mask;
+	private final short[] table;
+	private int count;
+	
+	// Entry that could not be placed, if any.
+	private boolean hasVictim;
+	private int victimBucket;
+	private short victimFingerprint;
+	
+	private long random = 0x9e3779b97f4a7c15L;
+	
+	/**
+	* @param capacity number of keys the filter is sized for
+	* @param fpp false positive probability at capacity
+	* @throws IllegalArgumentException unless capacity > 0 and 0 < fpp < 1
+	*/
+	public CuckooFilter(int capacity, double fpp) {
+		if (capacity <= 0 || !(fpp > 0 && fpp < 1)) {
+			throw new IllegalArgumentException();
+		}
+		// A lookup compares against 2 * SLOTS fingerprints.
+		int bits = (int) Math.ceil(Math.log(2 * SLOTS / fpp) / Math.log(2));
+		int buckets = Integer.highestOneBit((int) Math.max(1, Math.min(1 << 28, Math.ceil(capacity / (SLOTS * LOAD)))));
+		if (buckets < capacity / (SLOTS * LOAD)) {
+			buckets <<= 1;
+		}
+		this.capacity = capacity;
+		this.fingerprintBits = Math.max(4, Math.min(16, bits));
+		this.mask = buckets - 1;
+		this.table = new short[buckets * SLOTS];
+	}
+	
+	private CuckooFilter(int capacity, int fingerprintBits, short[] table) {
+		this.capacity = capacity;
+		this.fingerprintBits = fingerprintBits;
+		this.mask = table.length / SLOTS - 1;
+		this.table = table;
+	}
+	
+	public boolean add(Key key) {
+		if (hasVictim) {
+			return false;
+		}
+		long h = MembershipFilter.hash(key);
+		short f = fingerprint(h);
+		int i = bucket(h);
+		count++;
+		if (insert(i, f) || insert(alternate(i, f), f)) {
+			return true;
+		}
+		if ((nextRandom() & 1) == 0) {
+			i = alternate(i, f);
+		}
+		for (int kick = 0; kick < MAX_KICKS; kick++) {
+			int slot = i * SLOTS + (int) (nextRandom() & (SLOTS - 1));
+			short evicted = table[slot];
+			table[slot] = f;
+			f = evicted;
+			i = alternate(i, f);
+			if (insert(i, f)) {
+				return true;
+			}
+		}
+		hasVictim = true;
+		victimBucket = i;
+		victimFingerprint = f;
+		return true;
+	}
+	
+	public boolean mightContain(Key key) {
+		long h = MembershipFilter.hash(key);
+		short f = fingerprint(h);
+		int i1 = bucket(h);
+		int i2 = alternate(i1, f);
+		if (find(i1, f) >= 0 || find(i2, f) >= 0) {
+			return true;
+		}
+		return hasVictim && victimFingerprint == f && (victimBucket == i1 || victimBucket == i2);
+	}
+	
+	public boolean remove(Key key) {
+		long h = MembershipFilter.hash(key);
+		short f = fingerprint(h);
+		int i1 = bucket(h);
+		int i2 = alternate(i1, f);
+		int slot = find(i1, f);
+		if (slot < 0) {
+			slot = find(i2, f);
+		}
+		if (slot >= 0) {
+			table[slot] = 0;
+			count--;
+			if (hasVictim) {
+				// There is room again; try to place the victim.
+				hasVictim = false;
+				count--;
+				add(victimBucket, victimFingerprint);
+			}
+			return true;
+		}
+		if (hasVictim && victimFingerprint == f && (victimBucket == i1 || victimBucket == i2)) {
+			hasVictim = false;
+			count--;
+			return true;
+		}
+		return false;
+	}
+	
+	// Re-adds a stored entry; its bucket is either of the two.
+	private void add(int i, short f) {
+		count++;
+		if (insert(i, f) || insert(alternate(i, f), f)) {
+			return;
+		}
+		hasVictim = true;
+		victimBucket = i;
+		victimFingerprint = f;
+	}
+	
+	public boolean supportsRemove() {
+		return true;
+	}
+	
+	public int capacity() {
+		return capacity;
+	}
+	
+	// Number of fingerprints stored, including one that did not fit.
+	public int size() {
+		return count;
+	}
+	
+	public int fingerprintBits() {
+		return fingerprintBits;
+	}
+	
+	public long memoryBytes() {
+		return 2L * table.length;
+	}
+	
+	// Bucket from the low bits, fingerprint from the high bits; never 0, the empty slot.
+	private int bucket(long h) {
+		return (int) h & mask;
+	}
+	
+	private short fingerprint(long h) {
+		int f = (int) (h >>> (64 - fingerprintBits));
+		return (short) (f == 0 ? 1 : f);
+	}
+	
+	private int alternate(int i, short f) {
+		return (i ^ (int) MembershipFilter.mix(f)) & mask;
+	}
+	
+	private boolean insert(int i, short f) {
+		int base = i * SLOTS;
+		for (int slot = base; slot < base + SLOTS; slot++) {
+			if (table[slot] == 0) {
+				table[slot] = f;
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private int find(int i, short f) {
+		int base = i * SLOTS;
+		for (int slot = base; slot < base + SLOTS; slot++) {
+			if (table[slot] == f) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+	
+	// xorshift64
+	private long nextRandom() {
+		random ^= random << 13;
+		random ^= random >>> 7;
+		random ^= random << 17;
+		return random;
+	}
+	
+	public void writeTo(DataOutput out) throws IOException {
+		out.writeInt(CUCKOO);
+		out.writeInt(capacity);
+		out.writeInt(fingerprintBits);
+		out.writeInt(table.length);
+		out.writeInt(count);
+		out.writeBoolean(hasVictim);
+		out.writeInt(victimBucket);
+		out.writeShort(victimFingerprint);
+		for (short f : table) {
+			out.writeShort(f);
+		}
+	}
+	
+	// Reads the fields after the type written by writeTo().
+	static <Key> CuckooFilter<Key> read(DataInput in) throws IOException {
+		int capacity = in.readInt();
+		int fingerprintBits = in.readInt();
+		int length = in.readInt();
+		if (capacity <= 0 || fingerprintBits < 4 || fingerprintBits > 16
+				|| length < SLOTS || Integer.bitCount(length / SLOTS) != 1 || length % SLOTS != 0) {
+			throw new IOException("corrupt cuckoo filter");
+		}
+		short[] table = new short[length];
+		CuckooFilter<Key> filter = new CuckooFilter<Key>(capacity, fingerprintBits, table);
+		filter.count = in.readInt();
+		filter.hasVictim = in.readBoolean();
+		filter.victimBucket = in.readInt();
+		filter.victimFingerprint = in.readShort();
+		for (int i = 0; i < length; i++) {
+			table[i] = in.readShort();
+		}
+		return filter;
+	}
+	
+}
@@ -0,0 +1,749 @@
+package datastructure;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+
+/**
+ * Write-ahead log and snapshot persistence for a SymbolTable, meant for
+ * HashMap and BST.
+ *
+ * Every put and delete is applied to the table and appended to a log in the
+ * directory. Each record carries a CRC32, so a torn tail left by a crash is
+ * detected and cut off on recovery. When the log is fsynced depends on Sync:
+ *   EVERY_WRITE  put() returns once its record is on disk. Threads writing
+ *                at the same time share one fsync (group commit).
+ *   INTERVAL     a background thread fsyncs every syncMillis, so a crash
+ *                loses at most that window.
+ *   NEVER        records reach the OS only; flush() and close() fsync.
+ *
+ * Once the log holds snapshotBytes, a snapshot is taken in the background.
+ * The next segment is created first. Then, under the table lock, the log
+ * buffer is swapped, new records are pointed at the new segment and the
+ * entries are copied out. The old segment's tail is written and fsynced
+ * off the lock, as flush() does, then the entries are written and the
+ * files the snapshot covers are deleted. Writers pause only for the copy,
+ * which is proportional to the table size.
+ *
+ * Files in the directory:
+ *   wal-<n>.log        log segment n
+ *   snapshot-<n>.snap  table state as of the start of segment n
+ *
+ * Recovery memory-maps the newest snapshot, loads it and replays the later
+ * segments. Replay stops at the first torn or corrupt record: that segment
+ * is truncated there and any later segments are discarded.
+ *
+ * This class is thread-safe. Table operations are serialized by one lock;
+ * disk writes and fsyncs happen outside it.
+ */
+
+public class DurableSymbolTable<Key, Value> implements SymbolTable<Key, Value>, Closeable {
+	
+	public enum Sync {
+		EVERY_WRITE, INTERVAL, NEVER
+	}
+	
+	static final int MAGIC = 0x534E4150;		// "SNAP"
+	static final int VERSION = 1;
+	static final int FLAG_SORTED = 1;
+	
+	private static final byte PUT = 1;
+	private static final byte DELETE = 2;
+	
+	private static final int BUFFER_LIMIT = 1 << 20;
+	private static final long DEFAULT_SYNC_MILLIS = 10;
+	private static final long DEFAULT_SNAPSHOT_BYTES = 64L << 20;
+	
+	private final Path dir;
+	private final SymbolTable<Key, Value> table;
+	private final Codec<Key> keyCodec;
+	private final Codec<Value> valueCodec;
+	private final Sync sync;
+	private final long snapshotBytes;
+	
+	// lock guards the table, the log buffer and the open segment.
+	// flushLock serializes writes to the segment and is taken before lock.
+	private final ReentrantLock lock = new ReentrantLock();
+	private final ReentrantLock flushLock = new ReentrantLock();
+	private final ReentrantLock snapshotLock = new ReentrantLock();
+	private final AtomicBoolean snapshotPending = new AtomicBoolean();
+	private final ScheduledExecutorService background;
+	
+	private LogBuffer buffer = new LogBuffer();
+	private LogBuffer spare = new LogBuffer();
+	private DataOutputStream out = new DataOutputStream(buffer);
+	private final CRC32 crc = new CRC32();
+	private FileChannel channel;
+	private long segment;
+	private long segmentBytes;
+	
+	// Sequence numbers of records: appended to the buffer, written to the
+	// segment, and fsynced.
+	private volatile long appended;
+	private volatile long written;
+	private volatile long durable;
+	
+	private volatile boolean closed;
+	private volatile IOException failure;
+	
+	/**
+	* Opens the store in dir with INTERVAL sync every 10 ms and a snapshot
+	* every 64 MB of log, recovering its contents into table.
+	* @throws IllegalArgumentException if table is not empty
+	*/
+	public DurableSymbolTable(Path dir, SymbolTable<Key, Value> table, Codec<Key> keyCodec, Codec<Value> valueCodec)
+			throws IOException {
+		this(dir, table, keyCodec, valueCodec, Sync.INTERVAL, DEFAULT_SYNC_MILLIS, DEFAULT_SNAPSHOT_BYTES);
+	}
+	
+	/**
+	* Opens the store in dir, recovering its contents into table.
+	* @param syncMillis fsync period, used with Sync.INTERVAL only
+	* @param snapshotBytes log size that triggers a background snapshot
+	* @throws IllegalArgumentException if table is not empty
+	*/
+	public DurableSymbolTable(Path dir, SymbolTable<Key, Value> table, Codec<Key> keyCodec, Codec<Value> valueCodec,
+			Sync sync, long syncMillis, long snapshotBytes) throws IOException {
+		if (dir == null || table == null || keyCodec == null || valueCodec == null || sync == null) {
+			throw new NullPointerException();
+		}
+		if (!table.isEmpty() || syncMillis <= 0 || snapshotBytes <= 0) {
+			throw new IllegalArgumentException();
+		}
+		this.dir = dir;
+		this.table = table;
+		this.keyCodec = keyCodec;
+		this.valueCodec = valueCodec;
+		this.sync = sync;
+		this.snapshotBytes = snapshotBytes;
+		
+		Files.createDirectories(dir);
+		openSegment(recover());
+		
+		background = Executors.newScheduledThreadPool(2, r -> {
+			Thread t = new Thread(r, "DurableSymbolTable " + dir);
+			t.setDaemon(true);
+			return t;
+		});
+		if (sync == Sync.INTERVAL) {
+			background.scheduleWithFixedDelay(() -> {
+				try {
+					flush(appended, true);
+				} catch (IOException e) {
+					failure = e;
+				}
+			}, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  SymbolTable
+	***********************************************************************/
+	
+	public void put(Key key, Value value) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		if (value == null) {
+			delete(key);
+			return;
+		}
+		append(PUT, key, value);
+	}
+	
+	public void delete(Key key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		append(DELETE, key, null);
+	}
+	
+	public Value get(Key key) {
+		lock.lock();
+		try {
+			return table.get(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	public boolean contains(Key key) {
+		lock.lock();
+		try {
+			return table.contains(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	public int size() {
+		lock.lock();
+		try {
+			return table.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	// Returns a copy, so the keys stay valid while other threads write.
+	public Iterable<Key> keys() {
+		lock.lock();
+		try {
+			List<Key> result = new ArrayList<Key>(table.size());
+			for (Key key : table.keys()) {
+				result.add(key);
+			}
+			return result;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  Log
+	***********************************************************************/
+	
+	// Record: int length, then length bytes (op, key, value), then their CRC32.
+	private void append(byte op, Key key, Value value) {
+		checkOpen();
+		long seq;
+		boolean full, roll;
+		lock.lock();
+		try {
+			int start = buffer.size();
+			try {
+				out.writeInt(0);
+				out.writeByte(op);
+				keyCodec.write(key, out);
+				if (op == PUT) {
+					valueCodec.write(value, out);
+					table.put(key, value);
+				} else {
+					table.delete(key);
+				}
+				int length = buffer.size() - start - 4;
+				buffer.putInt(start, length);
+				crc.reset();
+				crc.update(buffer.array(), start + 4, length);
+				out.writeInt((int) crc.getValue());
+			} catch (IOException e) {
+				buffer.truncate(start);
+				throw new UncheckedIOException(e);
+			} catch (RuntimeException e) {
+				buffer.truncate(start);
+				throw e;
+			}
+			seq = ++appended;
+			segmentBytes += buffer.size() - start;
+			full = buffer.size() >= BUFFER_LIMIT;
+			roll = segmentBytes >= snapshotBytes;
+		} finally {
+			lock.unlock();
+		}
+		
+		try {
+			if (sync == Sync.EVERY_WRITE) {
+				flush(seq, true);
+			} else if (full) {
+				flush(seq, false);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if (roll && snapshotPending.compareAndSet(false, true)) {
+			background.execute(() -> {
+				try {
+					if (!closed) {
+						snapshot();
+					}
+				} catch (IOException e) {
+					failure = e;
+				} finally {
+					snapshotPending.set(false);
+				}
+			});
+		}
+	}
+	
+	/**
+	* Writes every record appended so far and fsyncs the log.
+	*/
+	public void flush() throws IOException {
+		flush(appended, true);
+	}
+	
+	// Group commit: whoever holds flushLock writes and fsyncs everything
+	// buffered, so threads queued behind it usually find their record done.
+	private void flush(long seq, boolean force) throws IOException {
+		flushLock.lock();
+		try {
+			if ((force ? durable : written) >= seq) {
+				return;
+			}
+			LogBuffer batch;
+			FileChannel target;
+			long upto;
+			lock.lock();
+			try {
+				batch = swapBuffer();
+				target = channel;
+				upto = appended;
+			} finally {
+				lock.unlock();
+			}
+			batch.writeTo(target);
+			written = upto;
+			if (force) {
+				target.force(false);
+				durable = upto;
+			}
+		} finally {
+			flushLock.unlock();
+		}
+	}
+	
+	// Hands back the buffered records and starts an empty buffer. Needs lock.
+	private LogBuffer swapBuffer() {
+		LogBuffer batch = buffer;
+		buffer = spare;
+		spare = batch;
+		buffer.reset();
+		out = new DataOutputStream(buffer);
+		return batch;
+	}
+	
+	private void openSegment(long n) throws IOException {
+		channel = openLog(n);
+		segment = n;
+		segmentBytes = 0;
+	}
+	
+	private FileChannel openLog(long n) throws IOException {
+		FileChannel log = FileChannel.open(log(n), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND);
+		try {
+			syncDirectory();
+		} catch (IOException e) {
+			log.close();
+			throw e;
+		}
+		return log;
+	}
+	
+	
+	/***********************************************************************
+	 *  Snapshot
+	***********************************************************************/
+	
+	/**
+	* Takes a snapshot now and deletes the log segments it makes redundant.
+	* Returns once the snapshot is on disk.
+	*/
+	public void snapshot() throws IOException {
+		snapshotLock.lock();
+		try {
+			checkOpen();
+			Object[] keys, values;
+			long next;
+			// flushLock keeps other flushes off both segments until the old
+			// one is complete, so records never reach the new one first.
+			flushLock.lock();
+			try {
+				next = segment + 1;
+				FileChannel nextChannel = openLog(next);
+				LogBuffer batch;
+				FileChannel previous;
+				long upto;
+				lock.lock();
+				try {
+					batch = swapBuffer();
+					previous = channel;
+					channel = nextChannel;
+					segment = next;
+					segmentBytes = 0;
+					upto = appended;
+					
+					keys = new Object[table.size()];
+					values = new Object[keys.length];
+					int i = 0;
+					for (Key key : table.keys()) {
+						keys[i] = key;
+						values[i++] = table.get(key);
+					}
+				} finally {
+					lock.unlock();
+				}
+				try {
+					batch.writeTo(previous);
+					previous.force(false);
+				} finally {
+					previous.close();
+				}
+				written = durable = upto;
+			} finally {
+				flushLock.unlock();
+			}
+			writeSnapshot(next, keys, values, table instanceof OrderedSymbolTable);
+			deleteBefore(next);
+		} finally {
+			snapshotLock.unlock();
+		}
+	}
+	
+	// Header: magic, version, flags, entry count. Body: key, value pairs.
+	// Trailer: CRC32 of header and body.
+	@SuppressWarnings("unchecked")
+	private void writeSnapshot(long n, Object[] keys, Object[] values, boolean sorted) throws IOException {
+		Path tmp = dir.resolve("snapshot-" + n + ".tmp");
+		try (FileChannel file = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			CRC32 checksum = new CRC32();
+			BufferedOutputStream buffered = new BufferedOutputStream(Channels.newOutputStream(file), 1 << 16);
+			DataOutputStream data = new DataOutputStream(new CheckedOutputStream(buffered, checksum));
+			data.writeInt(MAGIC);
+			data.writeInt(VERSION);
+			data.writeInt(sorted ? FLAG_SORTED : 0);
+			data.writeLong(keys.length);
+			for (int i = 0; i < keys.length; i++) {
+				keyCodec.write((Key) keys[i], data);
+				valueCodec.write((Value) values[i], data);
+			}
+			data.flush();
+			new DataOutputStream(buffered).writeInt((int) checksum.getValue());
+			buffered.flush();
+			file.force(true);
+		}
+		Files.move(tmp, snapshot(n), StandardCopyOption.ATOMIC_MOVE);
+		syncDirectory();
+	}
+	
+	private void deleteBefore(long n) throws IOException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				long log = sequence(name, "wal-", ".log");
+				long snapshot = sequence(name, "snapshot-", ".snap");
+				if ((log >= 0 && log < n) || (snapshot >= 0 && snapshot < n)) {
+					Files.delete(file);
+				}
+			}
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  Recovery
+	***********************************************************************/
+	
+	// Returns the number of the segment to open for new records.
+	private long recover() throws IOException {
+		long snapshot = -1;
+		List<Long> logs = new ArrayList<Long>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				if (name.startsWith("snapshot-") && name.endsWith(".tmp")) {
+					Files.delete(file);
+				}
+				snapshot = Math.max(snapshot, sequence(name, "snapshot-", ".snap"));
+				long log = sequence(name, "wal-", ".log");
+				if (log >= 0) {
+					logs.add(log);
+				}
+			}
+		}
+		Collections.sort(logs);
+		
+		long last = Math.max(snapshot, 0);
+		if (snapshot >= 0) {
+			loadSnapshot(snapshot(snapshot));
+		}
+		boolean intact = true;
+		for (long n : logs) {
+			last = Math.max(last, n);
+			if (n < snapshot || !intact) {
+				Files.delete(log(n));
+			} else {
+				intact = replay(log(n));
+			}
+		}
+		return last + 1;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private void loadSnapshot(Path file) throws IOException {
+		try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = in.size();
+			CRC32 checksum = new CRC32();
+			DataInputStream data = new DataInputStream(new CheckedInputStream(new MappedInput(in, size - 4), checksum));
+			if (size < 24 || data.readInt() != MAGIC) {
+				throw new IOException("not a snapshot file: " + file);
+			}
+			if (data.readInt() != VERSION) {
+				throw new IOException("unsupported snapshot version: " + file);
+			}
+			boolean sorted = (data.readInt() & FLAG_SORTED) != 0;
+			long n = data.readLong();
+			
+			if (sorted && n < Integer.MAX_VALUE) {
+				// Inserting sorted keys into a BST one by one builds a list,
+				// so insert the median of each range before its halves.
+				Object[] keys = new Object[(int) n];
+				Object[] values = new Object[(int) n];
+				for (int i = 0; i < n; i++) {
+					keys[i] = keyCodec.read(data);
+					values[i] = valueCodec.read(data);
+				}
+				IntList ranges = new IntList();
+				ranges.add(0);
+				ranges.add((int) n - 1);
+				while (ranges.size > 0) {
+					int hi = ranges.pop();
+					int lo = ranges.pop();
+					if (lo > hi) {
+						continue;
+					}
+					int mid = (lo + hi) >>> 1;
+					table.put((Key) keys[mid], (Value) values[mid]);
+					ranges.add(lo);
+					ranges.add(mid - 1);
+					ranges.add(mid + 1);
+					ranges.add(hi);
+				}
+			} else {
+				for (long i = 0; i < n; i++) {
+					table.put(keyCodec.read(data), valueCodec.read(data));
+				}
+			}
+			
+			ByteBuffer trailer = in.map(MapMode.READ_ONLY, size - 4, 4);
+			if (trailer.getInt() != (int) checksum.getValue()) {
+				throw new IOException("corrupt snapshot: " + file);
+			}
+		}
+	}
+	
+	// Applies the records of one segment. Returns false if it ended in a torn
+	// or corrupt record, after truncating the segment before it.
+	private boolean replay(Path file) throws IOException {
+		try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			long size = in.size();
+			long valid = 0;
+			DataInputStream data = new DataInputStream(new BufferedInputStream(Channels.newInputStream(in), 1 << 16));
+			CRC32 checksum = new CRC32();
+			while (valid + 8 <= size) {
+				int length = data.readInt();
+				if (length < 1 || length > size - valid - 8) {
+					break;
+				}
+				byte[] record = new byte[length];
+				data.readFully(record);
+				int expected = data.readInt();
+				checksum.reset();
+				checksum.update(record, 0, length);
+				if ((int) checksum.getValue() != expected) {
+					break;
+				}
+				apply(record);
+				valid += length + 8;
+			}
+			if (valid < size) {
+				in.truncate(valid);
+				in.force(true);
+				return false;
+			}
+			return true;
+		}
+	}
+	
+	private void apply(byte[] record) throws IOException {
+		DataInputStream data = new DataInputStream(new ByteArrayInputStream(record));
+		byte op = data.readByte();
+		Key key = keyCodec.read(data);
+		if (op == PUT) {
+			table.put(key, valueCodec.read(data));
+		} else if (op == DELETE) {
+			table.delete(key);
+		} else {
+			throw new IOException("unknown log record type " + op);
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  Helpers
+	***********************************************************************/
+	
+	/**
+	* Stops the background thread, waits for a running snapshot and fsyncs
+	* the log. Further operations throw IllegalStateException.
+	*/
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		background.shutdown();
+		try {
+			background.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		flush(appended, true);
+		channel.close();
+		if (failure != null) {
+			throw failure;
+		}
+	}
+	
+	private void checkOpen() {
+		if (closed) {
+			throw new IllegalStateException("closed");
+		}
+		if (failure != null) {
+			throw new UncheckedIOException(failure);
+		}
+	}
+	
+	private Path log(long n) {
+		return dir.resolve("wal-" + n + ".log");
+	}
+	
+	private Path snapshot(long n) {
+		return dir.resolve("snapshot-" + n + ".snap");
+	}
+	
+	// Returns n for a name of the form prefix + n + suffix, or -1.
+	private static long sequence(String name, String prefix, String suffix) {
+		if (!name.startsWith(prefix) || !name.endsWith(suffix)) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+	
+	// Makes created and renamed files durable. Not every platform lets a
+	// directory be opened, and there it is skipped; a failed fsync of an
+	// opened directory is thrown.
+	private void syncDirectory() throws IOException {
+		FileChannel d;
+		try {
+			d = FileChannel.open(dir, StandardOpenOption.READ);
+		} catch (IOException e) {
+			return;
+		}
+		try {
+			d.force(true);
+		} finally {
+			d.close();
+		}
+	}
+	
+	private static class LogBuffer extends ByteArrayOutputStream {
+		
+		LogBuffer() {
+			super(1 << 16);
+		}
+		
+		byte[] array() {
+			return buf;
+		}
+		
+		void putInt(int position, int v) {
+			buf[position]     = (byte) (v >>> 24);
+			buf[position + 1] = (byte) (v >>> 16);
+			buf[position + 2] = (byte) (v >>> 8);
+			buf[position + 3] = (byte) v;
+		}
+		
+		void truncate(int size) {
+			count = size;
+		}
+		
+		void writeTo(FileChannel channel) throws IOException {
+			ByteBuffer b = ByteBuffer.wrap(buf, 0, count);
+			while (b.hasRemaining()) {
+				channel.write(b);
+			}
+		}
+	}
+	
+	// Reads the first end bytes of a file through 1 GB memory mappings.
+	private static class MappedInput extends InputStream {
+		
+		private static final long WINDOW = 1L << 30;
+		
+		private final FileChannel channel;
+		private final long end;
+		private long position;
+		private ByteBuffer window;
+		
+		MappedInput(FileChannel channel, long end) {
+			this.channel = channel;
+			this.end = end;
+		}
+		
+		private boolean fill() throws IOException {
+			if (window != null && window.hasRemaining()) {
+				return true;
+			}
+			if (position >= end) {
+				return false;
+			}
+			long length = Math.min(WINDOW, end - position);
+			window = channel.map(MapMode.READ_ONLY, position, length);
+			position += length;
+			return true;
+		}
+		
+		public int read() throws IOException {
+			return fill() ? window.get() & 0xFF : -1;
+		}
+		
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (!fill()) {
+				return -1;
+			}
+			int n = Math.min(len, window.remaining());
+			window.get(b, off, n);
+			return n;
+		}
+	}
+	
+}
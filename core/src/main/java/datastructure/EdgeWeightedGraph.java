@@ -0,0 +1,153 @@
+package datastructure;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+
+/**
+ * Undirected graph with double edge weights.
+ * Built like Graph_AdjList: each vertex owns a growable int[] of targets and
+ * a parallel double[] of weights, so an edge costs 12 bytes per endpoint
+ * with no boxing. Each edge is stored at both endpoints.
+ */
+
+public class EdgeWeightedGraph implements Graph {
+	
+	private static final int DEFAULT_DEGREE = 4;
+	
+	private final int V;
+	private int E;
+	private int[][] targets;
+	private double[][] weights;
+	private int[] degree;
+	
+	
+	/**
+	* Receives the edges of a vertex from forEachEdge().
+	* Returning false stops the scan.
+	*/
+	public interface EdgeVisitor {
+		boolean visit(int w, double weight);
+	}
+	
+	public EdgeWeightedGraph(int V) {
+		if (V < 0) {
+			throw new IllegalArgumentException();
+		}
+		this.V = V;
+		this.E = 0;
+		this.targets = new int[V][];
+		this.weights = new double[V][];
+		this.degree = new int[V];
+	}
+	
+	public int V() {
+		return V;
+	}
+	
+	public int E() {
+		return E;
+	}
+	
+	public void addEdge(int v, int w, double weight) {
+		if (v < 0 || v >= V || w < 0 || w >= V) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (Double.isNaN(weight)) {
+			throw new IllegalArgumentException("weight is NaN");
+		}
+		append(v, w, weight);
+		append(w, v, weight);
+		E++;
+	}
+	
+	private void append(int v, int w, double weight) {
+		if (targets[v] == null) {
+			targets[v] = new int[DEFAULT_DEGREE];
+			weights[v] = new double[DEFAULT_DEGREE];
+		} else if (degree[v] == targets[v].length) {
+			targets[v] = Arrays.copyOf(targets[v], degree[v] << 1);
+			weights[v] = Arrays.copyOf(weights[v], degree[v] << 1);
+		}
+		targets[v][degree[v]] = w;
+		weights[v][degree[v]] = weight;
+		degree[v]++;
+	}
+	
+	public int degree(int v) {
+		if (v < 0 || v >= V) {
+			throw new IndexOutOfBoundsException();
+		}
+		return degree[v];
+	}
+	
+	public boolean forEachAdj(int v, IntPredicate visitor) {
+		int[] t = targets[v];
+		for (int i = 0, end = degree(v); i < end; i++) {
+			if (!visitor.test(t[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	public boolean forEachEdge(int v, EdgeVisitor visitor) {
+		int[] t = targets[v];
+		double[] wt = weights[v];
+		for (int i = 0, end = degree(v); i < end; i++) {
+			if (!visitor.visit(t[i], wt[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	public Iterable<Integer> adj(int v) {
+		degree(v);
+		return new adjIterator(v);
+	}
+	
+	private class adjIterator implements Iterator<Integer>, Iterable<Integer> {
+		
+		int v, i;
+		
+		public adjIterator(int v) {
+			this.v = v;
+			this.i = 0;
+		}
+		
+		public Iterator<Integer> iterator() {
+			return this;
+		}
+		
+		public boolean hasNext() {
+			return i < degree[v];
+		}
+		
+		public Integer next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return targets[v][i++];
+		}
+		
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+	
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("This graph has ").append(V).append(" vertices and ").append(E).append(" edges.\n");
+		for (int v = 0; v < V; v++) {
+			s.append(v).append(" : ");
+			for (int i = 0; i < degree[v]; i++) {
+				s.append(targets[v][i]).append('(').append(weights[v][i]).append(") ");
+			}
+			s.append('\n');
+		}
+		return s.toString();
+	}
+}
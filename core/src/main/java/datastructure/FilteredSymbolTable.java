@@ -0,0 +1,152 @@
+package datastructure;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+
+/**
+ * Puts a MembershipFilter in front of any SymbolTable engine, e.g.
+ *     new FilteredSymbolTable<String, Integer>(new HashMap<String, Integer>(),
+ *             n -> new CuckooFilter<String>(n, 0.01));
+ * A get() or contains() of a key the filter has never seen returns without
+ * touching the table. That pays off when most lookups miss, as for a dedup
+ * check or a cache in front of a slower store.
+ *
+ * Puts and deletes keep the filter in sync. A filter that supports remove()
+ * drops deleted keys. A Bloom filter cannot, so its stale bits are counted
+ * and the filter is rebuilt from keys() when they reach half its capacity.
+ * The filter is also rebuilt, at twice the table size, when the table
+ * outgrows it or when add() reports it full.
+ * This class is NOT THREAD-SAFE
+ */
+
+public class FilteredSymbolTable<Key, Value> implements SymbolTable<Key, Value> {
+	
+	private static final int MIN_CAPACITY = 1024;
+	
+	private final SymbolTable<Key, Value> table;
+	private final MembershipFilter.Factory<Key> factory;
+	private MembershipFilter<Key> filter;
+	private int stale;
+	private int rebuilds;
+	
+	public FilteredSymbolTable(SymbolTable<Key, Value> table, MembershipFilter.Factory<Key> factory) {
+		if (table == null || factory == null) {
+			throw new NullPointerException();
+		}
+		this.table = table;
+		this.factory = factory;
+		rebuild();
+		this.rebuilds = 0;
+	}
+	
+	/**
+	* Uses a filter that already holds every key of table, e.g. one saved by
+	* writeFilter() next to the table and read back with MembershipFilter.read().
+	*/
+	public FilteredSymbolTable(SymbolTable<Key, Value> table, MembershipFilter.Factory<Key> factory,
+			MembershipFilter<Key> filter) {
+		if (table == null || factory == null || filter == null) {
+			throw new NullPointerException();
+		}
+		this.table = table;
+		this.factory = factory;
+		this.filter = filter;
+	}
+	
+	public void put(Key key, Value value) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		if (value == null) {
+			delete(key);
+			return;
+		}
+		int before = table.size();
+		table.put(key, value);
+		if (table.size() > before) {
+			if (!filter.add(key) || table.size() > filter.capacity()) {
+				rebuild();
+			}
+		}
+	}
+	
+	public Value get(Key key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		if (!filter.mightContain(key)) {
+			return null;
+		}
+		return table.get(key);
+	}
+	
+	public boolean contains(Key key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		return filter.mightContain(key) && table.contains(key);
+	}
+	
+	public void delete(Key key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		int before = table.size();
+		table.delete(key);
+		if (table.size() < before) {
+			if (filter.supportsRemove()) {
+				filter.remove(key);
+			} else if (++stale >= filter.capacity() / 2) {
+				rebuild();
+			}
+		}
+	}
+	
+	public int size() {
+		return table.size();
+	}
+	
+	public Iterable<Key> keys() {
+		return table.keys();
+	}
+	
+	public MembershipFilter<Key> filter() {
+		return filter;
+	}
+	
+	// Number of times the filter has been rebuilt since construction.
+	public int rebuilds() {
+		return rebuilds;
+	}
+	
+	/**
+	* Writes the filter, to be saved alongside the table so that reopening
+	* does not have to scan keys().
+	*/
+	public void writeFilter(DataOutput out) throws IOException {
+		filter.writeTo(out);
+	}
+	
+	private void rebuild() {
+		int capacity = Math.max(MIN_CAPACITY, 2 * table.size());
+		while (true) {
+			MembershipFilter<Key> next = factory.create(capacity);
+			boolean full = false;
+			for (Key key : table.keys()) {
+				if (!next.add(key)) {
+					full = true;
+					break;
+				}
+			}
+			if (!full) {
+				filter = next;
+				stale = 0;
+				rebuilds++;
+				return;
+			}
+			capacity *= 2;
+		}
+	}
+	
+}
@@ -0,0 +1,30 @@
+package datastructure;
+
+import java.util.function.IntPredicate;
+
+
+/**
+ * Common view of an undirected graph on vertices 0 ... V() - 1.
+ * Implemented by Graph_AdjList, Graph_AdjMatrix and Graph_CSR so that the
+ * algorithms in GraphSearch run on any representation.
+ */
+
+public interface Graph {
+	
+	int V();
+	
+	int E();
+	
+	int degree(int v);
+	
+	Iterable<Integer> adj(int v);
+	
+	
+	/**
+	* Calls visitor on each neighbor of v, without boxing, until it returns false.
+	* @return true if every neighbor was visited, false if the visitor stopped early
+	* @throws IndexOutOfBoundsException if v is not a vertex
+	*/
+	boolean forEachAdj(int v, IntPredicate visitor);
+	
+}
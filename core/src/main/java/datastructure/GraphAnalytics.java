@@ -0,0 +1,214 @@
+package datastructure;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+
+/**
+ * Parallel analytics kernels over any Graph representation.
+ * Every kernel runs on the common fork/join pool through parallel streams
+ * and reads neighbors with forEachAdj(), so inner loops never box.
+ * The graph must not be modified while a kernel runs on it.
+ */
+
+public class GraphAnalytics {
+	
+	private GraphAnalytics() {
+	}
+	
+	
+	/***********************************************************************
+	 *  Pull-based PageRank.
+	 *  Each vertex sums rank / degree over its neighbors; rank held by
+	 *  vertices without edges is spread evenly. Stops when the L1 change of
+	 *  one iteration drops below epsilon, or after maxIterations.
+	***********************************************************************/
+	public static double[] pageRank(final Graph G, final double damping, double epsilon, int maxIterations) {
+		if (damping < 0 || damping > 1) {
+			throw new IllegalArgumentException("damping must be in [0, 1]");
+		}
+		final int V = G.V();
+		if (V == 0) {
+			return new double[0];
+		}
+		final int[] degree = new int[V];
+		IntStream.range(0, V).parallel().forEach(v -> degree[v] = G.degree(v));
+		
+		double[] rank = new double[V];
+		final double[] contribution = new double[V];
+		Arrays.fill(rank, 1.0 / V);
+		
+		for (int iteration = 0; iteration < maxIterations; iteration++) {
+			final double[] current = rank;
+			double dangling = IntStream.range(0, V).parallel().mapToDouble(v -> {
+				if (degree[v] == 0) {
+					contribution[v] = 0.0;
+					return current[v];
+				}
+				contribution[v] = current[v] / degree[v];
+				return 0.0;
+			}).sum();
+			
+			final double base = (1.0 - damping) / V + damping * dangling / V;
+			final double[] next = new double[V];
+			double change = IntStream.range(0, V).parallel().mapToDouble(v -> {
+				final double[] sum = { 0.0 };
+				G.forEachAdj(v, u -> {
+					sum[0] += contribution[u];
+					return true;
+				});
+				next[v] = base + damping * sum[0];
+				return Math.abs(next[v] - current[v]);
+			}).sum();
+			
+			rank = next;
+			if (change < epsilon) {
+				break;
+			}
+		}
+		return rank;
+	}
+	
+	
+	/***********************************************************************
+	 *  Triangles through each vertex.
+	 *  Edges are oriented from lower to higher (degree, id), so every
+	 *  triangle is found exactly once as the intersection of two sorted
+	 *  forward lists, and hubs keep short lists. Self-loops and parallel
+	 *  edges are ignored.
+	***********************************************************************/
+	public static long[] trianglesPerVertex(final Graph G) {
+		final int V = G.V();
+		final int[][] forward = forwardLists(G);
+		final AtomicLongArray count = new AtomicLongArray(V);
+		
+		IntStream.range(0, V).parallel().forEach(v -> {
+			int[] a = forward[v];
+			for (int u : a) {
+				int[] b = forward[u];
+				int i = 0, j = 0;
+				while (i < a.length && j < b.length) {
+					if (a[i] < b[j]) {
+						i++;
+					} else if (a[i] > b[j]) {
+						j++;
+					} else {
+						count.incrementAndGet(v);
+						count.incrementAndGet(u);
+						count.incrementAndGet(a[i]);
+						i++;
+						j++;
+					}
+				}
+			}
+		});
+		
+		long[] result = new long[V];
+		for (int v = 0; v < V; v++) {
+			result[v] = count.get(v);
+		}
+		return result;
+	}
+	
+	public static long triangles(Graph G) {
+		long sum = 0;
+		for (long t : trianglesPerVertex(G)) {
+			sum += t;
+		}
+		return sum / 3;
+	}
+	
+	// Distinct higher-ranked neighbors of each vertex, sorted by id.
+	private static int[][] forwardLists(final Graph G) {
+		final int V = G.V();
+		final int[] degree = new int[V];
+		IntStream.range(0, V).parallel().forEach(v -> degree[v] = G.degree(v));
+		
+		final int[][] forward = new int[V][];
+		IntStream.range(0, V).parallel().forEach(v -> {
+			final IntList out = new IntList(degree[v]);
+			G.forEachAdj(v, w -> {
+				if (degree[w] > degree[v] || (degree[w] == degree[v] && w > v)) {
+					out.add(w);
+				}
+				return true;
+			});
+			int[] a = out.toArray();
+			Arrays.sort(a);
+			int n = 0;
+			for (int i = 0; i < a.length; i++) {
+				if (n == 0 || a[i] != a[n - 1]) {
+					a[n++] = a[i];
+				}
+			}
+			forward[v] = n == a.length ? a : Arrays.copyOf(a, n);
+		});
+		return forward;
+	}
+	
+	
+	/***********************************************************************
+	 *  k-core decomposition: core[v] is the largest k such that v is in
+	 *  a subgraph where every vertex has degree at least k.
+	 *  Computed as the fixed point of the h-index operator (Lu et al. 2016):
+	 *  start from the degree and repeatedly lower each vertex to the h-index
+	 *  of its neighbors' values. Sweeps run in parallel and update in place;
+	 *  values only decrease, so stale reads merely delay convergence.
+	 *  Neighbor entries are taken as stored, so parallel edges count twice.
+	***********************************************************************/
+	public static int[] coreNumbers(final Graph G) {
+		final int V = G.V();
+		final int[] core = new int[V];
+		IntStream.range(0, V).parallel().forEach(v -> core[v] = G.degree(v));
+		int max = 0;
+		for (int c : core) {
+			max = Math.max(max, c);
+		}
+		final int bound = max;
+		final ThreadLocal<int[]> buffers = ThreadLocal.withInitial(() -> new int[bound + 2]);
+		
+		boolean changed = true;
+		while (changed) {
+			changed = IntStream.range(0, V).parallel().map(v -> {
+				final int k = core[v];
+				if (k == 0) {
+					return 0;
+				}
+				final int[] count = buffers.get();
+				Arrays.fill(count, 0, k + 1, 0);
+				G.forEachAdj(v, w -> {
+					count[Math.min(core[w], k)]++;
+					return true;
+				});
+				int h = k;
+				for (int seen = count[k]; seen < h; seen += count[h]) {
+					h--;
+				}
+				if (h < k) {
+					core[v] = h;
+					return 1;
+				}
+				return 0;
+			}).sum() > 0;
+		}
+		return core;
+	}
+	
+	
+	/***********************************************************************
+	 *  Degree distribution: result[d] is the number of vertices of degree d.
+	***********************************************************************/
+	public static long[] degreeDistribution(final Graph G) {
+		final int max = IntStream.range(0, G.V()).parallel().map(G::degree).max().orElse(0);
+		return IntStream.range(0, G.V()).parallel().collect(
+				() -> new long[max + 1],
+				(histogram, v) -> histogram[G.degree(v)]++,
+				(a, b) -> {
+					for (int d = 0; d <= max; d++) {
+						a[d] += b[d];
+					}
+				});
+	}
+	
+}
@@ -0,0 +1,398 @@
+package datastructure;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+
+/**
+ * Versioned binary graph file, little-endian, in CSR order:
+ *
+ *   header   64 bytes   magic "GRPH", version, flags, V, E, number of targets
+ *   offsets  8 * (V + 1) bytes, long; neighbors of v are targets[offsets[v] ...]
+ *   targets  4 * n bytes, int, padded to a multiple of 8
+ *   weights  8 * n bytes, double, only when FLAG_WEIGHTED is set
+ *
+ * Like the in-memory graphs, an undirected edge is stored at both endpoints.
+ * open() memory-maps a file and serves it as a Graph without copying it to
+ * the heap, so opening a graph costs a few mmap calls regardless of size.
+ */
+
+public class GraphFile {
+	
+	static final int MAGIC = 0x48505247;		// "GRPH" read little-endian
+	static final int VERSION = 1;
+	static final int FLAG_WEIGHTED = 1;
+	static final int HEADER_BYTES = 64;
+	
+	// Elements per mapping; keeps every mapped region under 2 GB.
+	static final int SHIFT = 27;
+	static final long MASK = (1L << SHIFT) - 1;
+	
+	private static final int BUFFER_BYTES = 1 << 20;
+	
+	private GraphFile() {
+	}
+	
+	
+	/***********************************************************************
+	 *  Open a graph file as a memory-mapped, read-only Graph.
+	***********************************************************************/
+	public static MappedGraph open(Path file) throws IOException {
+		return new MappedGraph(file);
+	}
+	
+	
+	/***********************************************************************
+	 *  Write an existing graph. Weights are written for EdgeWeightedGraph
+	 *  and for a MappedGraph whose file has them.
+	***********************************************************************/
+	public static void write(Graph G, Path file) throws IOException {
+		try {
+			writeGraph(G, file);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+	
+	private static void writeGraph(Graph G, Path file) throws IOException {
+		final boolean weighted = G instanceof EdgeWeightedGraph
+				|| (G instanceof MappedGraph && ((MappedGraph) G).hasWeights());
+		final int V = G.V();
+		long n = 0;
+		for (int v = 0; v < V; v++) {
+			n += G.degree(v);
+		}
+		
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			final Writer out = new Writer(channel);
+			writeHeader(out, weighted, V, G instanceof MappedGraph ? ((MappedGraph) G).edges() : G.E(), n);
+			
+			long offset = 0;
+			out.putLong(offset);
+			for (int v = 0; v < V; v++) {
+				offset += G.degree(v);
+				out.putLong(offset);
+			}
+			for (int v = 0; v < V; v++) {
+				G.forEachAdj(v, w -> {
+					out.putInt(w);
+					return true;
+				});
+			}
+			if ((n & 1) == 1) {
+				out.putInt(0);
+			}
+			if (weighted) {
+				EdgeWeightedGraph.EdgeVisitor visitor = (w, weight) -> {
+					out.putDouble(weight);
+					return true;
+				};
+				for (int v = 0; v < V; v++) {
+					if (G instanceof EdgeWeightedGraph) {
+						((EdgeWeightedGraph) G).forEachEdge(v, visitor);
+					} else {
+						((MappedGraph) G).forEachEdge(v, visitor);
+					}
+				}
+			}
+			out.flush();
+		}
+	}
+	
+	private static void writeHeader(Writer out, boolean weighted, int V, long E, long n) throws IOException {
+		out.putInt(MAGIC);
+		out.putInt(VERSION);
+		out.putInt(weighted ? FLAG_WEIGHTED : 0);
+		out.putInt(V);
+		out.putLong(E);
+		out.putLong(n);
+		for (int i = 32; i < HEADER_BYTES; i += 8) {
+			out.putLong(0);
+		}
+	}
+	
+	static long targetsStart(int V) {
+		return HEADER_BYTES + 8L * (V + 1);
+	}
+	
+	static long weightsStart(int V, long n) {
+		return targetsStart(V) + 4L * (n + (n & 1));
+	}
+	
+	static long fileBytes(int V, long n, boolean weighted) {
+		return weightsStart(V, n) + (weighted ? 8L * n : 0);
+	}
+	
+	
+	/***********************************************************************
+	 *  Parallel conversion of a text edge list, one "v w" or "v w weight"
+	 *  pair per line; blank lines and lines starting with '#' or '%' are
+	 *  skipped. The file is cut into chunks at line boundaries; one parallel
+	 *  pass counts degrees, the next scatters every edge straight into the
+	 *  mapped output. Neighbor order inside a vertex is not deterministic.
+	***********************************************************************/
+	public static void convert(Path text, Path file, int V, final boolean weighted) throws IOException {
+		try (FileChannel in = FileChannel.open(text, StandardOpenOption.READ)) {
+			final List<ByteBuffer> chunks = split(in);
+			
+			final AtomicIntegerArray degree = new AtomicIntegerArray(V);
+			final long[] edges = new long[chunks.size()];
+			final int vertices = V;
+			parallel(chunks.size(), c -> edges[c] = parse(chunks.get(c).duplicate(), weighted, (v, w, weight) -> {
+				if (v < 0 || v >= vertices || w < 0 || w >= vertices) {
+					throw new IndexOutOfBoundsException("vertex out of range: " + v + " " + w);
+				}
+				degree.getAndIncrement(v);
+				degree.getAndIncrement(w);
+			}));
+			
+			long E = 0;
+			for (long e : edges) {
+				E += e;
+			}
+			final AtomicLongArray next = new AtomicLongArray(V);
+			long n = 0;
+			for (int v = 0; v < V; v++) {
+				next.set(v, n);
+				n += degree.get(v);
+			}
+			
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				Writer out = new Writer(channel);
+				writeHeader(out, weighted, V, E, n);
+				long offset = 0;
+				for (int v = 0; v < V; v++) {
+					out.putLong(offset);
+					offset += degree.get(v);
+				}
+				out.putLong(offset);
+				out.flush();
+				
+				final ByteBuffer[] targets = map(channel, MapMode.READ_WRITE, targetsStart(V), n + (n & 1), 4);
+				final ByteBuffer[] weights = weighted
+						? map(channel, MapMode.READ_WRITE, weightsStart(V, n), n, 8) : null;
+				parallel(chunks.size(), c -> parse(chunks.get(c).duplicate(), weighted, (v, w, weight) -> {
+					long i = next.getAndIncrement(v);
+					long j = next.getAndIncrement(w);
+					targets[(int) (i >>> SHIFT)].putInt((int) (i & MASK) << 2, w);
+					targets[(int) (j >>> SHIFT)].putInt((int) (j & MASK) << 2, v);
+					if (weights != null) {
+						weights[(int) (i >>> SHIFT)].putDouble((int) (i & MASK) << 3, weight);
+						weights[(int) (j >>> SHIFT)].putDouble((int) (j & MASK) << 3, weight);
+					}
+				}));
+				force(targets);
+				if (weights != null) {
+					force(weights);
+				}
+			}
+		}
+	}
+	
+	// Number of vertices needed by a text edge list: largest id plus one.
+	public static int vertexCount(Path text) throws IOException {
+		try (FileChannel in = FileChannel.open(text, StandardOpenOption.READ)) {
+			final List<ByteBuffer> chunks = split(in);
+			final int[] max = new int[chunks.size()];
+			parallel(chunks.size(), c -> {
+				max[c] = -1;
+				parse(chunks.get(c).duplicate(), false,
+						(v, w, weight) -> max[c] = Math.max(max[c], Math.max(v, w)));
+			});
+			int result = -1;
+			for (int m : max) {
+				result = Math.max(result, m);
+			}
+			return result + 1;
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  Helpers shared with MappedGraph.
+	***********************************************************************/
+	static ByteBuffer[] map(FileChannel channel, MapMode mode, long base, long count, int size) throws IOException {
+		int maps = (int) ((count + MASK) >>> SHIFT);
+		ByteBuffer[] result = new ByteBuffer[maps];
+		for (int i = 0; i < maps; i++) {
+			long first = (long) i << SHIFT;
+			long length = Math.min(count - first, 1L << SHIFT) * size;
+			result[i] = channel.map(mode, base + first * size, length).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		return result;
+	}
+	
+	private static void force(ByteBuffer[] maps) {
+		for (ByteBuffer map : maps) {
+			((MappedByteBuffer) map).force();
+		}
+	}
+	
+	private interface EdgeSink {
+		void edge(int v, int w, double weight);
+	}
+	
+	private interface ChunkTask {
+		void run(int chunk);
+	}
+	
+	private static void parallel(int n, final ChunkTask task) {
+		IntStream.range(0, n).parallel().forEach(task::run);
+	}
+	
+	// Cut the text into mapped chunks of at most 256 MB ending at a newline.
+	private static List<ByteBuffer> split(FileChannel in) throws IOException {
+		final long chunkBytes = 1L << 28;
+		long size = in.size();
+		List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+		long start = 0;
+		while (start < size) {
+			long length = Math.min(chunkBytes + 4096, size - start);
+			MappedByteBuffer buffer = in.map(MapMode.READ_ONLY, start, length);
+			int end = (int) Math.min(chunkBytes, length);
+			if (start + end < size) {
+				while (end < length && buffer.get(end - 1) != '\n') {
+					end++;
+				}
+				if (buffer.get(end - 1) != '\n') {
+					throw new IOException("line longer than 4096 bytes at offset " + (start + end));
+				}
+			}
+			buffer.limit(end);
+			chunks.add(buffer.slice());
+			start += end;
+		}
+		return chunks;
+	}
+	
+	private static long parse(ByteBuffer b, boolean weighted, EdgeSink sink) {
+		long edges = 0;
+		StringBuilder number = new StringBuilder();
+		while (b.hasRemaining()) {
+			skipBlanks(b);
+			if (!b.hasRemaining()) {
+				break;
+			}
+			byte c = b.get(b.position());
+			if (c == '\n' || c == '\r') {
+				b.get();
+				continue;
+			}
+			if (c == '#' || c == '%') {
+				skipLine(b);
+				continue;
+			}
+			int v = parseInt(b);
+			skipBlanks(b);
+			int w = parseInt(b);
+			double weight = 0.0;
+			if (weighted) {
+				skipBlanks(b);
+				number.setLength(0);
+				while (b.hasRemaining() && b.get(b.position()) > ' ') {
+					number.append((char) b.get());
+				}
+				weight = Double.parseDouble(number.toString());
+			}
+			skipLine(b);
+			sink.edge(v, w, weight);
+			edges++;
+		}
+		return edges;
+	}
+	
+	// Ten digits fit in a long without overflow, so the range check is exact.
+	private static int parseInt(ByteBuffer b) {
+		long result = 0;
+		int digits = 0;
+		while (b.hasRemaining()) {
+			byte c = b.get(b.position());
+			if (c < '0' || c > '9') {
+				break;
+			}
+			if (++digits > 10) {
+				throw new NumberFormatException("vertex id too long at byte " + b.position());
+			}
+			result = result * 10 + (c - '0');
+			b.get();
+		}
+		if (digits == 0) {
+			throw new NumberFormatException("expected a vertex id at byte " + b.position());
+		}
+		if (result > Integer.MAX_VALUE) {
+			throw new NumberFormatException("vertex id " + result + " does not fit in an int");
+		}
+		return (int) result;
+	}
+	
+	private static void skipBlanks(ByteBuffer b) {
+		while (b.hasRemaining() && (b.get(b.position()) == ' ' || b.get(b.position()) == '\t')) {
+			b.get();
+		}
+	}
+	
+	private static void skipLine(ByteBuffer b) {
+		while (b.hasRemaining() && b.get() != '\n') {
+		}
+	}
+	
+	
+	// Buffered little-endian writer on a FileChannel.
+	private static class Writer {
+		private final FileChannel channel;
+		private final ByteBuffer buffer;
+		
+		private Writer(FileChannel channel) {
+			this.channel = channel;
+			this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		
+		private void putInt(int x) {
+			ensure(4);
+			buffer.putInt(x);
+		}
+		
+		private void putLong(long x) {
+			ensure(8);
+			buffer.putLong(x);
+		}
+		
+		private void putDouble(double x) {
+			ensure(8);
+			buffer.putDouble(x);
+		}
+		
+		private void ensure(int bytes) {
+			if (buffer.remaining() < bytes) {
+				try {
+					flush();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		}
+		
+		private void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+	}
+	
+}
@@ -0,0 +1,227 @@
+package datastructure;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+
+/**
+ * Traversal algorithms over any Graph representation.
+ * bfs() and components() run on the common fork/join pool through parallel
+ * streams; dfs() is iterative, so deep graphs cannot overflow the call stack.
+ * The graph must not be modified while an algorithm runs on it.
+ */
+
+public class GraphSearch {
+	
+	// Direction-optimizing thresholds from Beamer et al.
+	private static final int ALPHA = 14;
+	private static final int BETA = 24;
+	
+	// Frontier vertices (or bottom-up candidates) handled per parallel chunk.
+	private static final int GRAIN = 1024;
+	
+	private GraphSearch() {
+	}
+	
+	
+	/***********************************************************************
+	 *  Direction-optimizing parallel BFS.
+	 *  Returns the number of edges on a shortest path from s to every
+	 *  vertex, or -1 for unreachable vertices.
+	 *
+	 *  Top-down steps expand the frontier and claim unvisited neighbors
+	 *  with a CAS. When the frontier touches a large share of the remaining
+	 *  edges, steps switch to bottom-up: every unvisited vertex looks for any
+	 *  parent in the frontier and stops at the first one.
+	***********************************************************************/
+	public static int[] bfs(final Graph G, int s) {
+		final int V = G.V();
+		if (s < 0 || s >= V) {
+			throw new IndexOutOfBoundsException();
+		}
+		final AtomicIntegerArray dist = new AtomicIntegerArray(V);
+		for (int v = 0; v < V; v++) {
+			dist.set(v, -1);
+		}
+		dist.set(s, 0);
+		
+		final boolean[] inFrontier = new boolean[V];
+		long unexploredEdges = degreeSum(G, IntStream.range(0, V)) - G.degree(s);
+		int[] frontier = { s };
+		long frontierEdges = G.degree(s);
+		boolean bottomUp = false;
+		
+		for (int depth = 1; frontier.length > 0; depth++) {
+			if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+				bottomUp = true;
+			} else if (bottomUp && frontier.length < V / BETA) {
+				bottomUp = false;
+			}
+			
+			final int d = depth;
+			final int[] current = frontier;
+			if (bottomUp) {
+				for (int v : current) {
+					inFrontier[v] = true;
+				}
+				frontier = IntList.collect(V, GRAIN, new IntList.Step() {
+					public void run(final int v, final IntList out) {
+						if (dist.get(v) >= 0) {
+							return;
+						}
+						G.forEachAdj(v, w -> {
+							if (inFrontier[w]) {
+								dist.set(v, d);
+								out.add(v);
+								return false;
+							}
+							return true;
+						});
+					}
+				});
+				for (int v : current) {
+					inFrontier[v] = false;
+				}
+			} else {
+				frontier = IntList.collect(current.length, GRAIN, new IntList.Step() {
+					public void run(int i, final IntList out) {
+						G.forEachAdj(current[i], w -> {
+							if (dist.get(w) < 0 && dist.compareAndSet(w, -1, d)) {
+								out.add(w);
+							}
+							return true;
+						});
+					}
+				});
+			}
+			
+			frontierEdges = degreeSum(G, IntStream.of(frontier));
+			unexploredEdges -= frontierEdges;
+		}
+		
+		int[] result = new int[V];
+		for (int v = 0; v < V; v++) {
+			result[v] = dist.get(v);
+		}
+		return result;
+	}
+	
+	
+	/***********************************************************************
+	 *  Iterative depth-first search from s.
+	 *  Returns the reachable vertices in preorder, in the same order as the
+	 *  textbook recursive version, using an explicit stack on the heap.
+	***********************************************************************/
+	public static int[] dfs(Graph G, int s) {
+		int V = G.V();
+		if (s < 0 || s >= V) {
+			throw new IndexOutOfBoundsException();
+		}
+		boolean[] marked = new boolean[V];
+		IntList order = new IntList();
+		IntList stack = new IntList();
+		IntList neighbors = new IntList();
+		stack.add(s);
+		
+		while (stack.size > 0) {
+			int v = stack.pop();
+			if (marked[v]) {
+				continue;
+			}
+			marked[v] = true;
+			order.add(v);
+			
+			// push in reverse so the first neighbor is visited first
+			neighbors.clear();
+			G.forEachAdj(v, w -> {
+				if (!marked[w]) {
+					neighbors.add(w);
+				}
+				return true;
+			});
+			for (int i = neighbors.size - 1; i >= 0; i--) {
+				stack.add(neighbors.a[i]);
+			}
+		}
+		return order.toArray();
+	}
+	
+	
+	/***********************************************************************
+	 *  Parallel connected components by lock-free union-find.
+	 *  Every edge is a union(); roots are linked from the larger index to
+	 *  the smaller with a CAS, and find() uses path halving.
+	 *  Returns component ids 0 ... count - 1, numbered by smallest vertex.
+	***********************************************************************/
+	public static int[] components(final Graph G) {
+		final int V = G.V();
+		final AtomicIntegerArray parent = new AtomicIntegerArray(V);
+		for (int v = 0; v < V; v++) {
+			parent.set(v, v);
+		}
+		
+		IntStream.range(0, V).parallel().forEach(v -> G.forEachAdj(v, w -> {
+			if (v < w) {
+				union(parent, v, w);
+			}
+			return true;
+		}));
+		
+		int[] id = new int[V];
+		int count = 0;
+		for (int v = 0; v < V; v++) {
+			int root = find(parent, v);
+			id[v] = root == v ? count++ : id[root];
+		}
+		return id;
+	}
+	
+	public static int count(int[] components) {
+		int count = 0;
+		for (int c : components) {
+			count = Math.max(count, c + 1);
+		}
+		return count;
+	}
+	
+	private static int find(AtomicIntegerArray parent, int v) {
+		while (true) {
+			int p = parent.get(v);
+			if (p == v) {
+				return v;
+			}
+			int gp = parent.get(p);
+			if (gp != p) {
+				parent.compareAndSet(v, p, gp);
+			}
+			v = gp;
+		}
+	}
+	
+	private static void union(AtomicIntegerArray parent, int v, int w) {
+		while (true) {
+			v = find(parent, v);
+			w = find(parent, w);
+			if (v == w) {
+				return;
+			}
+			if (v < w) {
+				int t = v;
+				v = w;
+				w = t;
+			}
+			if (parent.compareAndSet(v, v, w)) {
+				return;
+			}
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  Parallel helpers.
+	***********************************************************************/
+	private static long degreeSum(Graph G, IntStream vertices) {
+		return vertices.parallel().mapToLong(G::degree).sum();
+	}
+	
+}
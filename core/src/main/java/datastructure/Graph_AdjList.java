@@ -0,0 +1,244 @@
+package datastructure;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+public class Graph_AdjList implements Graph {
+	
+	private static final int DEFAULT_VERTEX = 10;
+	private static final int DEFAULT_DEGREE = 4;
+	
+	private int V;
+	private int E;
+	private int[][] adj;
+	private int[] degree;
+	
+	public Graph_AdjList() {
+		this(DEFAULT_VERTEX);
+	}
+	
+	public Graph_AdjList(int V) {
+		if (V < 0) {
+			throw new IllegalArgumentException();
+		}
+		this.V = V;
+		this.E = 0;
+		this.adj = new int[Math.max(V, 1)][];
+		this.degree = new int[Math.max(V, 1)];
+	}
+	
+	public int V() {
+		return V;
+	}
+	
+	public int E() {
+		return E;
+	}
+	
+	
+	/***********************************************************************
+	 *  Add a new isolated vertex and return its index.
+	***********************************************************************/
+	public int addVertex() {
+		if (V == adj.length) {
+			adj = Arrays.copyOf(adj, V << 1);
+			degree = Arrays.copyOf(degree, V << 1);
+		}
+		return V++;
+	}
+	
+	public void addEdge(int w, int u) {
+		if (w < 0 || w >= V || u < 0 || u >= V) {
+			throw new IndexOutOfBoundsException();
+		}
+		append(w, u);
+		append(u, w);
+		E++;
+	}
+	
+	
+	/***********************************************************************
+	 *  Batch insert: edge i connects from[i] and to[i].
+	 *  Each adjacency array is grown at most once for the whole batch. The
+	 *  new degrees are counted in degree[] itself, so the work and memory
+	 *  are proportional to the batch, not to V.
+	***********************************************************************/
+	public void addEdges(int[] from, int[] to) {
+		if (from.length != to.length) {
+			throw new IllegalArgumentException("edge arrays differ in length");
+		}
+		int n = from.length;
+		for (int i = 0; i < n; i++) {
+			if (from[i] < 0 || from[i] >= V || to[i] < 0 || to[i] >= V) {
+				throw new IndexOutOfBoundsException();
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			degree[from[i]]++;
+			degree[to[i]]++;
+		}
+		for (int i = 0; i < n; i++) {
+			ensureCapacity(from[i], degree[from[i]]);
+			ensureCapacity(to[i], degree[to[i]]);
+		}
+		for (int i = 0; i < n; i++) {
+			degree[from[i]]--;
+			degree[to[i]]--;
+		}
+		for (int i = 0; i < n; i++) {
+			adj[from[i]][degree[from[i]]++] = to[i];
+			adj[to[i]][degree[to[i]]++] = from[i];
+		}
+		E += n;
+	}
+	
+	private void append(int v, int w) {
+		ensureCapacity(v, degree[v] + 1);
+		adj[v][degree[v]++] = w;
+	}
+	
+	private void ensureCapacity(int v, int capacity) {
+		if (adj[v] == null) {
+			adj[v] = new int[Math.max(capacity, DEFAULT_DEGREE)];
+		} else if (adj[v].length < capacity) {
+			adj[v] = Arrays.copyOf(adj[v], Math.max(capacity, adj[v].length << 1));
+		}
+	}
+	
+	public Iterable<Integer> adj(int v) {
+		if (v < 0 || v >= V) {
+			throw new IndexOutOfBoundsException();
+		}
+		return new adjIterator(v);
+	}
+	
+	public int degree(int v) {
+		if (v < 0 || v >= V) {
+			throw new IndexOutOfBoundsException();
+		}
+		return degree[v];
+	}
+	
+	public boolean forEachAdj(int v, IntPredicate visitor) {
+		int[] a = adj[v];
+		for (int i = 0, end = degree(v); i < end; i++) {
+			if (!visitor.test(a[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	public static int degree(Graph_AdjList G, int v) {
+		return G.degree(v);
+	}
+	
+	public static int maxDegree(Graph_AdjList G) {
+		int max = 0;
+		for (int v = 0; v < G.V(); v++) {
+			max = Math.max(max, G.degree(v));
+		}
+		return max;
+	}
+	
+	public static int numberOfSelfLoop(Graph_AdjList G) {
+		int count = 0;
+		AdjCursor cursor = G.cursor();
+		for (int v = 0; v < G.V(); v++) {
+			cursor.reset(v);
+			while (cursor.hasNext()) {
+				if (cursor.nextInt() == v) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+	
+	
+	/***********************************************************************
+	 *  Allocation-free neighbor scan, reusable across vertices:
+	 *      AdjCursor c = G.cursor();
+	 *      c.reset(v);
+	 *      while (c.hasNext()) { int w = c.nextInt(); ... }
+	***********************************************************************/
+	public AdjCursor cursor() {
+		return new AdjCursor();
+	}
+	
+	public class AdjCursor {
+		
+		private int[] a;
+		private int i, end;
+		
+		private AdjCursor() {
+		}
+		
+		public AdjCursor reset(int v) {
+			if (v < 0 || v >= V) {
+				throw new IndexOutOfBoundsException();
+			}
+			this.a = adj[v];
+			this.i = 0;
+			this.end = degree[v];
+			return this;
+		}
+		
+		public boolean hasNext() {
+			return i < end;
+		}
+		
+		public int nextInt() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return a[i++];
+		}
+	}
+	
+	private class adjIterator implements Iterator<Integer>, Iterable<Integer> {
+		
+		int[] a;
+		int i, end;
+		
+		public adjIterator(int v) {
+			this.a = adj[v];
+			this.i = 0;
+			this.end = degree[v];
+		}
+		
+		public Iterator<Integer> iterator() {
+			return this;
+		}
+		
+		public boolean hasNext() {
+			return i < end;
+		}
+		
+		public Integer next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return a[i++];
+		}
+		
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+	
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("This graph has ").append(V).append(" vertices and ").append(E).append(" edges.\n");
+		for (int v = 0; v < V; v++) {
+			s.append(v).append(" : ");
+			for (int i = 0; i < degree[v]; i++) {
+				s.append(adj[v][i]).append(' ');
+			}
+			s.append('\n');
+		}
+		return s.toString();
+	}
+}
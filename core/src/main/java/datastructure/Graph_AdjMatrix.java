@@ -0,0 +1,196 @@
+package datastructure;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+
+/**
+ * Undirected graph on an adjacency matrix stored as one long[] bitset per row,
+ * one bit per cell. Neighbor scans skip 64 empty cells at a time and set
+ * operations on neighborhoods run a word at a time.
+ * A self-loop is a single bit: it counts as one edge, appears once in adj(v)
+ * and adds 1 to degree(v). Graph_AdjList and Graph_CSR store it at both
+ * endpoints, so there it appears twice and adds 2.
+ */
+
+public class Graph_AdjMatrix implements Graph {
+	
+	private final int V;
+	private int E;
+	private long[][] adj;
+	
+	private static final int DEFAULT_CAPACITY = 10;
+	
+	public Graph_AdjMatrix() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	public Graph_AdjMatrix(int V) {
+		if (V < 0) {
+			throw new IllegalArgumentException();
+		}
+		this.V = V;
+		this.E = 0;
+		this.adj = new long[V][(V + 63) >>> 6];
+	}
+	
+	public int V() {
+		return V;
+	}
+	
+	public int E() {
+		return E;
+	}
+	
+	// Bits past V in the last word of a row must stay clear, so every
+	// vertex argument is checked before it is used as a bit index.
+	private void validate(int v) {
+		if (v < 0 || v >= V) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+	
+	public void addEdge(int v, int w) {
+		validate(v);
+		validate(w);
+		if ((adj[v][w >>> 6] & (1L << w)) == 0) {
+			E++;
+		}
+		adj[v][w >>> 6] |= 1L << w;
+		adj[w][v >>> 6] |= 1L << v;
+	}
+	
+	public boolean contains(int v, int w) {
+		validate(v);
+		validate(w);
+		return (adj[v][w >>> 6] & (1L << w)) != 0;
+	}
+	
+	public int degree(int v) {
+		validate(v);
+		int degree = 0;
+		for (long word : adj[v]) {
+			degree += Long.bitCount(word);
+		}
+		return degree;
+	}
+	
+	public Iterable<Integer> adj(int v) {
+		validate(v);
+		return new adjIterator(adj[v], null);
+	}
+	
+	public boolean forEachAdj(int v, IntPredicate visitor) {
+		validate(v);
+		long[] row = adj[v];
+		for (int i = 0; i < row.length; i++) {
+			for (long word = row[i]; word != 0; word &= word - 1) {
+				if (!visitor.test((i << 6) + Long.numberOfTrailingZeros(word))) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	
+	
+	/***********************************************************************
+	 *  Neighborhood intersection, one word of 64 vertices per step.
+	***********************************************************************/
+	public int commonNeighborCount(int v, int w) {
+		validate(v);
+		validate(w);
+		long[] a = adj[v];
+		long[] b = adj[w];
+		int count = 0;
+		for (int i = 0; i < a.length; i++) {
+			count += Long.bitCount(a[i] & b[i]);
+		}
+		return count;
+	}
+	
+	public Iterable<Integer> commonNeighbors(int v, int w) {
+		validate(v);
+		validate(w);
+		return new adjIterator(adj[v], adj[w]);
+	}
+	
+	
+	/***********************************************************************
+	 *  Number of triangles. Each triangle u < v < w is counted once, from
+	 *  its edge (u, v), by intersecting the two rows above column v.
+	 *  Self-loops never complete a triangle.
+	***********************************************************************/
+	public long triangles() {
+		long count = 0;
+		int words = (V + 63) >>> 6;
+		for (int u = 0; u < V; u++) {
+			long[] a = adj[u];
+			for (int v = u + 1; v < V; v++) {
+				if ((a[v >>> 6] & (1L << v)) == 0) {
+					continue;
+				}
+				long[] b = adj[v];
+				int i = (v + 1) >>> 6;
+				if (i < words) {
+					count += Long.bitCount(a[i] & b[i] & (-1L << (v + 1)));
+				}
+				for (i++; i < words; i++) {
+					count += Long.bitCount(a[i] & b[i]);
+				}
+			}
+		}
+		return count;
+	}
+	
+	// Iterates the set bits of row a, or of a & b when b is not null.
+	private class adjIterator implements Iterator<Integer>, Iterable<Integer> {
+		
+		long[] a, b;
+		int i;
+		long word;
+		
+		public adjIterator(long[] a, long[] b) {
+			this.a = a;
+			this.b = b;
+			this.i = 0;
+			this.word = load(0);
+		}
+		
+		private long load(int i) {
+			if (i >= a.length) {
+				return 0;
+			}
+			return b == null ? a[i] : a[i] & b[i];
+		}
+		
+		public Iterator<Integer> iterator() {
+			return this;
+		}
+		
+		public boolean hasNext() {
+			while (word == 0) {
+				if (++i >= a.length) {
+					return false;
+				}
+				word = load(i);
+			}
+			return true;
+		}
+		
+		public Integer next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			int w = (i << 6) + Long.numberOfTrailingZeros(word);
+			word &= word - 1;
+			return w;
+		}
+		
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+	
+}
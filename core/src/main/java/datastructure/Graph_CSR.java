@@ -0,0 +1,172 @@
+package datastructure;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+
+/**
+ * Immutable undirected graph in compressed sparse row (CSR) form.
+ * The neighbors of v are targets[offsets[v]] ... targets[offsets[v + 1] - 1],
+ * so every edge endpoint costs 4 bytes and adjacency is one contiguous scan.
+ * Like Graph_AdjList, each edge is stored at both endpoints and a self-loop
+ * appears twice in adj(v).
+ */
+
+public class Graph_CSR implements Graph {
+	
+	private final int V;
+	private final int E;
+	private final int[] offsets;
+	private final int[] targets;
+	
+	
+	/***********************************************************************
+	 *  Build from an existing Graph_AdjList, keeping its neighbor order.
+	***********************************************************************/
+	public Graph_CSR(Graph_AdjList G) {
+		this.V = G.V();
+		this.E = G.E();
+		this.offsets = new int[V + 1];
+		for (int v = 0; v < V; v++) {
+			offsets[v + 1] = offsets[v] + G.degree(v);
+		}
+		this.targets = new int[offsets[V]];
+		Graph_AdjList.AdjCursor cursor = G.cursor();
+		for (int v = 0; v < V; v++) {
+			int i = offsets[v];
+			cursor.reset(v);
+			while (cursor.hasNext()) {
+				targets[i++] = cursor.nextInt();
+			}
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  Build from an edge list: edge i connects from[i] and to[i].
+	 *  Two passes over the list (count degrees, then scatter), no boxing.
+	***********************************************************************/
+	public Graph_CSR(int V, int[] from, int[] to) {
+		if (from.length != to.length) {
+			throw new IllegalArgumentException("edge arrays differ in length");
+		}
+		this.V = V;
+		this.E = from.length;
+		this.offsets = new int[V + 1];
+		for (int i = 0; i < E; i++) {
+			rangeCheck(from[i]);
+			rangeCheck(to[i]);
+			offsets[from[i] + 1]++;
+			offsets[to[i] + 1]++;
+		}
+		for (int v = 0; v < V; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+		this.targets = new int[offsets[V]];
+		int[] next = new int[V];
+		System.arraycopy(offsets, 0, next, 0, V);
+		for (int i = 0; i < E; i++) {
+			targets[next[from[i]]++] = to[i];
+			targets[next[to[i]]++] = from[i];
+		}
+	}
+	
+	// Wraps arrays already in CSR form; the caller must not modify them afterwards.
+	Graph_CSR(int V, int E, int[] offsets, int[] targets) {
+		this.V = V;
+		this.E = E;
+		this.offsets = offsets;
+		this.targets = targets;
+	}
+	
+	public int V() {
+		return V;
+	}
+	
+	public int E() {
+		return E;
+	}
+	
+	public int degree(int v) {
+		rangeCheck(v);
+		return offsets[v + 1] - offsets[v];
+	}
+	
+	// The i-th neighbor of v, 0 <= i < degree(v).
+	public int neighbor(int v, int i) {
+		if (i < 0 || i >= degree(v)) {
+			throw new IndexOutOfBoundsException();
+		}
+		return targets[offsets[v] + i];
+	}
+	
+	public boolean forEachAdj(int v, IntPredicate visitor) {
+		rangeCheck(v);
+		for (int i = offsets[v], end = offsets[v + 1]; i < end; i++) {
+			if (!visitor.test(targets[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	public Iterable<Integer> adj(int v) {
+		rangeCheck(v);
+		return new adjIterator(v);
+	}
+	
+	// Bytes held by the offsets and targets arrays, as in CompactTrie; array
+	// and object headers are left out. GraphBenchmark prints the measured heap.
+	public long memoryBytes() {
+		return 4L * offsets.length + 4L * targets.length;
+	}
+	
+	private void rangeCheck(int v) {
+		if (v < 0 || v >= V) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+	
+	private class adjIterator implements Iterator<Integer>, Iterable<Integer> {
+		
+		int i, end;
+		
+		public adjIterator(int v) {
+			this.i = offsets[v];
+			this.end = offsets[v + 1];
+		}
+		
+		public Iterator<Integer> iterator() {
+			return this;
+		}
+		
+		public boolean hasNext() {
+			return i < end;
+		}
+		
+		public Integer next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return targets[i++];
+		}
+		
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+	
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("This graph has ").append(V).append(" vertices and ").append(E).append(" edges.\n");
+		for (int v = 0; v < V; v++) {
+			s.append(v).append(" : ");
+			for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+				s.append(targets[i]).append(' ');
+			}
+			s.append('\n');
+		}
+		return s.toString();
+	}
+}
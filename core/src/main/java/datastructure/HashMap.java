@@ -0,0 +1,340 @@
+package datastructure;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+public class HashMap<K, V> implements SymbolTable<K, V> {
+	
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final float LOAD_FACTOR = 0.75f;
+	private static final int BATCH = 64;
+	private static final int MAX_CAPACITY = 1 << 30;
+	
+	private int capacity;
+	private int size;
+	private List<Cell<K, V>>[] items;
+	private Metrics metrics;
+	
+	public HashMap() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	// capacity is rounded up to a power of two, since indexOfKey masks the hash.
+	@SuppressWarnings("unchecked")
+	public HashMap(int capacity) {
+		this.capacity = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+		size = 0;
+		items = (LinkedList<Cell<K, V>>[]) new LinkedList[this.capacity];
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	/**
+	* Attaches metrics to get, put and delete, or detaches them if null.
+	* Probes are the length of the key's chain, and every rehash is reported
+	* with its pause.
+	*/
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	private int chainLength(K key) {
+		List<Cell<K, V>> list = items[indexOfKey(key)];
+		return list == null ? 0 : list.size();
+	}
+	
+	/**
+	* Returns the chain length distribution: entry i is the number of
+	* buckets holding exactly i cells. Takes O(capacity) time.
+	*/
+	public long[] chainLengths() {
+		int longest = 0;
+		for (List<Cell<K, V>> list : items) {
+			if (list != null) {
+				longest = Math.max(longest, list.size());
+			}
+		}
+		long[] result = new long[longest + 1];
+		for (List<Cell<K, V>> list : items) {
+			result[list == null ? 0 : list.size()]++;
+		}
+		return result;
+	}
+	
+	public void put(K key, V value) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		if (value == null) {
+			delete(key);
+			return;
+		}
+		if (metrics != null) {
+			long start = System.nanoTime();
+			putValue(key, value);
+			metrics.operation(Metrics.Op.PUT, System.nanoTime() - start, chainLength(key));
+			return;
+		}
+		putValue(key, value);
+	}
+	
+	private void putValue(K key, V value) {
+		if (replace(indexOfKey(key), key, value)) {
+			return;
+		}
+		rangeCheck();
+		append(indexOfKey(key), key, value);
+	}
+	
+	// Overwrites the value if key is in bucket index.
+	private boolean replace(int index, K key, V value) {
+		if (items[index] != null) {
+			for (Cell<K, V> cell : items[index]) {
+				if (cell.key.equals(key)) {
+					cell.value = value;
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
+	private void append(int index, K key, V value) {
+		if (items[index] == null) {
+			items[index] = new LinkedList<Cell<K,V>>();
+		}
+		items[index].add(new Cell<K, V>(key, value));
+		size++;
+	}
+	
+	private void rangeCheck() {
+		if ((float) size / capacity >= LOAD_FACTOR) {
+			if (metrics != null) {
+				int oldCapacity = capacity;
+				long start = System.nanoTime();
+				doubleMapSize();
+				metrics.resize(oldCapacity, capacity, System.nanoTime() - start);
+				return;
+			}
+			doubleMapSize();
+		}
+	}
+	
+	private void doubleMapSize() {
+		resize(capacity << 1);
+	}
+	
+	private void resize(int newCapacity) {
+		this.capacity = newCapacity;
+		@SuppressWarnings("unchecked")
+		List<Cell<K, V>>[] newList = (LinkedList<Cell<K, V>>[]) new LinkedList[capacity];
+		for (List<Cell<K, V>> list : items) {
+			if (list == null) {
+				continue;
+			}
+			for (Cell<K, V> cell : list) {
+				if (cell == null) {
+					continue;
+				}
+				int index = indexOfKey(cell.key);
+				if (newList[index] == null) {
+					newList[index] = new LinkedList<Cell<K, V>>();
+				}
+				newList[index].add(cell);
+			}
+		}
+		this.items = newList;
+	}
+	
+	
+	public V get(K key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		if (metrics != null) {
+			long start = System.nanoTime();
+			V value = getValue(key);
+			metrics.operation(Metrics.Op.GET, System.nanoTime() - start, chainLength(key));
+			return value;
+		}
+		return getValue(key);
+	}
+	
+	private V getValue(K key) {
+		int index = indexOfKey(key);
+		if (items[index] == null) {
+			return null;
+		}
+		for (Cell<K, V> cell : items[index]) {
+			if (key.equals(cell.key)) {
+				return cell.value;
+			}
+		}
+		return null;
+	}
+	
+	public void delete(K key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		if (metrics != null) {
+			int probes = chainLength(key);
+			long start = System.nanoTime();
+			deleteValue(key);
+			metrics.operation(Metrics.Op.DELETE, System.nanoTime() - start, probes);
+			return;
+		}
+		deleteValue(key);
+	}
+	
+	private void deleteValue(K key) {
+		int index = indexOfKey(key);
+		if (items[index] == null) {
+			return;
+		}
+		Iterator<Cell<K, V>> it = items[index].iterator();
+		while (it.hasNext()) {
+			if (key.equals(it.next().key)) {
+				it.remove();
+				size--;
+				return;
+			}
+		}
+	}
+	
+	/**
+	* Batch get. Each chunk of BATCH keys is hashed first, then the head
+	* cell of every bucket is loaded, and only then are the chains
+	* compared. The loads within a phase do not depend on each other, so
+	* their cache misses overlap. A loop of get() pays them one at a time.
+	* Falls back to get() per key while metrics are attached.
+	*/
+	public void getAll(K[] keys, V[] out) {
+		if (out.length < keys.length) {
+			throw new IllegalArgumentException();
+		}
+		if (metrics != null) {
+			for (int i = 0; i < keys.length; i++) {
+				out[i] = get(keys[i]);
+			}
+			return;
+		}
+		int[] index = new int[BATCH];
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		Cell<K, V>[] heads = (Cell<K, V>[]) new Cell[BATCH];
+		for (int base = 0; base < keys.length; base += BATCH) {
+			int n = Math.min(BATCH, keys.length - base);
+			for (int i = 0; i < n; i++) {
+				K key = keys[base + i];
+				if (key == null) {
+					throw new NullPointerException();
+				}
+				index[i] = indexOfKey(key);
+			}
+			for (int i = 0; i < n; i++) {
+				List<Cell<K, V>> list = items[index[i]];
+				heads[i] = list == null || list.isEmpty() ? null : list.get(0);
+			}
+			for (int i = 0; i < n; i++) {
+				K key = keys[base + i];
+				Cell<K, V> head = heads[i];
+				if (head == null) {
+					out[base + i] = null;
+				} else if (key.equals(head.key)) {
+					out[base + i] = head.value;
+				} else {
+					out[base + i] = getValue(key);
+				}
+			}
+		}
+	}
+	
+	/**
+	* Batch put, in index order. The table is grown once up front to hold
+	* every key as if all were new, so no rehash runs partway through and
+	* the batch is hashed in chunks before any bucket is touched. When most
+	* keys are already present, this can leave the table one doubling
+	* larger than a loop of put() would.
+	* Falls back to put() per key while metrics are attached.
+	*/
+	public void putAll(K[] keys, V[] values) {
+		if (keys.length != values.length) {
+			throw new IllegalArgumentException();
+		}
+		for (K key : keys) {
+			if (key == null) {
+				throw new NullPointerException();
+			}
+		}
+		if (metrics != null) {
+			for (int i = 0; i < keys.length; i++) {
+				put(keys[i], values[i]);
+			}
+			return;
+		}
+		// The smallest power of two that keeps the batch under the load
+		// factor, found before rehashing so the table is rehashed only once.
+		long needed = (long) size + keys.length;
+		int target = capacity;
+		while (target < MAX_CAPACITY && (float) needed / target >= LOAD_FACTOR) {
+			target <<= 1;
+		}
+		if (target != capacity) {
+			resize(target);
+		}
+		int[] index = new int[BATCH];
+		for (int base = 0; base < keys.length; base += BATCH) {
+			int n = Math.min(BATCH, keys.length - base);
+			for (int i = 0; i < n; i++) {
+				index[i] = indexOfKey(keys[base + i]);
+			}
+			for (int i = 0; i < n; i++) {
+				K key = keys[base + i];
+				V value = values[base + i];
+				if (value == null) {
+					deleteValue(key);
+				} else if (!replace(index[i], key, value)) {
+					append(index[i], key, value);
+				}
+			}
+		}
+	}
+	
+	public Iterable<K> keys() {
+		List<K> result = new ArrayList<K>(size);
+		for (List<Cell<K, V>> list : items) {
+			if (list == null) {
+				continue;
+			}
+			for (Cell<K, V> cell : list) {
+				result.add(cell.key);
+			}
+		}
+		return result;
+	}
+	
+	// Spread the high bits down, since the index only keeps the low bits.
+	private final int hashcodeOfKey(K key) {
+		int hash = key.hashCode();
+		return (hash ^ (hash >>> 16)) & 0x7FFFFFFF;
+	}
+	
+	private final int indexOfKey(K key) {
+		return hashcodeOfKey(key) & (capacity - 1);
+	}
+	
+	private static class Cell<K, V> {
+		private K key;
+		private V value;
+		
+		public Cell(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+	
+}
@@ -0,0 +1,145 @@
+package datastructure;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+
+/**
+ * Indexed priority queue of double keys on indices 0 ... n - 1.
+ * Same 1-based binary heap as MaxPQ, ordered smallest first, plus an
+ * inverse array qp[] so decreaseKey() and contains() can find an index
+ * in O(1). Keys are primitive doubles, so nothing is boxed.
+ */
+
+public class IndexMinPQ {
+	
+	private final int n;
+	private int size;
+	private int[] pq;
+	private int[] qp;
+	private double[] keys;
+	
+	public IndexMinPQ(int n) {
+		if (n < 0) {
+			throw new IllegalArgumentException();
+		}
+		this.n = n;
+		this.size = 0;
+		this.pq = new int[n + 1];
+		this.qp = new int[n];
+		this.keys = new double[n];
+		Arrays.fill(qp, -1);
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	public boolean contains(int i) {
+		rangeCheck(i);
+		return qp[i] != -1;
+	}
+	
+	public void insert(int i, double key) {
+		if (contains(i)) {
+			throw new IllegalArgumentException("index is already in the queue");
+		}
+		keys[i] = key;
+		pq[++size] = i;
+		qp[i] = size;
+		swim(size);
+	}
+	
+	public void decreaseKey(int i, double key) {
+		if (!contains(i)) {
+			throw new NoSuchElementException();
+		}
+		if (key > keys[i]) {
+			throw new IllegalArgumentException("key is larger than the current key");
+		}
+		keys[i] = key;
+		swim(qp[i]);
+	}
+	
+	// Insert i, or lower its key if the new key is smaller.
+	public void insertOrDecrease(int i, double key) {
+		if (!contains(i)) {
+			insert(i, key);
+		} else if (key < keys[i]) {
+			decreaseKey(i, key);
+		}
+	}
+	
+	public double keyOf(int i) {
+		if (!contains(i)) {
+			throw new NoSuchElementException();
+		}
+		return keys[i];
+	}
+	
+	public int minIndex() {
+		if (isEmpty()) {
+			throw new NoSuchElementException();
+		}
+		return pq[1];
+	}
+	
+	public double minKey() {
+		return keys[minIndex()];
+	}
+	
+	public int delMin() {
+		int min = minIndex();
+		swap(1, size--);
+		sink(1);
+		qp[min] = -1;
+		pq[size + 1] = -1;
+		return min;
+	}
+	
+	private void swim(int curr) {
+		int parent = curr >> 1;
+		while (curr > 1 && less(curr, parent)) {
+			swap(curr, parent);
+			curr = parent;
+			parent >>= 1;
+		}
+	}
+	
+	private void sink(int curr) {
+		while ((curr << 1) <= size) {
+			int child = (curr << 1);
+			if (child < size && less(child + 1, child)) {
+				child++;
+			}
+			if (!less(child, curr)) {
+				break;
+			}
+			swap(child, curr);
+			curr = child;
+		}
+	}
+	
+	private boolean less(int i, int j) {
+		return keys[pq[i]] < keys[pq[j]];
+	}
+	
+	private void swap(int i, int j) {
+		int temp = pq[i];
+		pq[i] = pq[j];
+		pq[j] = temp;
+		qp[pq[i]] = i;
+		qp[pq[j]] = j;
+	}
+	
+	private void rangeCheck(int i) {
+		if (i < 0 || i >= n) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+	
+}
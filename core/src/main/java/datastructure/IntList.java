@@ -0,0 +1,73 @@
+package datastructure;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+
+/**
+ * Growable int array shared by the graph algorithms, plus a helper that
+ * runs a step over 0 ... n - 1 in parallel chunks and concatenates what
+ * each chunk produced.
+ */
+
+class IntList {
+	
+	int[] a;
+	int size;
+	
+	IntList() {
+		this(16);
+	}
+	
+	IntList(int capacity) {
+		a = new int[Math.max(capacity, 1)];
+		size = 0;
+	}
+	
+	void add(int x) {
+		if (size == a.length) {
+			a = Arrays.copyOf(a, size << 1);
+		}
+		a[size++] = x;
+	}
+	
+	int pop() {
+		return a[--size];
+	}
+	
+	void clear() {
+		size = 0;
+	}
+	
+	int[] toArray() {
+		return Arrays.copyOf(a, size);
+	}
+	
+	interface Step {
+		void run(int i, IntList out);
+	}
+	
+	static int[] collect(final int n, final int grain, final Step step) {
+		int chunks = (n + grain - 1) / grain;
+		IntList[] parts = IntStream.range(0, chunks).parallel().mapToObj(c -> {
+			IntList out = new IntList();
+			for (int i = c * grain, end = Math.min(n, i + grain); i < end; i++) {
+				step.run(i, out);
+			}
+			return out;
+		}).toArray(IntList[]::new);
+		
+		int total = 0;
+		for (IntList part : parts) {
+			total += part.size;
+		}
+		int[] result = new int[total];
+		int i = 0;
+		for (IntList part : parts) {
+			System.arraycopy(part.a, 0, result, i, part.size);
+			i += part.size;
+		}
+		return result;
+	}
+	
+}
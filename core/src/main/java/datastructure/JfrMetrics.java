@@ -0,0 +1,92 @@
+package datastructure;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+
+/**
+ * Metrics that emit Java Flight Recorder events, tagged with a structure name.
+ * Resize events are on by default. Per-operation events are off by default
+ * because of their volume; enable datastructure.Operation in the recording
+ * settings to get them. A disabled event costs one check per call.
+ */
+
+public class JfrMetrics implements Metrics {
+	
+	private final String structure;
+	
+	public JfrMetrics(String structure) {
+		if (structure == null) {
+			throw new NullPointerException();
+		}
+		this.structure = structure;
+	}
+	
+	public void operation(Op op, long nanos, int probes) {
+		OperationEvent event = new OperationEvent();
+		if (event.shouldCommit()) {
+			event.structure = structure;
+			event.operation = op.name();
+			event.latency = nanos;
+			event.probes = probes;
+			event.commit();
+		}
+	}
+	
+	public void resize(int oldCapacity, int newCapacity, long nanos) {
+		ResizeEvent event = new ResizeEvent();
+		if (event.shouldCommit()) {
+			event.structure = structure;
+			event.oldCapacity = oldCapacity;
+			event.newCapacity = newCapacity;
+			event.pause = nanos;
+			event.commit();
+		}
+	}
+	
+	@Name("datastructure.Operation")
+	@Label("Data Structure Operation")
+	@Category("Data Structure")
+	@Enabled(false)
+	@StackTrace(false)
+	static class OperationEvent extends Event {
+		@Label("Structure")
+		String structure;
+		
+		@Label("Operation")
+		String operation;
+		
+		@Label("Latency")
+		@Timespan(Timespan.NANOSECONDS)
+		long latency;
+		
+		@Label("Probes")
+		@Description("Nodes, chain cells or heap levels the operation walked")
+		int probes;
+	}
+	
+	@Name("datastructure.Resize")
+	@Label("Data Structure Resize")
+	@Category("Data Structure")
+	static class ResizeEvent extends Event {
+		@Label("Structure")
+		String structure;
+		
+		@Label("Old Capacity")
+		int oldCapacity;
+		
+		@Label("New Capacity")
+		int newCapacity;
+		
+		@Label("Pause")
+		@Timespan(Timespan.NANOSECONDS)
+		long pause;
+	}
+	
+}
@@ -1,4 +1,7 @@
+package datastructure;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -11,10 +14,11 @@ import java.util.Set;
  * This class is NOT THREAD-SAFE
  */
 
-public class Map_Trie<Value> {
+public class Map_Trie<Value> implements PrefixSymbolTable<Value> {
 	
 	private TrieNode root;
 	private int size;
+	private Metrics metrics;
 	
 	public Map_Trie() {
 		size = 0;
@@ -31,7 +35,14 @@ public class Map_Trie<Value> {
 			throw new NullPointerException();
 		}
 		
-		TrieNode node = get(root, key, 0);
+		TrieNode node;
+		if (metrics != null) {
+			long start = System.nanoTime();
+			node = get(root, key, 0);
+			metrics.operation(Metrics.Op.GET, System.nanoTime() - start, depth(key));
+		} else {
+			node = get(root, key, 0);
+		}
 		if (node == null) {
 			return null;
 		}
@@ -63,6 +74,16 @@ public class Map_Trie<Value> {
 		if (key == null) {
 			throw new NullPointerException();
 		}
+		if (v == null) {
+			delete(key);
+			return;
+		}
+		if (metrics != null) {
+			long start = System.nanoTime();
+			root = put(root, key, v, 0);
+			metrics.operation(Metrics.Op.PUT, System.nanoTime() - start, depth(key));
+			return;
+		}
 		root = put(root, key, v, 0);
 	}
 	
@@ -85,6 +106,67 @@ public class Map_Trie<Value> {
 	}
 	
 	
+	/**
+	* Batch get. The batch is sorted, so keys that share a prefix are
+	* adjacent, and each lookup resumes from the node where its common prefix
+	* with the previous key ends instead of from the root. The nodes of a
+	* shared prefix are walked once per batch rather than once per key.
+	* Falls back to get() per key while metrics are attached.
+	* @throws NullPointerException if any key is null
+	*/
+	@SuppressWarnings("unchecked")
+	public void getAll(String[] keys, Value[] out) {
+		if (out.length < keys.length) {
+			throw new IllegalArgumentException();
+		}
+		if (metrics != null) {
+			for (int i = 0; i < keys.length; i++) {
+				out[i] = get(keys[i]);
+			}
+			return;
+		}
+		int longest = 0;
+		Integer[] order = new Integer[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] == null) {
+				throw new NullPointerException();
+			}
+			longest = Math.max(longest, keys[i].length());
+			order[i] = i;
+		}
+		Arrays.sort(order, (i, j) -> keys[i].compareTo(keys[j]));
+		
+		// path[d] is the node for the first d chars of the previous key, for d <= reached.
+		TrieNode[] path = new TrieNode[longest + 1];
+		path[0] = root;
+		int reached = 0;
+		String previous = "";
+		for (int p : order) {
+			String key = keys[p];
+			int d = Math.min(reached, commonPrefix(previous, key));
+			TrieNode node = path[d];
+			while (node != null && d < key.length()) {
+				node = node.getChildNodeForChar(key.charAt(d));
+				if (node != null) {
+					path[++d] = node;
+				}
+			}
+			reached = d;
+			previous = key;
+			out[p] = node == null ? null : (Value) node.value;
+		}
+	}
+	
+	private static int commonPrefix(String a, String b) {
+		int n = Math.min(a.length(), b.length());
+		int i = 0;
+		while (i < n && a.charAt(i) == b.charAt(i)) {
+			i++;
+		}
+		return i;
+	}
+	
+	
 	/**
      	* Does this symbol table contain the given key?
      	* @throws NullPointerException if key is null
@@ -135,6 +217,9 @@ public class Map_Trie<Value> {
      	* @return all of the keys in the set that start with prefix, as an iterable
      	*/
 	public Iterable<String> keysWithPrefix(String prefix) {
+		if (prefix == null) {
+			throw new NullPointerException();
+		}
 		List<String> result = new ArrayList<String>();
 		TrieNode node = get(root, prefix, 0);
 		helper(node, new StringBuilder(prefix), result);
@@ -171,7 +256,11 @@ public class Map_Trie<Value> {
 			throw new NullPointerException();
 		}
 		
-		return s.substring(0, helper(root, s, 0, 0));
+		int length = helper(root, s, 0, -1);
+		if (length == -1) {
+			return null;
+		}
+		return s.substring(0, length);
 	}
 	
 	private int helper(TrieNode node, String s, int index, int length) {
@@ -201,6 +290,13 @@ public class Map_Trie<Value> {
 		if (key == null) {
 			throw new NullPointerException();
 		}
+		if (metrics != null) {
+			int depth = depth(key);
+			long start = System.nanoTime();
+			root = delete(root, key, 0);
+			metrics.operation(Metrics.Op.DELETE, System.nanoTime() - start, depth);
+			return;
+		}
 		root = delete(root, key, 0);
 	}
 	
@@ -235,6 +331,69 @@ public class Map_Trie<Value> {
 	
 	
 	
+	/**
+	* Attaches metrics to get, put and delete, or detaches them if null.
+	* Probes are the number of nodes on the path from the root.
+	*/
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	private int depth(String key) {
+		int depth = 0;
+		for (TrieNode node = root; node != null; depth++) {
+			if (depth == key.length()) {
+				return depth + 1;
+			}
+			node = node.getChildNodeForChar(key.charAt(depth));
+		}
+		return depth;
+	}
+	
+	
+	
+	/**
+	* Returns the fan-out distribution: entry i is the number of nodes with
+	* exactly i children, so the entries sum to the node count.
+	* Takes time proportional to the number of nodes.
+	*/
+	public long[] fanOut() {
+		List<Long> counts = new ArrayList<Long>();
+		fanOut(root, counts);
+		long[] result = new long[counts.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = counts.get(i);
+		}
+		return result;
+	}
+	
+	private void fanOut(TrieNode node, List<Long> counts) {
+		if (node == null) {
+			return;
+		}
+		int children = 0;
+		for (TrieNode child : node.child.values()) {
+			if (child != null) {
+				children++;
+				fanOut(child, counts);
+			}
+		}
+		while (counts.size() <= children) {
+			counts.add(0L);
+		}
+		counts.set(children, counts.get(children) + 1);
+	}
+	
+	public long nodeCount() {
+		long count = 0;
+		for (long n : fanOut()) {
+			count += n;
+		}
+		return count;
+	}
+	
+	
+	
 	private static class TrieNode {
 		private Object value;
 		private Map<Character, TrieNode> child;
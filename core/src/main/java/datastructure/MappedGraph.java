@@ -0,0 +1,160 @@
+package datastructure;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+
+/**
+ * Read-only Graph served straight from a memory-mapped GraphFile.
+ * Offsets, targets and weights stay in the mapped file; nothing is copied
+ * to the heap, and pages are loaded by the OS on first touch.
+ * Safe for concurrent readers.
+ */
+
+public class MappedGraph implements Graph, Closeable {
+	
+	private final FileChannel channel;
+	private final int V;
+	private final long E;
+	private final ByteBuffer[] offsets;
+	private final ByteBuffer[] targets;
+	private final ByteBuffer[] weights;
+	
+	MappedGraph(Path file) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			ByteBuffer header = channel.map(MapMode.READ_ONLY, 0, GraphFile.HEADER_BYTES)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			if (header.getInt(0) != GraphFile.MAGIC) {
+				throw new IOException("not a graph file: " + file);
+			}
+			if (header.getInt(4) != GraphFile.VERSION) {
+				throw new IOException("unsupported graph file version " + header.getInt(4));
+			}
+			boolean weighted = (header.getInt(8) & GraphFile.FLAG_WEIGHTED) != 0;
+			V = header.getInt(12);
+			E = header.getLong(16);
+			long n = header.getLong(24);
+			if (channel.size() < GraphFile.fileBytes(V, n, weighted)) {
+				throw new IOException("truncated graph file: " + file);
+			}
+			
+			offsets = GraphFile.map(channel, MapMode.READ_ONLY, GraphFile.HEADER_BYTES, V + 1L, 8);
+			targets = GraphFile.map(channel, MapMode.READ_ONLY, GraphFile.targetsStart(V), n, 4);
+			weights = weighted
+					? GraphFile.map(channel, MapMode.READ_ONLY, GraphFile.weightsStart(V, n), n, 8) : null;
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+	
+	public int V() {
+		return V;
+	}
+	
+	// Graph reports E as an int; use edges() for files beyond 2^31 edges.
+	public int E() {
+		return (int) Math.min(E, Integer.MAX_VALUE);
+	}
+	
+	public long edges() {
+		return E;
+	}
+	
+	public boolean hasWeights() {
+		return weights != null;
+	}
+	
+	public int degree(int v) {
+		rangeCheck(v);
+		return (int) (offset(v + 1) - offset(v));
+	}
+	
+	public boolean forEachAdj(int v, IntPredicate visitor) {
+		rangeCheck(v);
+		for (long i = offset(v), end = offset(v + 1); i < end; i++) {
+			if (!visitor.test(target(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	public boolean forEachEdge(int v, EdgeWeightedGraph.EdgeVisitor visitor) {
+		if (weights == null) {
+			throw new UnsupportedOperationException("graph file has no weights");
+		}
+		rangeCheck(v);
+		for (long i = offset(v), end = offset(v + 1); i < end; i++) {
+			double weight = weights[(int) (i >>> GraphFile.SHIFT)].getDouble((int) (i & GraphFile.MASK) << 3);
+			if (!visitor.visit(target(i), weight)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	public Iterable<Integer> adj(int v) {
+		rangeCheck(v);
+		return new adjIterator(v);
+	}
+	
+	// The mappings stay valid until garbage collected; this only releases the file.
+	public void close() throws IOException {
+		channel.close();
+	}
+	
+	private long offset(int v) {
+		return offsets[v >>> GraphFile.SHIFT].getLong((int) (v & GraphFile.MASK) << 3);
+	}
+	
+	private int target(long i) {
+		return targets[(int) (i >>> GraphFile.SHIFT)].getInt((int) (i & GraphFile.MASK) << 2);
+	}
+	
+	private void rangeCheck(int v) {
+		if (v < 0 || v >= V) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+	
+	private class adjIterator implements Iterator<Integer>, Iterable<Integer> {
+		
+		long i, end;
+		
+		public adjIterator(int v) {
+			this.i = offset(v);
+			this.end = offset(v + 1);
+		}
+		
+		public Iterator<Integer> iterator() {
+			return this;
+		}
+		
+		public boolean hasNext() {
+			return i < end;
+		}
+		
+		public Integer next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return target(i++);
+		}
+		
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+	
+}
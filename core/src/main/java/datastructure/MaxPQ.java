@@ -1,3 +1,5 @@
+package datastructure;
+
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -9,6 +11,7 @@ public class MaxPQ<Key> implements Iterable<Key> {
 	private int capacity;
 	
 	private Comparator<Key> comparator;
+	private Metrics metrics;
 	
 	public MaxPQ() {
 		this(5, null);
@@ -30,33 +33,65 @@ public class MaxPQ<Key> implements Iterable<Key> {
 		return size == 0;
 	}
 	
+	/**
+	* Attaches metrics to add and delMax, or detaches them if null.
+	* Probes are the levels the key moved, and every array growth is
+	* reported with its pause.
+	*/
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+	
 	public void add(Key key) {
+		if (metrics != null) {
+			long start = System.nanoTime();
+			checkCapacity();
+			pq[++size] = key;
+			int levels = swim();
+			metrics.operation(Metrics.Op.ADD, System.nanoTime() - start, levels);
+			return;
+		}
 		checkCapacity();
 		pq[++size] = key;
 		swim();
 	}
 	
 	
-	@SuppressWarnings("unchecked")
 	private void checkCapacity() {
 		if (size == capacity) {
-			this.capacity <<= 1;
-			Key[] temp = (Key[]) new Object[capacity + 1];
-			for (int i = 1; i <= size; i++) {
-				temp[i] = pq[i];
+			if (metrics != null) {
+				int oldCapacity = capacity;
+				long start = System.nanoTime();
+				grow();
+				metrics.resize(oldCapacity, capacity, System.nanoTime() - start);
+				return;
 			}
-			pq = temp;
+			grow();
 		}
 	}
 	
-	private void swim() {
+	@SuppressWarnings("unchecked")
+	private void grow() {
+		this.capacity <<= 1;
+		Key[] temp = (Key[]) new Object[capacity + 1];
+		for (int i = 1; i <= size; i++) {
+			temp[i] = pq[i];
+		}
+		pq = temp;
+	}
+	
+	// Returns the number of levels the new key moved up.
+	private int swim() {
 		int curr = size;
 		int parent = curr >> 1;
+		int levels = 0;
 		while (curr > 1 && less(curr, parent)) {
 			swap(curr, parent);
 			curr = parent;
 			parent >>= 1;
+			levels++;
 		}
+		return levels;
 	}
 	
 	public Key max() {
@@ -71,6 +106,15 @@ public class MaxPQ<Key> implements Iterable<Key> {
 			throw new NoSuchElementException();
 		}
 		
+		if (metrics != null) {
+			long start = System.nanoTime();
+			Key result = pq[1];
+			swap(size--, 1);
+			pq[size + 1] = null;
+			int levels = sink();
+			metrics.operation(Metrics.Op.DEL_MAX, System.nanoTime() - start, levels);
+			return result;
+		}
 		Key result = pq[1];
 		swap(size--, 1);
 		pq[size + 1] = null;
@@ -84,8 +128,10 @@ public class MaxPQ<Key> implements Iterable<Key> {
 		pq[j] = temp;
 	}
 	
-	private void sink() {
+	// Returns the number of levels the root key moved down.
+	private int sink() {
 		int curr = 1;
+		int levels = 0;
 		while ((curr << 1) <= size) {
 			int child = (curr << 1);
 			if (child < size && less(child + 1, child)) {
@@ -96,7 +142,9 @@ public class MaxPQ<Key> implements Iterable<Key> {
 			}
 			swap(child, curr);
 			curr = child;
+			levels++;
 		}
+		return levels;
 	}
 	
 	
@@ -0,0 +1,87 @@
+package datastructure;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+
+/**
+ * Approximate set membership: mightContain() never returns false for a key
+ * that was added, and returns true for an absent key with a small, tunable
+ * probability. Used by FilteredSymbolTable to answer most lookups of
+ * absent keys without touching the table.
+ *
+ * Keys are hashed to 64 bits by hash(), not by hashCode(): Strings are hashed
+ * over all their chars, so keys that share a String.hashCode() still get
+ * different filter positions. A filter written with writeTo() can be read
+ * back with read().
+ */
+
+public interface MembershipFilter<Key> {
+	
+	int BLOOM = 1;
+	int CUCKOO = 2;
+	
+	/**
+	* Adds key. Returns false if the filter is full and key was not added.
+	*/
+	boolean add(Key key);
+	
+	boolean mightContain(Key key);
+	
+	/**
+	* Removes one earlier add() of key.
+	* @throws UnsupportedOperationException unless supportsRemove()
+	*/
+	boolean remove(Key key);
+	
+	boolean supportsRemove();
+	
+	// Number of keys the filter was sized for.
+	int capacity();
+	
+	void writeTo(DataOutput out) throws IOException;
+	
+	/**
+	* Creates empty filters sized for a number of keys; FilteredSymbolTable
+	* uses it to rebuild its filter as the table grows.
+	*/
+	interface Factory<Key> {
+		MembershipFilter<Key> create(int capacity);
+	}
+	
+	/**
+	* Reads a filter written by writeTo().
+	* @throws IOException if the data is not a filter
+	*/
+	static <Key> MembershipFilter<Key> read(DataInput in) throws IOException {
+		int type = in.readInt();
+		if (type == BLOOM) {
+			return BloomFilter.read(in);
+		}
+		if (type == CUCKOO) {
+			return CuckooFilter.read(in);
+		}
+		throw new IOException("unknown filter type " + type);
+	}
+	
+	static long hash(Object key) {
+		if (key instanceof CharSequence) {
+			CharSequence s = (CharSequence) key;
+			long h = 0xcbf29ce484222325L;
+			for (int i = 0; i < s.length(); i++) {
+				h = (h ^ s.charAt(i)) * 0x100000001b3L;
+			}
+			return mix(h);
+		}
+		return mix(key.hashCode());
+	}
+	
+	// SplitMix64 finalizer: every input bit affects every output bit.
+	static long mix(long h) {
+		h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+		h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+		return h ^ (h >>> 31);
+	}
+	
+}
@@ -0,0 +1,42 @@
+package datastructure;
+
+
+/**
+ * Optional hot-path instrumentation for BST, HashMap, Map_Trie and MaxPQ.
+ *
+ * A structure starts with no Metrics attached, and then every instrumented
+ * method costs a single null check. Once attached with setMetrics(), the
+ * structure reports each operation with its latency and probe count, and
+ * each time its storage grows.
+ *
+ * Probes are the units of work the operation walked through:
+ *   BST      - nodes on the search path (the depth of the key)
+ *   HashMap  - cells in the key's chain
+ *   Map_Trie - nodes on the path from the root
+ *   MaxPQ    - levels the key moved while swimming or sinking
+ *
+ * Callbacks arrive on the thread doing the operation. Use MetricsRecorder
+ * for in-process histograms, JfrMetrics for Flight Recorder events, or
+ * implement this interface to feed another registry.
+ */
+
+public interface Metrics {
+	
+	enum Op {
+		GET, PUT, DELETE, ADD, DEL_MAX
+	}
+	
+	/**
+	* Called after an operation completes.
+	* @param nanos wall-clock latency of the operation
+	* @param probes units of work walked, as described above
+	*/
+	void operation(Op op, long nanos, int probes);
+	
+	/**
+	* Called after a hash table rehash or a heap array growth.
+	* @param nanos the pause the resize caused
+	*/
+	void resize(int oldCapacity, int newCapacity, long nanos);
+	
+}
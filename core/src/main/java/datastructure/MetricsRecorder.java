@@ -0,0 +1,164 @@
+package datastructure;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Metrics that aggregate into in-memory histograms, one latency and one
+ * probe histogram per operation, plus one for resize pauses.
+ * One recorder may be shared by several structures and threads.
+ */
+
+public class MetricsRecorder implements Metrics {
+	
+	private final Histogram[] latency;
+	private final Histogram[] probes;
+	private final Histogram resizes;
+	private final AtomicLong capacity;
+	
+	public MetricsRecorder() {
+		int n = Op.values().length;
+		latency = new Histogram[n];
+		probes = new Histogram[n];
+		for (int i = 0; i < n; i++) {
+			latency[i] = new Histogram();
+			probes[i] = new Histogram();
+		}
+		resizes = new Histogram();
+		capacity = new AtomicLong();
+	}
+	
+	public void operation(Op op, long nanos, int probes) {
+		this.latency[op.ordinal()].record(nanos);
+		this.probes[op.ordinal()].record(probes);
+	}
+	
+	public void resize(int oldCapacity, int newCapacity, long nanos) {
+		resizes.record(nanos);
+		capacity.set(newCapacity);
+	}
+	
+	public Histogram latency(Op op) {
+		return latency[op.ordinal()];
+	}
+	
+	public Histogram probes(Op op) {
+		return probes[op.ordinal()];
+	}
+	
+	public Histogram resizes() {
+		return resizes;
+	}
+	
+	// Capacity after the most recent resize, or 0 if none happened.
+	public long lastCapacity() {
+		return capacity.get();
+	}
+	
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (Op op : Op.values()) {
+			Histogram h = latency(op);
+			if (h.count() == 0) {
+				continue;
+			}
+			sb.append(String.format("%-8s n=%d latency(ns) p50=%d p99=%d max=%d  probes mean=%.1f max=%d%n",
+					op, h.count(), h.percentile(50), h.percentile(99), h.max(), probes(op).mean(), probes(op).max()));
+		}
+		if (resizes.count() > 0) {
+			sb.append(String.format("RESIZE   n=%d pause(ns) max=%d total=%d capacity=%d%n",
+					resizes.count(), resizes.max(), resizes.sum(), lastCapacity()));
+		}
+		return sb.toString();
+	}
+	
+	
+	/***********************************************************************
+	 *  Log-linear histogram of non-negative longs: every power of two is
+	 *  split into 8 buckets, so a reported percentile is within 12.5% of
+	 *  the true value. Recording is lock-free.
+	***********************************************************************/
+	public static class Histogram {
+		
+		private static final int SUB_BITS = 3;
+		private static final int SUB = 1 << SUB_BITS;
+		
+		private final AtomicLongArray counts = new AtomicLongArray((64 - SUB_BITS + 1) * SUB);
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong sum = new AtomicLong();
+		private final AtomicLong max = new AtomicLong();
+		
+		public void record(long value) {
+			if (value < 0) {
+				value = 0;
+			}
+			counts.incrementAndGet(bucket(value));
+			count.incrementAndGet();
+			sum.addAndGet(value);
+			long m;
+			while (value > (m = max.get()) && !max.compareAndSet(m, value)) {
+			}
+		}
+		
+		public long count() {
+			return count.get();
+		}
+		
+		public long sum() {
+			return sum.get();
+		}
+		
+		public long max() {
+			return max.get();
+		}
+		
+		public double mean() {
+			long n = count();
+			return n == 0 ? 0 : (double) sum() / n;
+		}
+		
+		/**
+		* Returns the upper bound of the bucket holding the p-th percentile.
+		* @throws IllegalArgumentException unless 0 <= p <= 100
+		*/
+		public long percentile(double p) {
+			if (p < 0 || p > 100) {
+				throw new IllegalArgumentException();
+			}
+			long n = count();
+			if (n == 0) {
+				return 0;
+			}
+			long rank = Math.max(1, (long) Math.ceil(p / 100 * n));
+			long seen = 0;
+			for (int i = 0; i < counts.length(); i++) {
+				seen += counts.get(i);
+				if (seen >= rank) {
+					return Math.min(upperBound(i), max());
+				}
+			}
+			return max();
+		}
+		
+		private static int bucket(long value) {
+			if (value < SUB) {
+				return (int) value;
+			}
+			int exp = 63 - Long.numberOfLeadingZeros(value);
+			int sub = (int) (value >>> (exp - SUB_BITS)) & (SUB - 1);
+			return (exp - SUB_BITS + 1) * SUB + sub;
+		}
+		
+		private static long upperBound(int bucket) {
+			if (bucket < SUB) {
+				return bucket;
+			}
+			int exp = bucket / SUB + SUB_BITS - 1;
+			long width = 1L << (exp - SUB_BITS);
+			long low = (SUB + bucket % SUB) * width;
+			return low + width - 1;
+		}
+	}
+	
+}
@@ -0,0 +1,170 @@
+package datastructure;
+
+import java.util.Arrays;
+
+
+/**
+ * Minimum spanning forest of an EdgeWeightedGraph.
+ *   prim()    - eager Prim on an IndexMinPQ keyed by vertex, O(E log V)
+ *   kruskal() - edges in weight order from an IndexMinPQ keyed by edge,
+ *               joined with a union-find, O(E log E)
+ * If the graph is disconnected the result spans every component.
+ */
+
+public class MinimumSpanningTree {
+	
+	private final int[] either;
+	private final int[] other;
+	private final double[] weight;
+	private final int size;
+	
+	private MinimumSpanningTree(int[] either, int[] other, double[] weight, int size) {
+		this.either = either;
+		this.other = other;
+		this.weight = weight;
+		this.size = size;
+	}
+	
+	// Number of edges in the forest.
+	public int size() {
+		return size;
+	}
+	
+	public int either(int i) {
+		rangeCheck(i);
+		return either[i];
+	}
+	
+	public int other(int i) {
+		rangeCheck(i);
+		return other[i];
+	}
+	
+	public double weight(int i) {
+		rangeCheck(i);
+		return weight[i];
+	}
+	
+	public double weight() {
+		double total = 0.0;
+		for (int i = 0; i < size; i++) {
+			total += weight[i];
+		}
+		return total;
+	}
+	
+	private void rangeCheck(int i) {
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  Eager Prim: the queue holds, for every vertex next to the tree, the
+	 *  lightest edge that reaches it.
+	***********************************************************************/
+	public static MinimumSpanningTree prim(EdgeWeightedGraph G) {
+		final int V = G.V();
+		final double[] distTo = new double[V];
+		final int[] edgeTo = new int[V];
+		final boolean[] marked = new boolean[V];
+		final IndexMinPQ pq = new IndexMinPQ(V);
+		Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+		
+		int[] either = new int[Math.max(V - 1, 0)];
+		int[] other = new int[either.length];
+		double[] weight = new double[either.length];
+		int size = 0;
+		
+		for (int s = 0; s < V; s++) {
+			if (marked[s]) {
+				continue;
+			}
+			edgeTo[s] = -1;
+			distTo[s] = 0.0;
+			pq.insert(s, 0.0);
+			while (!pq.isEmpty()) {
+				final int v = pq.delMin();
+				marked[v] = true;
+				if (edgeTo[v] != -1) {
+					either[size] = edgeTo[v];
+					other[size] = v;
+					weight[size] = distTo[v];
+					size++;
+				}
+				G.forEachEdge(v, (w, wt) -> {
+					if (!marked[w] && wt < distTo[w]) {
+						distTo[w] = wt;
+						edgeTo[w] = v;
+						pq.insertOrDecrease(w, wt);
+					}
+					return true;
+				});
+			}
+		}
+		return new MinimumSpanningTree(either, other, weight, size);
+	}
+	
+	
+	/***********************************************************************
+	 *  Kruskal: take edges lightest first, keep those joining two trees.
+	***********************************************************************/
+	public static MinimumSpanningTree kruskal(EdgeWeightedGraph G) {
+		final int V = G.V();
+		final int[] from = new int[G.E()];
+		final int[] to = new int[G.E()];
+		final double[] wts = new double[G.E()];
+		final IndexMinPQ pq = new IndexMinPQ(G.E());
+		final int[] count = new int[1];
+		
+		// each edge is stored at both endpoints, keep the copy at the smaller one
+		for (int v = 0; v < V; v++) {
+			final int u = v;
+			G.forEachEdge(v, (w, wt) -> {
+				if (u < w) {
+					int e = count[0]++;
+					from[e] = u;
+					to[e] = w;
+					wts[e] = wt;
+					pq.insert(e, wt);
+				}
+				return true;
+			});
+		}
+		
+		int[] parent = new int[V];
+		for (int v = 0; v < V; v++) {
+			parent[v] = v;
+		}
+		
+		int[] either = new int[Math.max(V - 1, 0)];
+		int[] other = new int[either.length];
+		double[] weight = new double[either.length];
+		int size = 0;
+		
+		while (!pq.isEmpty() && size < V - 1) {
+			int e = pq.delMin();
+			int a = find(parent, from[e]);
+			int b = find(parent, to[e]);
+			if (a == b) {
+				continue;
+			}
+			parent[a] = b;
+			either[size] = from[e];
+			other[size] = to[e];
+			weight[size] = wts[e];
+			size++;
+		}
+		return new MinimumSpanningTree(either, other, weight, size);
+	}
+	
+	private static int find(int[] parent, int v) {
+		while (parent[v] != v) {
+			parent[v] = parent[parent[v]];
+			v = parent[v];
+		}
+		return v;
+	}
+	
+}
@@ -0,0 +1,35 @@
+package datastructure;
+
+import java.util.function.BinaryOperator;
+
+
+/**
+ * An associative combine with an identity, e.g. sum with 0 or max with
+ * negative infinity. BST uses one to keep a per-subtree aggregate of its
+ * values, so aggregate(lo, hi) can answer without visiting the range.
+ * combine() is applied in key order, so it need not be commutative.
+ */
+
+public interface Monoid<T> {
+	
+	T identity();
+	
+	// Must be associative, and identity() must be neutral on both sides.
+	T combine(T a, T b);
+	
+	static <T> Monoid<T> of(final T identity, final BinaryOperator<T> combine) {
+		if (identity == null || combine == null) {
+			throw new NullPointerException();
+		}
+		return new Monoid<T>() {
+			public T identity() {
+				return identity;
+			}
+			
+			public T combine(T a, T b) {
+				return combine.apply(a, b);
+			}
+		};
+	}
+	
+}
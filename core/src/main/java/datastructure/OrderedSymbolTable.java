@@ -0,0 +1,62 @@
+package datastructure;
+
+/**
+ * Symbol table over comparable keys that also answers order queries.
+ * Queries on an empty table, or with no qualifying key, return null.
+ */
+
+public interface OrderedSymbolTable<Key extends Comparable<Key>, Value> extends SymbolTable<Key, Value> {
+	
+	Key min();
+	
+	Key max();
+	
+	/**
+	* Returns the largest key less than or equal to key, or null if there is none.
+	*/
+	Key floor(Key key);
+	
+	/**
+	* Returns the smallest key greater than or equal to key, or null if there is none.
+	*/
+	Key ceiling(Key key);
+	
+	/**
+	* Returns the number of keys strictly less than key.
+	*/
+	int rank(Key key);
+	
+	/**
+	* Returns the key of rank k (0-based), or null if k is out of range.
+	*/
+	Key select(int k);
+	
+	/**
+	* @throws java.util.NoSuchElementException if the table is empty
+	*/
+	void deleteMin();
+	
+	/**
+	* @throws java.util.NoSuchElementException if the table is empty
+	*/
+	void deleteMax();
+	
+	/**
+	* Returns the keys in [low, high] in ascending order.
+	*/
+	Iterable<Key> keys(Key low, Key high);
+	
+	/**
+	* Returns the number of keys in [low, high].
+	*/
+	default int size(Key low, Key high) {
+		if (low.compareTo(high) > 0) {
+			return 0;
+		}
+		if (contains(high)) {
+			return rank(high) - rank(low) + 1;
+		}
+		return rank(high) - rank(low);
+	}
+	
+}
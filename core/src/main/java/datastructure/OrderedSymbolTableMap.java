@@ -0,0 +1,466 @@
+package datastructure;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+
+/**
+ * java.util.NavigableMap view of any OrderedSymbolTable engine, e.g.
+ *     NavigableMap<Integer, String> map = new OrderedSymbolTableMap<Integer, String>(new BST<Integer, String>());
+ * Navigation is answered by the table's floor, ceiling, rank and select.
+ * Sub-maps, head and tail maps and descending maps are live views on the
+ * same table, bounded the way TreeMap bounds its views.
+ */
+
+public class OrderedSymbolTableMap<K extends Comparable<K>, V> extends SymbolTableMap<K, V>
+		implements NavigableMap<K, V> {
+		
+	private final OrderedSymbolTable<K, V> st;
+	
+	// Bounds in ascending key order; fromStart / toEnd mean unbounded.
+	private final boolean fromStart, toEnd;
+	private final K lo, hi;
+	private final boolean loInclusive, hiInclusive;
+	private final boolean descending;
+	
+	public OrderedSymbolTableMap(OrderedSymbolTable<K, V> table) {
+		this(table, true, null, true, true, null, true, false);
+	}
+	
+	private OrderedSymbolTableMap(OrderedSymbolTable<K, V> table, boolean fromStart, K lo, boolean loInclusive,
+			boolean toEnd, K hi, boolean hiInclusive, boolean descending) {
+		super(table);
+		this.st = table;
+		this.fromStart = fromStart;
+		this.lo = lo;
+		this.loInclusive = loInclusive;
+		this.toEnd = toEnd;
+		this.hi = hi;
+		this.hiInclusive = hiInclusive;
+		this.descending = descending;
+	}
+	
+	
+	/***********************************************************************
+	 *  Map operations restricted to the view's range.
+	***********************************************************************/
+	public int size() {
+		if (fromStart && toEnd) {
+			return st.size();
+		}
+		K low = absLowest();
+		K high = absHighest();
+		if (low == null || high == null) {
+			return 0;
+		}
+		return st.size(low, high);
+	}
+	
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		if (key == null) {
+			return null;
+		}
+		try {
+			K k = (K) key;
+			return inRange(k) ? st.get(k) : null;
+		} catch (ClassCastException e) {
+			return null;
+		}
+	}
+	
+	public V put(K key, V value) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		if (!inRange(key)) {
+			throw new IllegalArgumentException("key out of range");
+		}
+		return super.put(key, value);
+	}
+	
+	List<K> keyList() {
+		List<K> keys = new ArrayList<K>();
+		K low = absLowest();
+		K high = absHighest();
+		if (low != null && high != null && low.compareTo(high) <= 0) {
+			for (K key : st.keys(low, high)) {
+				keys.add(key);
+			}
+		}
+		if (descending) {
+			Collections.reverse(keys);
+		}
+		return keys;
+	}
+	
+	public Comparator<? super K> comparator() {
+		return descending ? Collections.reverseOrder() : null;
+	}
+	
+	
+	/***********************************************************************
+	 *  Navigation.
+	***********************************************************************/
+	public K firstKey() {
+		return key(descending ? absHighest() : absLowest());
+	}
+	
+	public K lastKey() {
+		return key(descending ? absLowest() : absHighest());
+	}
+	
+	public K lowerKey(K key) {
+		return descending ? absHigher(key) : absLower(key);
+	}
+	
+	public K floorKey(K key) {
+		return descending ? absCeiling(key) : absFloor(key);
+	}
+	
+	public K ceilingKey(K key) {
+		return descending ? absFloor(key) : absCeiling(key);
+	}
+	
+	public K higherKey(K key) {
+		return descending ? absLower(key) : absHigher(key);
+	}
+	
+	public Map.Entry<K, V> firstEntry() {
+		return entry(descending ? absHighest() : absLowest());
+	}
+	
+	public Map.Entry<K, V> lastEntry() {
+		return entry(descending ? absLowest() : absHighest());
+	}
+	
+	public Map.Entry<K, V> lowerEntry(K key) {
+		return entry(lowerKey(key));
+	}
+	
+	public Map.Entry<K, V> floorEntry(K key) {
+		return entry(floorKey(key));
+	}
+	
+	public Map.Entry<K, V> ceilingEntry(K key) {
+		return entry(ceilingKey(key));
+	}
+	
+	public Map.Entry<K, V> higherEntry(K key) {
+		return entry(higherKey(key));
+	}
+	
+	public Map.Entry<K, V> pollFirstEntry() {
+		Map.Entry<K, V> e = firstEntry();
+		if (e != null) {
+			st.delete(e.getKey());
+		}
+		return e;
+	}
+	
+	public Map.Entry<K, V> pollLastEntry() {
+		Map.Entry<K, V> e = lastEntry();
+		if (e != null) {
+			st.delete(e.getKey());
+		}
+		return e;
+	}
+	
+	
+	/***********************************************************************
+	 *  Views.
+	***********************************************************************/
+	public NavigableMap<K, V> descendingMap() {
+		return new OrderedSymbolTableMap<K, V>(st, fromStart, lo, loInclusive, toEnd, hi, hiInclusive, !descending);
+	}
+	
+	public NavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+		if (descending) {
+			return view(false, toKey, toInclusive, false, fromKey, fromInclusive);
+		}
+		return view(false, fromKey, fromInclusive, false, toKey, toInclusive);
+	}
+	
+	public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+		if (descending) {
+			return view(false, toKey, inclusive, toEnd, hi, hiInclusive);
+		}
+		return view(fromStart, lo, loInclusive, false, toKey, inclusive);
+	}
+	
+	public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+		if (descending) {
+			return view(fromStart, lo, loInclusive, false, fromKey, inclusive);
+		}
+		return view(false, fromKey, inclusive, toEnd, hi, hiInclusive);
+	}
+	
+	public SortedMap<K, V> subMap(K fromKey, K toKey) {
+		return subMap(fromKey, true, toKey, false);
+	}
+	
+	public SortedMap<K, V> headMap(K toKey) {
+		return headMap(toKey, false);
+	}
+	
+	public SortedMap<K, V> tailMap(K fromKey) {
+		return tailMap(fromKey, true);
+	}
+	
+	public NavigableSet<K> navigableKeySet() {
+		return new KeySet<K>(this);
+	}
+	
+	public NavigableSet<K> keySet() {
+		return navigableKeySet();
+	}
+	
+	public NavigableSet<K> descendingKeySet() {
+		return descendingMap().navigableKeySet();
+	}
+	
+	private NavigableMap<K, V> view(boolean newFromStart, K newLo, boolean newLoInclusive,
+			boolean newToEnd, K newHi, boolean newHiInclusive) {
+		if (!newFromStart && !inRange(newLo, newLoInclusive)) {
+			throw new IllegalArgumentException("fromKey out of range");
+		}
+		if (!newToEnd && !inRange(newHi, newHiInclusive)) {
+			throw new IllegalArgumentException("toKey out of range");
+		}
+		if (!newFromStart && !newToEnd && newLo.compareTo(newHi) > 0) {
+			throw new IllegalArgumentException("fromKey > toKey");
+		}
+		return new OrderedSymbolTableMap<K, V>(st, newFromStart, newLo, newLoInclusive,
+				newToEnd, newHi, newHiInclusive, descending);
+	}
+	
+	
+	/***********************************************************************
+	 *  Range checks and navigation in ascending key order.
+	***********************************************************************/
+	private boolean tooLow(K key) {
+		if (fromStart) {
+			return false;
+		}
+		int cmp = key.compareTo(lo);
+		return cmp < 0 || (cmp == 0 && !loInclusive);
+	}
+	
+	private boolean tooHigh(K key) {
+		if (toEnd) {
+			return false;
+		}
+		int cmp = key.compareTo(hi);
+		return cmp > 0 || (cmp == 0 && !hiInclusive);
+	}
+	
+	private boolean inRange(K key) {
+		return !tooLow(key) && !tooHigh(key);
+	}
+	
+	// A view bound may sit on an exclusive bound of this map, as in TreeMap.
+	private boolean inRange(K key, boolean inclusive) {
+		if (inclusive) {
+			return inRange(key);
+		}
+		return (fromStart || key.compareTo(lo) >= 0) && (toEnd || key.compareTo(hi) <= 0);
+	}
+	
+	private K checkHigh(K key) {
+		return key == null || tooHigh(key) ? null : key;
+	}
+	
+	private K checkLow(K key) {
+		return key == null || tooLow(key) ? null : key;
+	}
+	
+	private K absLowest() {
+		if (fromStart) {
+			return checkHigh(st.min());
+		}
+		return checkHigh(loInclusive ? st.ceiling(lo) : higher(lo));
+	}
+	
+	private K absHighest() {
+		if (toEnd) {
+			return checkLow(st.max());
+		}
+		return checkLow(hiInclusive ? st.floor(hi) : lower(hi));
+	}
+	
+	private K absCeiling(K key) {
+		return tooLow(key) ? absLowest() : checkHigh(st.ceiling(key));
+	}
+	
+	private K absHigher(K key) {
+		return tooLow(key) ? absLowest() : checkHigh(higher(key));
+	}
+	
+	private K absFloor(K key) {
+		return tooHigh(key) ? absHighest() : checkLow(st.floor(key));
+	}
+	
+	private K absLower(K key) {
+		return tooHigh(key) ? absHighest() : checkLow(lower(key));
+	}
+	
+	// Largest key strictly less than key, in the whole table.
+	private K lower(K key) {
+		K floor = st.floor(key);
+		if (floor == null || floor.compareTo(key) < 0) {
+			return floor;
+		}
+		int rank = st.rank(key);
+		return rank == 0 ? null : st.select(rank - 1);
+	}
+	
+	// Smallest key strictly greater than key, in the whole table.
+	private K higher(K key) {
+		K ceiling = st.ceiling(key);
+		if (ceiling == null || ceiling.compareTo(key) > 0) {
+			return ceiling;
+		}
+		return st.select(st.rank(key) + 1);
+	}
+	
+	private K key(K key) {
+		if (key == null) {
+			throw new NoSuchElementException();
+		}
+		return key;
+	}
+	
+	private Map.Entry<K, V> entry(K key) {
+		if (key == null) {
+			return null;
+		}
+		return new AbstractMap.SimpleImmutableEntry<K, V>(key, st.get(key));
+	}
+	
+	
+	// NavigableSet of the keys of a map view; every call goes to the map.
+	private static class KeySet<K> extends AbstractSet<K> implements NavigableSet<K> {
+		
+		private final NavigableMap<K, ?> map;
+		
+		private KeySet(NavigableMap<K, ?> map) {
+			this.map = map;
+		}
+		
+		public int size() {
+			return map.size();
+		}
+		
+		public boolean contains(Object o) {
+			return map.containsKey(o);
+		}
+		
+		public boolean remove(Object o) {
+			return map.remove(o) != null;
+		}
+		
+		public void clear() {
+			map.clear();
+		}
+		
+		public Iterator<K> iterator() {
+			final Iterator<? extends Map.Entry<K, ?>> entries = map.entrySet().iterator();
+			return new Iterator<K>() {
+				public boolean hasNext() {
+					return entries.hasNext();
+				}
+				
+				public K next() {
+					return entries.next().getKey();
+				}
+				
+				public void remove() {
+					entries.remove();
+				}
+			};
+		}
+		
+		public Iterator<K> descendingIterator() {
+			return descendingSet().iterator();
+		}
+		
+		public Comparator<? super K> comparator() {
+			return map.comparator();
+		}
+		
+		public K first() {
+			return map.firstKey();
+		}
+		
+		public K last() {
+			return map.lastKey();
+		}
+		
+		public K lower(K e) {
+			return map.lowerKey(e);
+		}
+		
+		public K floor(K e) {
+			return map.floorKey(e);
+		}
+		
+		public K ceiling(K e) {
+			return map.ceilingKey(e);
+		}
+		
+		public K higher(K e) {
+			return map.higherKey(e);
+		}
+		
+		public K pollFirst() {
+			Map.Entry<K, ?> e = map.pollFirstEntry();
+			return e == null ? null : e.getKey();
+		}
+		
+		public K pollLast() {
+			Map.Entry<K, ?> e = map.pollLastEntry();
+			return e == null ? null : e.getKey();
+		}
+		
+		public NavigableSet<K> descendingSet() {
+			return new KeySet<K>(map.descendingMap());
+		}
+		
+		public NavigableSet<K> subSet(K fromElement, boolean fromInclusive, K toElement, boolean toInclusive) {
+			return new KeySet<K>(map.subMap(fromElement, fromInclusive, toElement, toInclusive));
+		}
+		
+		public NavigableSet<K> headSet(K toElement, boolean inclusive) {
+			return new KeySet<K>(map.headMap(toElement, inclusive));
+		}
+		
+		public NavigableSet<K> tailSet(K fromElement, boolean inclusive) {
+			return new KeySet<K>(map.tailMap(fromElement, inclusive));
+		}
+		
+		public SortedSet<K> subSet(K fromElement, K toElement) {
+			return subSet(fromElement, true, toElement, false);
+		}
+		
+		public SortedSet<K> headSet(K toElement) {
+			return headSet(toElement, false);
+		}
+		
+		public SortedSet<K> tailSet(K fromElement) {
+			return tailSet(fromElement, true);
+		}
+		
+	}
+	
+}
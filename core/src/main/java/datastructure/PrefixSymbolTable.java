@@ -0,0 +1,21 @@
+package datastructure;
+
+/**
+ * Symbol table over String keys that also answers prefix queries.
+ */
+
+public interface PrefixSymbolTable<Value> extends SymbolTable<String, Value> {
+	
+	/**
+	* Returns all keys that start with prefix.
+	* @throws NullPointerException if prefix is null
+	*/
+	Iterable<String> keysWithPrefix(String prefix);
+	
+	/**
+	* Returns the longest key that is a prefix of query, or null if there is none.
+	* @throws NullPointerException if query is null
+	*/
+	String longestPrefixOf(String query);
+	
+}
@@ -0,0 +1,176 @@
+package datastructure;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Wraps any SymbolTable engine and writes a trace of its get, put and delete
+ * calls, for TraceReplayer to replay later against another engine or
+ * configuration, e.g.
+ *     new RecordingSymbolTable<String, Integer>(table, Codec.STRING, new FileOutputStream("trace.bin"))
+ * Each record holds the operation, the calling thread, the nanoseconds since
+ * the previous record and a key id. A key's bytes are written only when it
+ * first appears, so a skewed trace costs a few bytes per operation.
+ * Values are not recorded. contains() is recorded as a get; size() and
+ * keys() are not recorded.
+ *
+ * The key to id map keeps every distinct key until close(). Records are
+ * written under a lock, so any number of threads can share the wrapper when
+ * the wrapped table allows it.
+ */
+
+public class RecordingSymbolTable<Key, Value> implements SymbolTable<Key, Value>, Closeable {
+	
+	static final int MAGIC = 0x54524345;
+	static final int VERSION = 1;
+	
+	// operation in the low bits of the first byte of a record
+	static final int GET = 0;
+	static final int PUT = 1;
+	static final int DELETE = 2;
+	static final int OP_MASK = 3;
+	// the key's bytes follow the record
+	static final int NEW_KEY = 4;
+	
+	private final SymbolTable<Key, Value> table;
+	private final Codec<Key> keyCodec;
+	private final DataOutputStream out;
+	private final Map<Key, Integer> ids = new HashMap<Key, Integer>();
+	private final ThreadLocal<Integer> thread = new ThreadLocal<Integer>();
+	private int threads;
+	private long last;
+	private long records;
+	private boolean closed;
+	
+	/**
+	* @throws IOException if the trace header cannot be written
+	*/
+	public RecordingSymbolTable(SymbolTable<Key, Value> table, Codec<Key> keyCodec, OutputStream out) throws IOException {
+		if (table == null || keyCodec == null || out == null) {
+			throw new NullPointerException();
+		}
+		this.table = table;
+		this.keyCodec = keyCodec;
+		this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+		this.out.writeInt(MAGIC);
+		this.out.writeByte(VERSION);
+		this.last = System.nanoTime();
+	}
+	
+	public void put(Key key, Value value) {
+		record(value == null ? DELETE : PUT, key);
+		table.put(key, value);
+	}
+	
+	public Value get(Key key) {
+		record(GET, key);
+		return table.get(key);
+	}
+	
+	public boolean contains(Key key) {
+		record(GET, key);
+		return table.contains(key);
+	}
+	
+	public void delete(Key key) {
+		record(DELETE, key);
+		table.delete(key);
+	}
+	
+	public int size() {
+		return table.size();
+	}
+	
+	public Iterable<Key> keys() {
+		return table.keys();
+	}
+	
+	// Number of operations recorded so far.
+	public synchronized long records() {
+		return records;
+	}
+	
+	public synchronized void flush() throws IOException {
+		out.flush();
+	}
+	
+	/**
+	* Flushes and closes the trace stream. The wrapped table stays open,
+	* but calls through this wrapper fail from now on.
+	*/
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		ids.clear();
+		out.close();
+	}
+	
+	private void record(int op, Key key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		Integer id = thread.get();
+		synchronized (this) {
+			if (closed) {
+				throw new IllegalStateException("trace is closed");
+			}
+			if (id == null) {
+				id = threads++;
+				thread.set(id);
+			}
+			long now = System.nanoTime();
+			Integer keyId = ids.get(key);
+			boolean isNew = keyId == null;
+			if (isNew) {
+				keyId = ids.size();
+				ids.put(key, keyId);
+			}
+			try {
+				out.writeByte(op | (isNew ? NEW_KEY : 0));
+				writeVarLong(out, id);
+				writeVarLong(out, now - last);
+				writeVarLong(out, keyId);
+				if (isNew) {
+					keyCodec.write(key, out);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			last = now;
+			records++;
+		}
+	}
+	
+	// Unsigned LEB128: 7 bits per byte, high bit set on all but the last.
+	static void writeVarLong(DataOutput out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+	
+	static long readVarLong(DataInput in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("malformed varint");
+	}
+	
+}
@@ -0,0 +1,288 @@
+package datastructure;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+
+/**
+ * Single-source shortest paths on an EdgeWeightedGraph with non-negative weights.
+ *   dijkstra()       - indexed min-heap, O(E log V)
+ *   aStar()          - Dijkstra towards one target, guided by a heuristic
+ *   deltaStepping()  - bucketed parallel relaxation on the fork/join pool
+ * All three return a ShortestPaths holding distTo() and pathTo().
+ */
+
+public class ShortestPaths {
+	
+	private static final int GRAIN = 256;
+	
+	private final int source;
+	private final double[] distTo;
+	private final int[] edgeTo;
+	
+	private ShortestPaths(int source, double[] distTo, int[] edgeTo) {
+		this.source = source;
+		this.distTo = distTo;
+		this.edgeTo = edgeTo;
+	}
+	
+	public int source() {
+		return source;
+	}
+	
+	public double distTo(int v) {
+		return distTo[v];
+	}
+	
+	public boolean hasPathTo(int v) {
+		return distTo[v] < Double.POSITIVE_INFINITY;
+	}
+	
+	// Vertices from source to v, or null if v is unreachable.
+	public Iterable<Integer> pathTo(int v) {
+		if (!hasPathTo(v)) {
+			return null;
+		}
+		Deque<Integer> path = new ArrayDeque<Integer>();
+		for (int x = v; x != source; x = edgeTo[x]) {
+			path.push(x);
+		}
+		path.push(source);
+		return path;
+	}
+	
+	
+	/***********************************************************************
+	 *  Dijkstra's algorithm.
+	***********************************************************************/
+	public static ShortestPaths dijkstra(EdgeWeightedGraph G, int s) {
+		return search(G, s, -1, null);
+	}
+	
+	
+	/***********************************************************************
+	 *  A* search from s to t. The heuristic estimates the remaining
+	 *  distance from a vertex to t and must never overestimate it.
+	 *  Only distTo(t) and pathTo(t) are final when this returns.
+	***********************************************************************/
+	public static ShortestPaths aStar(EdgeWeightedGraph G, int s, int t, IntToDoubleFunction heuristic) {
+		if (t < 0 || t >= G.V()) {
+			throw new IndexOutOfBoundsException();
+		}
+		return search(G, s, t, heuristic);
+	}
+	
+	private static ShortestPaths search(EdgeWeightedGraph G, int s, int t, final IntToDoubleFunction h) {
+		if (s < 0 || s >= G.V()) {
+			throw new IndexOutOfBoundsException();
+		}
+		final double[] distTo = new double[G.V()];
+		final int[] edgeTo = new int[G.V()];
+		final IndexMinPQ pq = new IndexMinPQ(G.V());
+		Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+		Arrays.fill(edgeTo, -1);
+		distTo[s] = 0.0;
+		pq.insert(s, h == null ? 0.0 : h.applyAsDouble(s));
+		
+		while (!pq.isEmpty()) {
+			final int v = pq.delMin();
+			if (v == t) {
+				break;
+			}
+			G.forEachEdge(v, (w, weight) -> {
+				if (weight < 0) {
+					throw new IllegalArgumentException("negative edge weight " + weight);
+				}
+				double d = distTo[v] + weight;
+				if (d < distTo[w]) {
+					distTo[w] = d;
+					edgeTo[w] = v;
+					pq.insertOrDecrease(w, h == null ? d : d + h.applyAsDouble(w));
+				}
+				return true;
+			});
+		}
+		return new ShortestPaths(s, distTo, edgeTo);
+	}
+	
+	
+	/***********************************************************************
+	 *  Parallel delta-stepping (Meyer and Sanders).
+	 *  Vertices sit in buckets of width delta by tentative distance. The
+	 *  lowest bucket is emptied by relaxing light edges (weight <= delta)
+	 *  of all its vertices in parallel until it stays empty, then the heavy
+	 *  edges of everything settled from it are relaxed once, in parallel.
+	 *  Distances are lowered with a CAS on their IEEE bits, which order
+	 *  like the doubles themselves because they are never negative.
+	***********************************************************************/
+	public static ShortestPaths deltaStepping(final EdgeWeightedGraph G, int s, final double delta) {
+		final int V = G.V();
+		if (s < 0 || s >= V) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (!(delta > 0)) {
+			throw new IllegalArgumentException("delta must be positive");
+		}
+		final AtomicLongArray dist = new AtomicLongArray(V);
+		long infinity = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+		for (int v = 0; v < V; v++) {
+			dist.set(v, infinity);
+		}
+		dist.set(s, Double.doubleToRawLongBits(0.0));
+		
+		// Only non-empty buckets are kept, so the number of buckets is
+		// bounded by V and not by the largest distance over delta.
+		TreeMap<Long, IntList> buckets = new TreeMap<Long, IntList>();
+		int[] stamp = new int[V];
+		int round = 0;
+		addToBuckets(buckets, new int[] { s }, dist, delta);
+		
+		while (!buckets.isEmpty()) {
+			long i = buckets.firstKey();
+			IntList settled = new IntList();
+			IntList bucket;
+			while ((bucket = buckets.remove(i)) != null) {
+				// drop duplicates and vertices that moved to a lower distance since
+				round++;
+				IntList frontier = new IntList(bucket.size);
+				for (int j = 0; j < bucket.size; j++) {
+					int v = bucket.a[j];
+					if (stamp[v] != round && bucketOf(dist, v, delta) == i) {
+						stamp[v] = round;
+						frontier.add(v);
+						settled.add(v);
+					}
+				}
+				final int[] light = frontier.toArray();
+				int[] improved = IntList.collect(light.length, GRAIN,
+						(j, out) -> relaxAll(G, dist, light[j], delta, true, out));
+				addToBuckets(buckets, improved, dist, delta);
+			}
+			
+			round++;
+			IntList heavy = new IntList(settled.size);
+			for (int j = 0; j < settled.size; j++) {
+				int v = settled.a[j];
+				if (stamp[v] != round) {
+					stamp[v] = round;
+					heavy.add(v);
+				}
+			}
+			final int[] from = heavy.toArray();
+			int[] improved = IntList.collect(from.length, GRAIN,
+					(j, out) -> relaxAll(G, dist, from[j], delta, false, out));
+			addToBuckets(buckets, improved, dist, delta);
+		}
+		
+		final double[] distTo = new double[V];
+		for (int v = 0; v < V; v++) {
+			distTo[v] = Double.longBitsToDouble(dist.get(v));
+		}
+		return new ShortestPaths(s, distTo, tightTree(G, s, distTo));
+	}
+	
+	// Rebuilds edgeTo from the final distances. In parallel, each vertex
+	// takes a neighbor u with distTo[u] + w(u, v) == distTo[v] and a
+	// strictly smaller distance. That leaves out vertices reached only over
+	// zero-weight edges from vertices at the same distance; they are
+	// attached afterwards by a breadth-first search over such edges,
+	// starting from the vertices that already have a tree edge.
+	private static int[] tightTree(final EdgeWeightedGraph G, final int s, final double[] distTo) {
+		final int V = G.V();
+		final int[] edgeTo = new int[V];
+		IntStream.range(0, V).parallel().forEach(v -> {
+			edgeTo[v] = -1;
+			G.forEachEdge(v, (u, weight) -> {
+				if (distTo[u] + weight == distTo[v] && distTo[u] < distTo[v]) {
+					edgeTo[v] = u;
+					return false;
+				}
+				return true;
+			});
+		});
+		
+		final IntList queue = new IntList();
+		for (int v = 0; v < V; v++) {
+			if (v != s && edgeTo[v] == -1 && distTo[v] < Double.POSITIVE_INFINITY) {
+				final int x = v;
+				G.forEachEdge(x, (u, weight) -> {
+					if (weight == 0 && distTo[u] == distTo[x] && (u == s || edgeTo[u] != -1)) {
+						edgeTo[x] = u;
+						queue.add(x);
+						return false;
+					}
+					return true;
+				});
+			}
+		}
+		for (int head = 0; head < queue.size; head++) {
+			final int v = queue.a[head];
+			G.forEachEdge(v, (w, weight) -> {
+				if (weight == 0 && w != s && edgeTo[w] == -1 && distTo[w] == distTo[v]) {
+					edgeTo[w] = v;
+					queue.add(w);
+				}
+				return true;
+			});
+		}
+		return edgeTo;
+	}
+	
+	private static void relaxAll(EdgeWeightedGraph G, final AtomicLongArray dist, int v,
+			final double delta, final boolean light, final IntList out) {
+		final double base = Double.longBitsToDouble(dist.get(v));
+		G.forEachEdge(v, (w, weight) -> {
+			if (weight < 0) {
+				throw new IllegalArgumentException("negative edge weight " + weight);
+			}
+			if ((weight <= delta) == light && relax(dist, w, base + weight)) {
+				out.add(w);
+			}
+			return true;
+		});
+	}
+	
+	private static boolean relax(AtomicLongArray dist, int w, double d) {
+		long bits = Double.doubleToRawLongBits(d);
+		while (true) {
+			long current = dist.get(w);
+			if (bits >= current) {
+				return false;
+			}
+			if (dist.compareAndSet(w, current, bits)) {
+				return true;
+			}
+		}
+	}
+	
+	// Saturates at Long.MAX_VALUE, which only merges the farthest buckets.
+	private static long bucketOf(AtomicLongArray dist, int v, double delta) {
+		return (long) (Double.longBitsToDouble(dist.get(v)) / delta);
+	}
+	
+	// Files each vertex under its bucket. Improvements from one pass tend
+	// to land in the same few buckets, so the last one is kept at hand.
+	private static void addToBuckets(TreeMap<Long, IntList> buckets, int[] vertices, AtomicLongArray dist,
+			double delta) {
+		long last = -1;
+		IntList bucket = null;
+		for (int v : vertices) {
+			long i = bucketOf(dist, v, delta);
+			if (i != last) {
+				last = i;
+				bucket = buckets.get(i);
+				if (bucket == null) {
+					bucket = new IntList();
+					buckets.put(i, bucket);
+				}
+			}
+			bucket.add(v);
+		}
+	}
+	
+}
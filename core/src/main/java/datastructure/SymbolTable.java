@@ -0,0 +1,97 @@
+package datastructure;
+
+/**
+ * Common symbol table API shared by BST, HashMap and Map_Trie, so callers
+ * can pick an engine at construction time and swap it without other changes.
+ * Null keys are rejected. As in the reference implementation, values may not
+ * be null: put(key, null) deletes key, and get() returns null for absent keys.
+ */
+
+public interface SymbolTable<Key, Value> {
+	
+	/**
+	* Inserts the key-value pair, overwriting the old value if key is present.
+	* If the value is null, this deletes key from the table.
+	* @throws NullPointerException if key is null
+	*/
+	void put(Key key, Value value);
+	
+	/**
+	* Returns the value associated with key, or null if key is absent.
+	* @throws NullPointerException if key is null
+	*/
+	Value get(Key key);
+	
+	/**
+	* Removes key and its value if present.
+	* @throws NullPointerException if key is null
+	*/
+	void delete(Key key);
+	
+	default boolean contains(Key key) {
+		return get(key) != null;
+	}
+	
+	int size();
+	
+	default boolean isEmpty() {
+		return size() == 0;
+	}
+	
+	/**
+	* Returns all keys in the table. Ordered tables return them in order.
+	*/
+	Iterable<Key> keys();
+	
+	
+	/***********************************************************************
+	 *  Batch operations. The defaults loop over the single-key calls;
+	 *  engines override them to reorder the work across the batch.
+	***********************************************************************/
+	
+	/**
+	* Sets out[i] to the value of keys[i], or null if it is absent.
+	* @throws IllegalArgumentException if out is shorter than keys
+	* @throws NullPointerException if any key is null
+	*/
+	default void getAll(Key[] keys, Value[] out) {
+		if (out.length < keys.length) {
+			throw new IllegalArgumentException();
+		}
+		for (int i = 0; i < keys.length; i++) {
+			out[i] = get(keys[i]);
+		}
+	}
+	
+	/**
+	* Puts keys[i] with values[i], in index order, so that a later duplicate
+	* key wins and a null value deletes.
+	* @throws IllegalArgumentException if the arrays differ in length
+	* @throws NullPointerException if any key is null
+	*/
+	default void putAll(Key[] keys, Value[] values) {
+		if (keys.length != values.length) {
+			throw new IllegalArgumentException();
+		}
+		for (int i = 0; i < keys.length; i++) {
+			put(keys[i], values[i]);
+		}
+	}
+	
+	/**
+	* Does the table contain every one of keys? Uses getAll().
+	* @throws NullPointerException if any key is null
+	*/
+	default boolean containsAll(Key[] keys) {
+		@SuppressWarnings("unchecked")
+		Value[] out = (Value[]) new Object[keys.length];
+		getAll(keys, out);
+		for (Value value : out) {
+			if (value == null) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+}
@@ -0,0 +1,154 @@
+package datastructure;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * java.util.Map view of any SymbolTable engine, e.g.
+ *     Map<String, Integer> map = new SymbolTableMap<String, Integer>(new HashMap<String, Integer>());
+ * Reads and writes go straight to the table. Like the tables, the map does
+ * not accept null keys or null values. Iterators walk a copy of the key list
+ * taken when they are created, and support remove().
+ */
+
+public class SymbolTableMap<K, V> extends AbstractMap<K, V> {
+	
+	final SymbolTable<K, V> table;
+	
+	public SymbolTableMap(SymbolTable<K, V> table) {
+		if (table == null) {
+			throw new NullPointerException();
+		}
+		this.table = table;
+	}
+	
+	public int size() {
+		return table.size();
+	}
+	
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+	
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		if (key == null) {
+			return null;
+		}
+		try {
+			return table.get((K) key);
+		} catch (ClassCastException e) {
+			return null;
+		}
+	}
+	
+	public V put(K key, V value) {
+		if (key == null || value == null) {
+			throw new NullPointerException();
+		}
+		V old = table.get(key);
+		table.put(key, value);
+		return old;
+	}
+	
+	@SuppressWarnings("unchecked")
+	public V remove(Object key) {
+		V old = get(key);
+		if (old != null) {
+			table.delete((K) key);
+		}
+		return old;
+	}
+	
+	public void clear() {
+		for (K key : keyList()) {
+			table.delete(key);
+		}
+	}
+	
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new EntrySet();
+	}
+	
+	// Keys covered by this map, in iteration order.
+	List<K> keyList() {
+		List<K> keys = new ArrayList<K>();
+		for (K key : table.keys()) {
+			keys.add(key);
+		}
+		return keys;
+	}
+	
+	private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+		
+		public int size() {
+			return SymbolTableMap.this.size();
+		}
+		
+		public Iterator<Map.Entry<K, V>> iterator() {
+			final Iterator<K> keys = keyList().iterator();
+			return new Iterator<Map.Entry<K, V>>() {
+				private K last;
+				
+				public boolean hasNext() {
+					return keys.hasNext();
+				}
+				
+				public Map.Entry<K, V> next() {
+					last = keys.next();
+					return new TableEntry(last, table.get(last));
+				}
+				
+				public void remove() {
+					if (last == null) {
+						throw new IllegalStateException();
+					}
+					table.delete(last);
+					last = null;
+				}
+			};
+		}
+		
+		public boolean contains(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			V value = get(e.getKey());
+			return value != null && value.equals(e.getValue());
+		}
+		
+		public boolean remove(Object o) {
+			if (!contains(o)) {
+				return false;
+			}
+			SymbolTableMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+			return true;
+		}
+	}
+	
+	// Entry whose setValue() writes through to the table.
+	class TableEntry extends AbstractMap.SimpleEntry<K, V> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		TableEntry(K key, V value) {
+			super(key, value);
+		}
+		
+		public V setValue(V value) {
+			if (value == null) {
+				throw new NullPointerException();
+			}
+			table.put(getKey(), value);
+			return super.setValue(value);
+		}
+	}
+	
+}
@@ -0,0 +1,186 @@
+package datastructure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collector;
+
+
+/**
+ * Bounded top-K aggregator.
+ * Keeps the K largest keys seen so far in a fixed size min-heap, so the root
+ * is always the current worst of the K best. An incoming key that does not beat
+ * the root is rejected in O(1), otherwise it replaces the root in O(log K).
+ * Memory stays O(K) however long the stream is.
+ * Partial results built on different threads can be combined with merge().
+ * This class is NOT THREAD-SAFE
+ */
+
+public class TopK<Key> implements Iterable<Key> {
+	
+	private final Key[] pq;
+	private final int k;
+	private int size;
+	
+	private Comparator<Key> comparator;
+	
+	public TopK(int k) {
+		this(k, null);
+	}
+	
+	@SuppressWarnings("unchecked")
+	public TopK(int k, Comparator<Key> comparator) {
+		if (k <= 0) {
+			throw new IllegalArgumentException("k must be positive");
+		}
+		this.pq = (Key[]) new Object[k + 1];
+		this.k = k;
+		this.size = 0;
+		this.comparator = comparator;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public int capacity() {
+		return k;
+	}
+	
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	public boolean isFull() {
+		return size == k;
+	}
+	
+	
+	/***********************************************************************
+	 *  Offer a key to the aggregator.
+	 *  Return true if the key is kept, false if it is rejected.
+	***********************************************************************/
+	public boolean offer(Key key) {
+		if (key == null) {
+			throw new NullPointerException();
+		}
+		if (size < k) {
+			pq[++size] = key;
+			swim(size);
+			return true;
+		}
+		if (compare(key, pq[1]) <= 0) {
+			return false;
+		}
+		pq[1] = key;
+		sink(1);
+		return true;
+	}
+	
+	
+	/***********************************************************************
+	 *  The smallest of the kept keys, i.e. the bar an incoming key must beat.
+	***********************************************************************/
+	public Key min() {
+		if (isEmpty()) {
+			throw new NoSuchElementException();
+		}
+		return pq[1];
+	}
+	
+	
+	/***********************************************************************
+	 *  Combine another partial result into this one.
+	 *  Both aggregators should use the same k and comparator.
+	***********************************************************************/
+	public TopK<Key> merge(TopK<Key> other) {
+		for (int i = 1; i <= other.size; i++) {
+			offer(other.pq[i]);
+		}
+		return this;
+	}
+	
+	
+	/***********************************************************************
+	 *  Kept keys from largest to smallest. Does not modify the heap.
+	***********************************************************************/
+	public List<Key> toList() {
+		List<Key> result = new ArrayList<Key>(Arrays.asList(pq).subList(1, size + 1));
+		Collections.sort(result, Collections.reverseOrder(comparator()));
+		return result;
+	}
+	
+	public Iterator<Key> iterator() {
+		return Collections.unmodifiableList(toList()).iterator();
+	}
+	
+	
+	/***********************************************************************
+	 *  Collectors for streams. Parallel streams build one heap per chunk
+	 *  and merge them, so memory is O(K) per worker.
+	***********************************************************************/
+	public static <Key extends Comparable<Key>> Collector<Key, ?, List<Key>> collector(int k) {
+		return collector(k, null);
+	}
+	
+	public static <Key> Collector<Key, ?, List<Key>> collector(final int k, final Comparator<Key> comparator) {
+		return Collector.of(
+				() -> new TopK<Key>(k, comparator),
+				TopK::offer,
+				TopK::merge,
+				TopK::toList,
+				Collector.Characteristics.UNORDERED);
+	}
+	
+	
+	// Min-heap on compare().
+	private void swim(int curr) {
+		int parent = curr >> 1;
+		while (curr > 1 && compare(pq[curr], pq[parent]) < 0) {
+			swap(curr, parent);
+			curr = parent;
+			parent >>= 1;
+		}
+	}
+	
+	private void sink(int curr) {
+		while ((curr << 1) <= size) {
+			int child = (curr << 1);
+			if (child < size && compare(pq[child + 1], pq[child]) < 0) {
+				child++;
+			}
+			if (compare(pq[curr], pq[child]) <= 0) {
+				break;
+			}
+			swap(child, curr);
+			curr = child;
+		}
+	}
+	
+	private void swap(int i, int j) {
+		Key temp = pq[i];
+		pq[i] = pq[j];
+		pq[j] = temp;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private int compare(Key a, Key b) {
+		if (comparator == null) {
+			return ((Comparable<Key>) a).compareTo(b);
+		}
+		return comparator.compare(a, b);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private Comparator<Key> comparator() {
+		if (comparator == null) {
+			return (Comparator<Key>) Comparator.naturalOrder();
+		}
+		return comparator;
+	}
+	
+}
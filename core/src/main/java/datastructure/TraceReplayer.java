@@ -0,0 +1,337 @@
+package datastructure;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import datastructure.MetricsRecorder.Histogram;
+
+
+/**
+ * Replays a trace written by RecordingSymbolTable against any SymbolTable
+ * engine, so engines and tuning options can be compared offline on real
+ * traffic. The whole trace is loaded up front. Operations recorded on
+ * thread t run on replay thread t % threads, in their recorded order.
+ * A trace with a torn last record, from a process that did not close it,
+ * loads up to that record.
+ *
+ * At speed 0 every thread runs its operations back to back. At speed s > 0
+ * each operation is issued at its recorded offset divided by s, and its
+ * latency counts from that scheduled time, not from when it started. An
+ * engine that falls behind is then charged for the queueing it causes
+ * (no coordinated omission). That includes JIT compilation, so replay once
+ * to warm up before a run that counts.
+ */
+
+public class TraceReplayer<Key> {
+	
+	// yield instead of parking for the last stretch before a scheduled
+	// operation; parking oversleeps, and spinning starves other replay
+	// threads when there are more threads than cores
+	private static final long SPIN_NANOS = 50_000;
+	
+	private final Object[] keys;
+	private final byte[] ops;
+	private final int[] threadOf;
+	private final int[] keyOf;
+	// nanoseconds since the first record
+	private final long[] time;
+	private final int size;
+	private final int recordedThreads;
+	
+	/**
+	* @throws IOException if in cannot be read or does not hold a trace
+	*/
+	public TraceReplayer(InputStream in, Codec<Key> keyCodec) throws IOException {
+		DataInputStream data = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+		if (data.readInt() != RecordingSymbolTable.MAGIC || data.readUnsignedByte() != RecordingSymbolTable.VERSION) {
+			throw new IOException("not a trace");
+		}
+		Object[] keys = new Object[16];
+		int distinct = 0;
+		byte[] ops = new byte[1024];
+		int[] threadOf = new int[1024];
+		int[] keyOf = new int[1024];
+		long[] time = new long[1024];
+		int n = 0;
+		int threads = 0;
+		long now = 0;
+		while (true) {
+			int tag = data.read();
+			if (tag < 0) {
+				break;
+			}
+			int thread, key;
+			long delta;
+			Object newKey = null;
+			try {
+				thread = (int) RecordingSymbolTable.readVarLong(data);
+				delta = RecordingSymbolTable.readVarLong(data);
+				key = (int) RecordingSymbolTable.readVarLong(data);
+				if ((tag & RecordingSymbolTable.NEW_KEY) != 0) {
+					newKey = keyCodec.read(data);
+				}
+			} catch (EOFException e) {
+				break;
+			}
+			if (newKey != null) {
+				if (key != distinct) {
+					throw new IOException("corrupt trace: key id " + key + ", expected " + distinct);
+				}
+				if (distinct == keys.length) {
+					keys = Arrays.copyOf(keys, 2 * distinct);
+				}
+				keys[distinct++] = newKey;
+			} else if (key < 0 || key >= distinct) {
+				throw new IOException("corrupt trace: unknown key id " + key);
+			}
+			if (n == ops.length) {
+				ops = Arrays.copyOf(ops, 2 * n);
+				threadOf = Arrays.copyOf(threadOf, 2 * n);
+				keyOf = Arrays.copyOf(keyOf, 2 * n);
+				time = Arrays.copyOf(time, 2 * n);
+			}
+			now += n == 0 ? 0 : delta;
+			ops[n] = (byte) (tag & RecordingSymbolTable.OP_MASK);
+			threadOf[n] = thread;
+			keyOf[n] = key;
+			time[n] = now;
+			threads = Math.max(threads, thread + 1);
+			n++;
+		}
+		this.keys = Arrays.copyOf(keys, distinct);
+		this.ops = ops;
+		this.threadOf = threadOf;
+		this.keyOf = keyOf;
+		this.time = time;
+		this.size = n;
+		this.recordedThreads = threads;
+	}
+	
+	// Number of operations in the trace.
+	public int size() {
+		return size;
+	}
+	
+	public int distinctKeys() {
+		return keys.length;
+	}
+	
+	public int recordedThreads() {
+		return recordedThreads;
+	}
+	
+	// Time from the first to the last recorded operation.
+	public long durationNanos() {
+		return size == 0 ? 0 : time[size - 1];
+	}
+	
+	
+	/***********************************************************************
+	 *  Replay every operation against table, putting value for each put.
+	 *  @param threads number of replay threads
+	 *  @param speed 0 for full speed, 1 for the recorded rate, 2 for
+	 *         twice the recorded rate, and so on
+	 *  @throws IllegalArgumentException if threads < 1 or speed < 0
+	 *  @throws RuntimeException the first exception thrown by the table
+	***********************************************************************/
+	@SuppressWarnings("unchecked")
+	public <Value> Result replay(final SymbolTable<Key, Value> table, final Value value, int threads, final double speed) {
+		if (table == null || value == null) {
+			throw new NullPointerException();
+		}
+		if (threads < 1 || !(speed >= 0)) {
+			throw new IllegalArgumentException();
+		}
+		final IntList[] parts = new IntList[threads];
+		for (int t = 0; t < threads; t++) {
+			parts[t] = new IntList();
+		}
+		for (int i = 0; i < size; i++) {
+			parts[threadOf[i] % threads].add(i);
+		}
+		
+		final Histogram[] latency = new Histogram[RecordingSymbolTable.OP_MASK + 1];
+		for (int op = 0; op < latency.length; op++) {
+			latency[op] = new Histogram();
+		}
+		final long[] allocated = new long[threads];
+		final AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+		final CountDownLatch ready = new CountDownLatch(threads);
+		final CountDownLatch go = new CountDownLatch(1);
+		final long[] origin = new long[1];
+		
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			final IntList part = parts[t];
+			final int worker = t;
+			workers[t] = new Thread(() -> {
+				long before = allocatedBytes();
+				ready.countDown();
+				try {
+					go.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				try {
+					for (int j = 0; j < part.size; j++) {
+						int i = part.a[j];
+						long start;
+						if (speed > 0) {
+							start = origin[0] + (long) (time[i] / speed);
+							waitUntil(start);
+						} else {
+							start = System.nanoTime();
+						}
+						Key key = (Key) keys[keyOf[i]];
+						switch (ops[i]) {
+						case RecordingSymbolTable.PUT:
+							table.put(key, value);
+							break;
+						case RecordingSymbolTable.DELETE:
+							table.delete(key);
+							break;
+						default:
+							table.get(key);
+						}
+						latency[ops[i]].record(System.nanoTime() - start);
+					}
+				} catch (RuntimeException e) {
+					failure.compareAndSet(null, e);
+				}
+				allocated[worker] = before < 0 ? -1 : allocatedBytes() - before;
+			}, "replay-" + t);
+			workers[t].start();
+		}
+		
+		long elapsed;
+		try {
+			ready.await();
+			origin[0] = System.nanoTime();
+			go.countDown();
+			for (Thread worker : workers) {
+				worker.join();
+			}
+			elapsed = System.nanoTime() - origin[0];
+		} catch (InterruptedException e) {
+			for (Thread worker : workers) {
+				worker.interrupt();
+			}
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("replay interrupted", e);
+		}
+		if (failure.get() != null) {
+			throw failure.get();
+		}
+		long bytes = 0;
+		for (long a : allocated) {
+			bytes = a < 0 || bytes < 0 ? -1 : bytes + a;
+		}
+		return new Result(size, elapsed, bytes, latency);
+	}
+	
+	private static void waitUntil(long due) {
+		long remaining;
+		while ((remaining = due - System.nanoTime()) > 0) {
+			if (remaining > SPIN_NANOS) {
+				LockSupport.parkNanos(remaining - SPIN_NANOS);
+			} else {
+				Thread.yield();
+			}
+		}
+	}
+	
+	// Bytes allocated so far by the current thread, or -1 if the JVM cannot tell.
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+			if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+				return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return -1;
+	}
+	
+	
+	/***********************************************************************
+	 *  Outcome of one replay.
+	***********************************************************************/
+	public static class Result {
+		
+		private final long operations;
+		private final long elapsedNanos;
+		private final long allocatedBytes;
+		private final Histogram[] latency;
+		
+		private Result(long operations, long elapsedNanos, long allocatedBytes, Histogram[] latency) {
+			this.operations = operations;
+			this.elapsedNanos = elapsedNanos;
+			this.allocatedBytes = allocatedBytes;
+			this.latency = latency;
+		}
+		
+		public long operations() {
+			return operations;
+		}
+		
+		public long elapsedNanos() {
+			return elapsedNanos;
+		}
+		
+		// Operations per second.
+		public double throughput() {
+			return elapsedNanos == 0 ? 0 : operations * 1e9 / elapsedNanos;
+		}
+		
+		// Bytes allocated by the replay threads, or -1 if the JVM cannot tell.
+		public long allocatedBytes() {
+			return allocatedBytes;
+		}
+		
+		/**
+		* Latency histogram in nanoseconds for one kind of operation.
+		* @throws IllegalArgumentException unless op is GET, PUT or DELETE
+		*/
+		public Histogram latency(Metrics.Op op) {
+			switch (op) {
+			case GET:
+				return latency[RecordingSymbolTable.GET];
+			case PUT:
+				return latency[RecordingSymbolTable.PUT];
+			case DELETE:
+				return latency[RecordingSymbolTable.DELETE];
+			default:
+				throw new IllegalArgumentException();
+			}
+		}
+		
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append(String.format("ops=%d time=%.3fs throughput=%.0f ops/s", operations, elapsedNanos / 1e9, throughput()));
+			if (allocatedBytes >= 0) {
+				sb.append(String.format(" allocated=%d B (%.1f B/op)", allocatedBytes,
+						operations == 0 ? 0.0 : (double) allocatedBytes / operations));
+			}
+			sb.append(String.format("%n"));
+			for (Metrics.Op op : new Metrics.Op[] {Metrics.Op.GET, Metrics.Op.PUT, Metrics.Op.DELETE}) {
+				Histogram h = latency(op);
+				if (h.count() == 0) {
+					continue;
+				}
+				sb.append(String.format("%-8s n=%d latency(ns) p50=%d p99=%d p99.9=%d max=%d%n",
+						op, h.count(), h.percentile(50), h.percentile(99), h.percentile(99.9), h.max()));
+			}
+			return sb.toString();
+		}
+	}
+	
+}
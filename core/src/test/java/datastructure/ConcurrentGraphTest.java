@@ -0,0 +1,123 @@
+package datastructure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Snapshots taken while writers run must show every writer's edges as of
+ * some point in its own sequence of adds and removes.
+ */
+
+public class ConcurrentGraphTest {
+	
+	private static final int WRITERS = 3;
+	private static final int RANGE = 200;
+	private static final int OPS = 20000;
+	
+	private static long mix(long x) {
+		x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+		x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+		return x ^ (x >>> 31);
+	}
+	
+	// Order-independent hash of the entries v -> w on both endpoints.
+	private static long entry(int v, int w) {
+		return mix(((long) v << 32) | w);
+	}
+	
+	@Test
+	void snapshotsSeeAPrefixOfEveryWriter() throws InterruptedException {
+		final ConcurrentGraph G = new ConcurrentGraph(WRITERS * RANGE);
+		final int[][] from = new int[WRITERS][OPS];
+		final int[][] to = new int[WRITERS][OPS];
+		final boolean[][] add = new boolean[WRITERS][OPS];
+		// the hashes of writer t's edges after each prefix of its operations
+		List<Set<Long>> prefixes = new ArrayList<Set<Long>>();
+		long[] last = new long[WRITERS];
+		Random random = new Random(34);
+		for (int t = 0; t < WRITERS; t++) {
+			List<int[]> present = new ArrayList<int[]>();
+			Set<Long> hashes = new HashSet<Long>();
+			long hash = 0;
+			hashes.add(hash);
+			for (int i = 0; i < OPS; i++) {
+				add[t][i] = present.isEmpty() || random.nextInt(3) != 0;
+				if (add[t][i]) {
+					int v = t * RANGE + random.nextInt(RANGE);
+					int w = random.nextInt(10) == 0 ? v : t * RANGE + random.nextInt(RANGE);
+					present.add(new int[] { v, w });
+					from[t][i] = v;
+					to[t][i] = w;
+					hash += entry(v, w) + entry(w, v);
+				} else {
+					int[] edge = present.remove(random.nextInt(present.size()));
+					from[t][i] = edge[0];
+					to[t][i] = edge[1];
+					hash -= entry(edge[0], edge[1]) + entry(edge[1], edge[0]);
+				}
+				hashes.add(hash);
+			}
+			prefixes.add(hashes);
+			last[t] = hash;
+		}
+		
+		Thread[] writers = new Thread[WRITERS];
+		for (int t = 0; t < WRITERS; t++) {
+			final int id = t;
+			writers[t] = new Thread(() -> {
+				for (int i = 0; i < OPS; i++) {
+					if (add[id][i]) {
+						G.addEdge(from[id][i], to[id][i]);
+					} else {
+						G.removeEdge(from[id][i], to[id][i]);
+					}
+				}
+			});
+			writers[t].start();
+		}
+		ConcurrentLinkedQueue<Graph_CSR> snapshots = new ConcurrentLinkedQueue<Graph_CSR>();
+		boolean running = true;
+		while (running) {
+			running = false;
+			for (Thread writer : writers) {
+				running |= writer.isAlive();
+			}
+			snapshots.add(G.snapshot());
+		}
+		for (Thread writer : writers) {
+			writer.join();
+		}
+		Graph_CSR end = G.snapshot();
+		snapshots.add(end);
+		
+		for (Graph_CSR snapshot : snapshots) {
+			long degrees = 0;
+			for (int t = 0; t < WRITERS; t++) {
+				long hash = 0;
+				for (int v = t * RANGE; v < (t + 1) * RANGE; v++) {
+					for (int w : snapshot.adj(v)) {
+						hash += entry(v, w);
+					}
+					degrees += snapshot.degree(v);
+				}
+				assertTrue(prefixes.get(t).contains(hash), "snapshot is not a prefix of writer " + t);
+				if (snapshot == end) {
+					assertEquals(last[t], hash);
+				}
+			}
+			assertEquals(2L * snapshot.E(), degrees);
+		}
+		assertEquals(G.E(), end.E());
+	}
+	
+}
@@ -0,0 +1,76 @@
+package datastructure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Snapshots taken while writers run must lose no record on recovery.
+ */
+
+public class DurableSymbolTableTest {
+	
+	private static final int WRITERS = 4;
+	private static final int RANGE = 500;
+	private static final int OPS = 20000;
+	
+	@TempDir
+	Path dir;
+	
+	private DurableSymbolTable<Integer, Integer> open(SymbolTable<Integer, Integer> table) throws IOException {
+		// small segments, so writers also trigger background snapshots
+		return new DurableSymbolTable<Integer, Integer>(dir, table, Codec.INTEGER, Codec.INTEGER,
+				DurableSymbolTable.Sync.NEVER, 10, 8192);
+	}
+	
+	@Test
+	void snapshotsDuringWritesRecoverEveryRecord() throws Exception {
+		// writer t owns keys t * RANGE ... (t + 1) * RANGE - 1
+		final Integer[][] expected = new Integer[WRITERS][RANGE];
+		Thread[] writers = new Thread[WRITERS];
+		try (final DurableSymbolTable<Integer, Integer> st = open(new HashMap<Integer, Integer>())) {
+			for (int t = 0; t < WRITERS; t++) {
+				final int id = t;
+				writers[t] = new Thread(() -> {
+					Random random = new Random(38 + id);
+					for (int i = 0; i < OPS; i++) {
+						int k = random.nextInt(RANGE);
+						Integer value = random.nextInt(4) == 0 ? null : i;
+						st.put(id * RANGE + k, value);
+						expected[id][k] = value;
+					}
+				});
+				writers[t].start();
+			}
+			boolean running = true;
+			while (running) {
+				st.snapshot();
+				running = false;
+				for (Thread writer : writers) {
+					running |= writer.isAlive();
+				}
+			}
+			for (Thread writer : writers) {
+				writer.join();
+			}
+		}
+		
+		HashMap<Integer, Integer> recovered = new HashMap<Integer, Integer>();
+		open(recovered).close();
+		int size = 0;
+		for (int t = 0; t < WRITERS; t++) {
+			for (int k = 0; k < RANGE; k++) {
+				assertEquals(expected[t][k], recovered.get(t * RANGE + k), "key " + (t * RANGE + k));
+				size += expected[t][k] == null ? 0 : 1;
+			}
+		}
+		assertEquals(size, recovered.size());
+	}
+	
+}
@@ -0,0 +1,157 @@
+package datastructure;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Graphs written or converted to a GraphFile and reopened as a MappedGraph.
+ */
+
+public class GraphFileTest {
+	
+	@TempDir
+	Path dir;
+	
+	private static List<Integer> adj(Graph G, int v) {
+		List<Integer> list = new ArrayList<Integer>();
+		for (int w : G.adj(v)) {
+			list.add(w);
+		}
+		return list;
+	}
+	
+	private static List<Double> weights(MappedGraph G, int v) {
+		final List<Double> list = new ArrayList<Double>();
+		G.forEachEdge(v, (w, weight) -> list.add(weight));
+		return list;
+	}
+	
+	private static List<Double> weights(EdgeWeightedGraph G, int v) {
+		final List<Double> list = new ArrayList<Double>();
+		G.forEachEdge(v, (w, weight) -> list.add(weight));
+		return list;
+	}
+	
+	// Random edges with self-loops and parallel edges; vertex V - 1 stays isolated.
+	private static int[][] edges(Random random, int V, int E) {
+		int[][] edges = new int[2][E];
+		for (int e = 0; e < E; e++) {
+			edges[0][e] = random.nextInt(V - 1);
+			edges[1][e] = random.nextInt(8) == 0 ? edges[0][e] : random.nextInt(V - 1);
+		}
+		return edges;
+	}
+	
+	@Test
+	void writtenGraphReopensUnchanged() throws IOException {
+		Random random = new Random(32);
+		int V = 500;
+		int[][] edges = edges(random, V, 2000);
+		Graph_AdjList G = new Graph_AdjList(V);
+		G.addEdges(edges[0], edges[1]);
+		Path file = dir.resolve("graph.bin");
+		GraphFile.write(G, file);
+		try (MappedGraph M = GraphFile.open(file)) {
+			assertEquals(V, M.V());
+			assertEquals(G.E(), M.E());
+			for (int v = 0; v < V; v++) {
+				assertEquals(G.degree(v), M.degree(v));
+				assertEquals(adj(G, v), adj(M, v));
+			}
+			assertArrayEquals(GraphSearch.bfs(G, 0), GraphSearch.bfs(M, 0));
+		}
+	}
+	
+	@Test
+	void weightsSurviveARewriteOfTheMappedGraph() throws IOException {
+		Random random = new Random(32);
+		int V = 300;
+		EdgeWeightedGraph G = new EdgeWeightedGraph(V);
+		int[][] edges = edges(random, V, 1000);
+		for (int e = 0; e < edges[0].length; e++) {
+			G.addEdge(edges[0][e], edges[1][e], random.nextInt(1000) / 8.0);
+		}
+		Path first = dir.resolve("first.bin");
+		Path second = dir.resolve("second.bin");
+		GraphFile.write(G, first);
+		try (MappedGraph M = GraphFile.open(first)) {
+			GraphFile.write(M, second);
+		}
+		try (MappedGraph M = GraphFile.open(second)) {
+			assertEquals(G.E(), M.E());
+			for (int v = 0; v < V; v++) {
+				assertEquals(adj(G, v), adj(M, v));
+				assertEquals(weights(G, v), weights(M, v));
+			}
+			assertArrayEquals(GraphSearch.bfs(G, 0), GraphSearch.bfs(M, 0));
+		}
+	}
+	
+	@Test
+	void convertedEdgeListMatchesTheSameEdgesAddedInMemory() throws IOException {
+		Random random = new Random(32);
+		int V = 400;
+		int[][] edges = edges(random, V, 3000);
+		EdgeWeightedGraph G = new EdgeWeightedGraph(V);
+		StringBuilder text = new StringBuilder("# comment\n\n");
+		for (int e = 0; e < edges[0].length; e++) {
+			double weight = random.nextInt(100) / 4.0;
+			G.addEdge(edges[0][e], edges[1][e], weight);
+			text.append(edges[0][e]).append(random.nextBoolean() ? " " : "\t")
+					.append(edges[1][e]).append(' ').append(weight).append('\n');
+		}
+		Path input = dir.resolve("edges.txt");
+		Path file = dir.resolve("edges.bin");
+		Files.write(input, text.toString().getBytes(StandardCharsets.US_ASCII));
+		assertEquals(V - 1, GraphFile.vertexCount(input));
+		GraphFile.convert(input, file, V, true);
+		try (MappedGraph M = GraphFile.open(file)) {
+			assertEquals(G.E(), M.E());
+			// neighbor order is not deterministic, so compare each vertex's (target, weight) pairs sorted
+			for (int v = 0; v < V; v++) {
+				assertEquals(pairs(G, v), pairs(M, v));
+			}
+			assertArrayEquals(GraphSearch.bfs(G, 0), GraphSearch.bfs(M, 0));
+		}
+	}
+	
+	private static List<String> pairs(EdgeWeightedGraph G, int v) {
+		final List<String> list = new ArrayList<String>();
+		G.forEachEdge(v, (w, weight) -> list.add(w + ":" + weight));
+		Collections.sort(list);
+		return list;
+	}
+	
+	private static List<String> pairs(MappedGraph G, int v) {
+		final List<String> list = new ArrayList<String>();
+		G.forEachEdge(v, (w, weight) -> list.add(w + ":" + weight));
+		Collections.sort(list);
+		return list;
+	}
+	
+	@Test
+	void vertexIdsBeyondAnIntAreRejected() throws IOException {
+		for (String line : new String[] { "2147483648 1\n", "1 4294967297\n", "00000000001 2\n" }) {
+			Path input = dir.resolve("bad.txt");
+			Files.write(input, line.getBytes(StandardCharsets.US_ASCII));
+			assertThrows(NumberFormatException.class, () -> GraphFile.vertexCount(input));
+			assertThrows(NumberFormatException.class,
+					() -> GraphFile.convert(input, dir.resolve("bad.bin"), 2, false));
+		}
+	}
+	
+}
@@ -0,0 +1,64 @@
+package datastructure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * addEdges() against the same edges added one at a time.
+ */
+
+public class Graph_AdjListTest {
+	
+	private static List<Integer> adj(Graph G, int v) {
+		List<Integer> list = new ArrayList<Integer>();
+		for (int w : G.adj(v)) {
+			list.add(w);
+		}
+		return list;
+	}
+	
+	@Test
+	void batchesMatchSingleEdges() {
+		Random random = new Random(28);
+		int V = 1000;
+		Graph_AdjList batched = new Graph_AdjList(V);
+		Graph_AdjList single = new Graph_AdjList(V);
+		for (int batch = 0; batch < 200; batch++) {
+			// small batches, with repeated edges and self-loops
+			int n = random.nextInt(50);
+			int[] from = new int[n];
+			int[] to = new int[n];
+			for (int i = 0; i < n; i++) {
+				from[i] = random.nextInt(V);
+				to[i] = random.nextInt(4) == 0 ? from[i] : random.nextInt(V);
+				single.addEdge(from[i], to[i]);
+			}
+			batched.addEdges(from, to);
+		}
+		assertEquals(single.E(), batched.E());
+		for (int v = 0; v < V; v++) {
+			assertEquals(single.degree(v), batched.degree(v));
+			assertEquals(adj(single, v), adj(batched, v));
+		}
+	}
+	
+	@Test
+	void badBatchChangesNothing() {
+		Graph_AdjList G = new Graph_AdjList(3);
+		G.addEdge(0, 1);
+		assertThrows(IndexOutOfBoundsException.class, () -> G.addEdges(new int[] { 0, 1 }, new int[] { 2, 3 }));
+		assertThrows(IllegalArgumentException.class, () -> G.addEdges(new int[] { 0 }, new int[0]));
+		assertEquals(1, G.E());
+		assertEquals(1, G.degree(0));
+		assertEquals(1, G.degree(1));
+		assertEquals(0, G.degree(2));
+	}
+	
+}
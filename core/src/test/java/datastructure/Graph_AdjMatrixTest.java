@@ -0,0 +1,55 @@
+package datastructure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Vertex checks on Graph_AdjMatrix, and its documented self-loop counts.
+ */
+
+public class Graph_AdjMatrixTest {
+	
+	@Test
+	void badVerticesThrowBeforeAnyChange() {
+		Graph_AdjMatrix G = new Graph_AdjMatrix(10);
+		// 10 and 63 share the last word of a row with the real vertices
+		for (int bad : new int[] { -1, 10, 63, 64 }) {
+			assertThrows(IndexOutOfBoundsException.class, () -> G.addEdge(0, bad));
+			assertThrows(IndexOutOfBoundsException.class, () -> G.addEdge(bad, 0));
+			assertThrows(IndexOutOfBoundsException.class, () -> G.contains(0, bad));
+			assertThrows(IndexOutOfBoundsException.class, () -> G.adj(bad));
+			assertThrows(IndexOutOfBoundsException.class, () -> G.degree(bad));
+			assertThrows(IndexOutOfBoundsException.class, () -> G.forEachAdj(bad, w -> true));
+			assertThrows(IndexOutOfBoundsException.class, () -> G.commonNeighbors(0, bad));
+			assertThrows(IndexOutOfBoundsException.class, () -> G.commonNeighborCount(bad, 0));
+		}
+		assertEquals(0, G.E());
+		assertEquals(0, G.degree(0));
+		assertFalse(G.adj(0).iterator().hasNext());
+	}
+	
+	@Test
+	void selfLoopIsOneBit() {
+		Graph_AdjMatrix G = new Graph_AdjMatrix(3);
+		G.addEdge(1, 1);
+		G.addEdge(1, 2);
+		G.addEdge(1, 1);
+		assertEquals(2, G.E());
+		assertEquals(2, G.degree(1));
+		List<Integer> adj = new ArrayList<Integer>();
+		for (int w : G.adj(1)) {
+			adj.add(w);
+		}
+		assertEquals(Arrays.asList(1, 2), adj);
+		assertEquals(0, G.triangles());
+	}
+	
+}
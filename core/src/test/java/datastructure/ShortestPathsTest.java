@@ -0,0 +1,105 @@
+package datastructure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Delta-stepping against Dijkstra, plus regressions for zero-weight edges
+ * and for delta much smaller than the edge weights.
+ */
+
+public class ShortestPathsTest {
+	
+	private static List<Integer> path(ShortestPaths sp, int v) {
+		List<Integer> path = new ArrayList<Integer>();
+		for (int x : sp.pathTo(v)) {
+			path.add(x);
+		}
+		return path;
+	}
+	
+	// Lightest edge between v and w, or +infinity if there is none.
+	private static double weight(EdgeWeightedGraph G, int v, final int w) {
+		final double[] min = { Double.POSITIVE_INFINITY };
+		G.forEachEdge(v, (x, weight) -> {
+			if (x == w) {
+				min[0] = Math.min(min[0], weight);
+			}
+			return true;
+		});
+		return min[0];
+	}
+	
+	@Test
+	void zeroWeightEdgesGetATreeEdge() {
+		EdgeWeightedGraph G = new EdgeWeightedGraph(4);
+		G.addEdge(0, 1, 1.0);
+		G.addEdge(1, 2, 0.0);
+		G.addEdge(2, 3, 0.0);
+		ShortestPaths sp = ShortestPaths.deltaStepping(G, 0, 0.5);
+		assertEquals(1.0, sp.distTo(3));
+		assertEquals(Arrays.asList(0, 1, 2, 3), path(sp, 3));
+		assertEquals(Arrays.asList(0), path(sp, 0));
+	}
+	
+	@Test
+	void tinyDeltaDoesNotAllocateEmptyBuckets() {
+		EdgeWeightedGraph G = new EdgeWeightedGraph(2);
+		G.addEdge(0, 1, 1e6);
+		ShortestPaths sp = assertTimeoutPreemptively(Duration.ofSeconds(10),
+				() -> ShortestPaths.deltaStepping(G, 0, 1e-6));
+		assertEquals(1e6, sp.distTo(1));
+		assertEquals(Arrays.asList(0, 1), path(sp, 1));
+	}
+	
+	@Test
+	void rejectsBadDelta() {
+		EdgeWeightedGraph G = new EdgeWeightedGraph(2);
+		for (double delta : new double[] { 0.0, -1.0, Double.NaN }) {
+			assertThrows(IllegalArgumentException.class, () -> ShortestPaths.deltaStepping(G, 0, delta));
+		}
+	}
+	
+	@Test
+	void deltaSteppingMatchesDijkstra() {
+		Random random = new Random(31);
+		for (int trial = 0; trial < 20; trial++) {
+			int V = 1 + random.nextInt(500);
+			EdgeWeightedGraph G = new EdgeWeightedGraph(V);
+			for (int e = random.nextInt(4 * V); e > 0; e--) {
+				// a quarter of the edges weigh 0, the rest are integers so sums are exact
+				double weight = random.nextInt(4) == 0 ? 0.0 : 1 + random.nextInt(100);
+				G.addEdge(random.nextInt(V), random.nextInt(V), weight);
+			}
+			int s = random.nextInt(V);
+			ShortestPaths expected = ShortestPaths.dijkstra(G, s);
+			for (double delta : new double[] { 0.5, 10, 1000 }) {
+				ShortestPaths sp = ShortestPaths.deltaStepping(G, s, delta);
+				for (int v = 0; v < V; v++) {
+					assertEquals(expected.distTo(v), sp.distTo(v));
+					if (!sp.hasPathTo(v)) {
+						continue;
+					}
+					List<Integer> path = path(sp, v);
+					double length = 0.0;
+					for (int i = 1; i < path.size(); i++) {
+						length += weight(G, path.get(i - 1), path.get(i));
+					}
+					assertEquals(s, (int) path.get(0));
+					assertEquals(sp.distTo(v), length);
+				}
+			}
+		}
+	}
+	
+}
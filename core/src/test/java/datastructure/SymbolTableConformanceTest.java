@@ -0,0 +1,600 @@
+package datastructure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Differential conformance suite. Every engine replays the same seeded
+ * random operations as a java.util.TreeMap and must answer every query the
+ * same way:
+ *   symbolTables()         - SymbolTable, on every engine
+ *   orderedSymbolTables()  - OrderedSymbolTable, on the ordered engines
+ *   prefixSymbolTables()   - PrefixSymbolTable, on the tries
+ *   maps()                 - SymbolTableMap over every engine
+ *   navigableMaps()        - OrderedSymbolTableMap over the ordered engines
+ * A new engine only needs a line in engines().
+ */
+
+public class SymbolTableConformanceTest {
+	
+	private static final int OPS = 20000;
+	private static final int KEYS = 300;
+	private static final long SEED = 20261019;
+	
+	@TempDir
+	Path dir;
+	
+	
+	/***********************************************************************
+	 *  Engines under test. Keys are drawn from KEYS random ints, mapped to
+	 *  the key type with gaps, so that floor and ceiling also see absent keys.
+	***********************************************************************/
+	private interface Factory<K, V> {
+		SymbolTable<K, V> create(Path dir) throws IOException;
+	}
+	
+	private static final class Engine<K extends Comparable<K>, V> {
+		final String name;
+		final Class<?> type;
+		final Factory<K, V> factory;
+		final IntFunction<K> key;
+		final IntFunction<V> value;
+		
+		Engine(String name, Class<?> type, Factory<K, V> factory, IntFunction<K> key, IntFunction<V> value) {
+			this.name = name;
+			this.type = type;
+			this.factory = factory;
+			this.key = key;
+			this.value = value;
+		}
+		
+		@SuppressWarnings("unchecked")
+		K[] keys(int n) {
+			return (K[]) Array.newInstance(key.apply(0).getClass(), n);
+		}
+		
+		@SuppressWarnings("unchecked")
+		V[] values(int n) {
+			return (V[]) Array.newInstance(value.apply(0).getClass(), n);
+		}
+	}
+	
+	private static List<Engine<?, ?>> engines() {
+		IntFunction<Integer> ints = i -> 2 * i - KEYS;
+		IntFunction<Long> longs = i -> 3L * i - KEYS;
+		IntFunction<String> strings = SymbolTableConformanceTest::string;
+		IntFunction<Integer> values = i -> i;
+		return Arrays.<Engine<?, ?>>asList(
+				new Engine<Integer, Integer>("BST", BST.class,
+						d -> new BST<Integer, Integer>(), ints, values),
+				new Engine<Integer, Integer>("BST with a sum monoid", BST.class,
+						d -> new BST<Integer, Integer>(Monoid.of(0, Integer::sum)), ints, values),
+				new Engine<Integer, Integer>("HashMap", HashMap.class,
+						d -> new HashMap<Integer, Integer>(), ints, values),
+				new Engine<String, Integer>("Map_Trie", Map_Trie.class,
+						d -> new Map_Trie<Integer>(), strings, values),
+				new Engine<String, Integer>("CompactTrie", CompactTrie.class,
+						d -> new CompactTrie<Integer>(), strings, values),
+				new Engine<Long, Long>("BPlusTree", BPlusTree.class,
+						d -> new BPlusTree(d.resolve("tree")), longs, i -> (long) i),
+				new Engine<Integer, Integer>("ConcurrentSkipList", ConcurrentSkipList.class,
+						d -> new ConcurrentSkipList<Integer, Integer>(), ints, values),
+				new Engine<String, Integer>("DurableSymbolTable over HashMap", DurableSymbolTable.class,
+						d -> durable(d, new HashMap<String, Integer>()), strings, values),
+				new Engine<Integer, Integer>("FilteredSymbolTable over HashMap, Bloom", FilteredSymbolTable.class,
+						d -> new FilteredSymbolTable<Integer, Integer>(new HashMap<Integer, Integer>(),
+								n -> new BloomFilter<Integer>(n, 0.01)), ints, values),
+				new Engine<Integer, Integer>("FilteredSymbolTable over BST, cuckoo", FilteredSymbolTable.class,
+						d -> new FilteredSymbolTable<Integer, Integer>(new BST<Integer, Integer>(),
+								n -> new CuckooFilter<Integer>(n, 0.01)), ints, values));
+	}
+	
+	// Snapshots every 4 KB of log, so that the run also goes through them.
+	private static DurableSymbolTable<String, Integer> durable(Path dir, SymbolTable<String, Integer> table)
+			throws IOException {
+		return new DurableSymbolTable<String, Integer>(dir, table, Codec.STRING, Codec.INTEGER,
+				DurableSymbolTable.Sync.NEVER, 10, 4096);
+	}
+	
+	// i in base 3 over "abc": many keys are prefixes of others.
+	private static String string(int i) {
+		StringBuilder s = new StringBuilder();
+		do {
+			s.append((char) ('a' + i % 3));
+			i /= 3;
+		} while (i > 0);
+		return s.reverse().toString();
+	}
+	
+	private Stream<DynamicTest> tests(Class<?> api, final Check check) {
+		List<DynamicTest> tests = new ArrayList<DynamicTest>();
+		for (final Engine<?, ?> e : engines()) {
+			if (api.isAssignableFrom(e.type)) {
+				tests.add(DynamicTest.dynamicTest(e.name, () -> run(e, check)));
+			}
+		}
+		return tests.stream();
+	}
+	
+	private interface Check {
+		<K extends Comparable<K>, V> void run(SymbolTable<K, V> st, Engine<K, V> e);
+	}
+	
+	private <K extends Comparable<K>, V> void run(Engine<K, V> e, Check check) throws IOException {
+		SymbolTable<K, V> st = e.factory.create(Files.createTempDirectory(dir, "engine"));
+		try {
+			check.run(st, e);
+		} finally {
+			if (st instanceof Closeable) {
+				((Closeable) st).close();
+			}
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  Shared updates. Puts dominate early and deletes late, so tables
+	 *  grow, churn and shrink during a run.
+	***********************************************************************/
+	private static <K extends Comparable<K>, V> void update(SymbolTable<K, V> st, TreeMap<K, V> ref,
+			Engine<K, V> e, Random random, int op) {
+		K key = e.key.apply(random.nextInt(KEYS));
+		int dice = random.nextInt(100);
+		int puts = 70 - 40 * op / OPS;
+		if (dice < puts) {
+			V value = e.value.apply(random.nextInt(1000));
+			st.put(key, value);
+			ref.put(key, value);
+		} else if (dice < puts + 10) {
+			st.put(key, null);
+			ref.remove(key);
+		} else if (dice < 98) {
+			st.delete(key);
+			ref.remove(key);
+		} else {
+			int n = 1 + random.nextInt(20);
+			K[] keys = e.keys(n);
+			V[] values = e.values(n);
+			for (int i = 0; i < n; i++) {
+				keys[i] = e.key.apply(random.nextInt(KEYS));
+				values[i] = random.nextInt(4) == 0 ? null : e.value.apply(random.nextInt(1000));
+			}
+			st.putAll(keys, values);
+			for (int i = 0; i < n; i++) {
+				if (values[i] == null) {
+					ref.remove(keys[i]);
+				} else {
+					ref.put(keys[i], values[i]);
+				}
+			}
+		}
+	}
+	
+	private static <K extends Comparable<K>> List<K> sorted(Iterable<K> keys) {
+		List<K> list = list(keys);
+		Collections.sort(list);
+		return list;
+	}
+	
+	private static <T> List<T> list(Iterable<T> items) {
+		List<T> list = new ArrayList<T>();
+		for (T item : items) {
+			list.add(item);
+		}
+		return list;
+	}
+	
+	// Both calls return equal results, or both throw the same exception type.
+	private static void assertAgree(Supplier<?> expected, Supplier<?> actual, String what) {
+		Object want, got;
+		try {
+			want = expected.get();
+		} catch (RuntimeException ex) {
+			want = ex.getClass();
+		}
+		try {
+			got = actual.get();
+		} catch (RuntimeException ex) {
+			got = ex.getClass();
+		}
+		assertEquals(want, got, what);
+	}
+	
+	
+	/***********************************************************************
+	 *  SymbolTable
+	***********************************************************************/
+	@TestFactory
+	Stream<DynamicTest> symbolTables() {
+		return tests(SymbolTable.class, SymbolTableConformanceTest::checkSymbolTable);
+	}
+	
+	private static <K extends Comparable<K>, V> void checkSymbolTable(SymbolTable<K, V> st, Engine<K, V> e) {
+		checkSymbolTable(st, e, new TreeMap<K, V>());
+	}
+	
+	// Leaves st holding the same pairs as ref.
+	private static <K extends Comparable<K>, V> void checkSymbolTable(SymbolTable<K, V> st, Engine<K, V> e,
+			TreeMap<K, V> ref) {
+		K some = e.key.apply(0);
+		assertThrows(NullPointerException.class, () -> st.get(null));
+		assertThrows(NullPointerException.class, () -> st.put(null, e.value.apply(0)));
+		assertThrows(NullPointerException.class, () -> st.delete(null));
+		assertTrue(st.isEmpty());
+		assertNull(st.get(some));
+		
+		Random random = new Random(SEED);
+		for (int op = 0; op < OPS; op++) {
+			update(st, ref, e, random, op);
+			final K key = e.key.apply(random.nextInt(KEYS));
+			final int at = op;
+			assertEquals(ref.get(key), st.get(key), () -> "get(" + key + ") at op " + at);
+			assertEquals(ref.containsKey(key), st.contains(key), () -> "contains(" + key + ") at op " + at);
+			assertEquals(ref.size(), st.size(), () -> "size() at op " + at);
+			assertEquals(ref.isEmpty(), st.isEmpty(), () -> "isEmpty() at op " + at);
+			
+			if (op % 100 == 0) {
+				int n = 1 + random.nextInt(20);
+				K[] keys = e.keys(n);
+				V[] out = e.values(n + 1);
+				boolean all = true;
+				for (int i = 0; i < n; i++) {
+					keys[i] = e.key.apply(random.nextInt(KEYS));
+					all &= ref.containsKey(keys[i]);
+				}
+				st.getAll(keys, out);
+				for (int i = 0; i < n; i++) {
+					assertEquals(ref.get(keys[i]), out[i], () -> "getAll() at op " + at);
+				}
+				assertEquals(all, st.containsAll(keys), () -> "containsAll() at op " + at);
+			}
+			if (op % 500 == 0) {
+				assertEquals(list(ref.keySet()), sorted(st.keys()), () -> "keys() at op " + at);
+			}
+		}
+		assertEquals(list(ref.keySet()), sorted(st.keys()));
+	}
+	
+	// What survives close() and reopening, including the snapshots taken on the way.
+	@Test
+	void durableRecovery() throws IOException {
+		Path store = dir.resolve("durable");
+		Engine<String, Integer> e = new Engine<String, Integer>("DurableSymbolTable", DurableSymbolTable.class,
+				d -> durable(d, new HashMap<String, Integer>()), SymbolTableConformanceTest::string, i -> i);
+		TreeMap<String, Integer> ref = new TreeMap<String, Integer>();
+		try (DurableSymbolTable<String, Integer> st = durable(store, new HashMap<String, Integer>())) {
+			checkSymbolTable(st, e, ref);
+		}
+		HashMap<String, Integer> recovered = new HashMap<String, Integer>();
+		durable(store, recovered).close();
+		assertEquals(list(ref.keySet()), sorted(recovered.keys()));
+		for (Map.Entry<String, Integer> entry : ref.entrySet()) {
+			assertEquals(entry.getValue(), recovered.get(entry.getKey()));
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  OrderedSymbolTable
+	***********************************************************************/
+	@TestFactory
+	Stream<DynamicTest> orderedSymbolTables() {
+		return tests(OrderedSymbolTable.class, new Check() {
+			public <K extends Comparable<K>, V> void run(SymbolTable<K, V> st, Engine<K, V> e) {
+				checkOrdered((OrderedSymbolTable<K, V>) st, e);
+			}
+		});
+	}
+	
+	private static <K extends Comparable<K>, V> void checkOrdered(OrderedSymbolTable<K, V> st, Engine<K, V> e) {
+		K some = e.key.apply(0);
+		assertNull(st.min());
+		assertNull(st.max());
+		assertNull(st.floor(some));
+		assertNull(st.ceiling(some));
+		assertNull(st.select(0));
+		assertEquals(0, st.rank(some));
+		assertEquals(0, st.size(some, some));
+		assertTrue(list(st.keys(some, some)).isEmpty());
+		assertThrows(NoSuchElementException.class, () -> st.deleteMin());
+		assertThrows(NoSuchElementException.class, () -> st.deleteMax());
+		
+		TreeMap<K, V> ref = new TreeMap<K, V>();
+		Random random = new Random(SEED);
+		for (int op = 0; op < OPS; op++) {
+			final int at = op;
+			update(st, ref, e, random, op);
+			K key = e.key.apply(random.nextInt(KEYS + 4) - 2);
+			K other = e.key.apply(random.nextInt(KEYS + 4) - 2);
+			K low = key.compareTo(other) <= 0 ? key : other;
+			K high = key.compareTo(other) <= 0 ? other : key;
+			int k = random.nextInt(ref.size() + 2) - 1;
+			switch (random.nextInt(9)) {
+			case 0:
+				assertEquals(ref.isEmpty() ? null : ref.firstKey(), st.min(), () -> "min() at op " + at);
+				assertEquals(ref.isEmpty() ? null : ref.lastKey(), st.max(), () -> "max() at op " + at);
+				break;
+			case 1:
+				assertEquals(ref.floorKey(key), st.floor(key), () -> "floor(" + key + ") at op " + at);
+				break;
+			case 2:
+				assertEquals(ref.ceilingKey(key), st.ceiling(key), () -> "ceiling(" + key + ") at op " + at);
+				break;
+			case 3:
+				assertEquals(ref.headMap(key).size(), st.rank(key), () -> "rank(" + key + ") at op " + at);
+				break;
+			case 4:
+				K expected = k < 0 || k >= ref.size() ? null : list(ref.keySet()).get(k);
+				assertEquals(expected, st.select(k), () -> "select(" + k + ") at op " + at);
+				break;
+			case 5:
+				assertEquals(list(ref.subMap(low, true, high, true).keySet()), list(st.keys(low, high)),
+						() -> "keys(" + low + ", " + high + ") at op " + at);
+				break;
+			case 6:
+				assertEquals(ref.subMap(low, true, high, true).size(), st.size(low, high),
+						() -> "size(" + low + ", " + high + ") at op " + at);
+				assertEquals(low.equals(high) ? st.size(low, high) : 0, st.size(high, low));
+				break;
+			case 7:
+				if (random.nextInt(10) == 0) {
+					if (ref.isEmpty()) {
+						assertThrows(NoSuchElementException.class, () -> st.deleteMin());
+					} else {
+						st.deleteMin();
+						ref.pollFirstEntry();
+					}
+				}
+				break;
+			default:
+				if (random.nextInt(10) == 0) {
+					if (ref.isEmpty()) {
+						assertThrows(NoSuchElementException.class, () -> st.deleteMax());
+					} else {
+						st.deleteMax();
+						ref.pollLastEntry();
+					}
+				}
+			}
+			if (op % 500 == 0) {
+				assertEquals(list(ref.keySet()), list(st.keys()), () -> "keys() at op " + at);
+			}
+		}
+		while (!ref.isEmpty()) {
+			assertEquals(ref.firstKey(), st.min());
+			st.deleteMin();
+			ref.pollFirstEntry();
+		}
+		assertTrue(st.isEmpty());
+		assertNull(st.min());
+	}
+	
+	@Test
+	void bstAggregates() {
+		BST<Integer, Integer> st = new BST<Integer, Integer>(Monoid.of(0, Integer::sum));
+		TreeMap<Integer, Integer> ref = new TreeMap<Integer, Integer>();
+		Random random = new Random(SEED);
+		for (int op = 0; op < OPS; op++) {
+			int key = random.nextInt(KEYS);
+			if (random.nextInt(3) == 0) {
+				st.delete(key);
+				ref.remove(key);
+			} else {
+				int value = random.nextInt(1000);
+				st.put(key, value);
+				ref.put(key, value);
+			}
+			int low = random.nextInt(KEYS);
+			int high = low + random.nextInt(KEYS - low);
+			int sum = 0;
+			for (int value : ref.subMap(low, true, high, true).values()) {
+				sum += value;
+			}
+			assertEquals(sum, st.aggregate(low, high));
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  PrefixSymbolTable
+	***********************************************************************/
+	@TestFactory
+	Stream<DynamicTest> prefixSymbolTables() {
+		return tests(PrefixSymbolTable.class, new Check() {
+			@SuppressWarnings("unchecked")
+			public <K extends Comparable<K>, V> void run(SymbolTable<K, V> st, Engine<K, V> e) {
+				checkPrefix((PrefixSymbolTable<V>) st, (Engine<String, V>) e);
+			}
+		});
+	}
+	
+	private static <V> void checkPrefix(PrefixSymbolTable<V> st, Engine<String, V> e) {
+		assertThrows(NullPointerException.class, () -> st.keysWithPrefix(null));
+		assertThrows(NullPointerException.class, () -> st.longestPrefixOf(null));
+		assertTrue(list(st.keysWithPrefix("")).isEmpty());
+		assertNull(st.longestPrefixOf("abc"));
+		
+		TreeMap<String, V> ref = new TreeMap<String, V>();
+		Random random = new Random(SEED);
+		for (int op = 0; op < OPS; op++) {
+			final int at = op;
+			update(st, ref, e, random, op);
+			String prefix = random.nextInt(50) == 0 ? "" : string(random.nextInt(KEYS / 3));
+			if (random.nextInt(50) == 0) {
+				prefix += "d";
+			}
+			assertEquals(list(ref.subMap(prefix, prefix + Character.MAX_VALUE).keySet()),
+					sorted(st.keysWithPrefix(prefix)), "keysWithPrefix(" + prefix + ") at op " + at);
+					
+			String query = string(random.nextInt(KEYS * 9));
+			String longest = null;
+			for (int length = query.length(); length > 0 && longest == null; length--) {
+				if (ref.containsKey(query.substring(0, length))) {
+					longest = query.substring(0, length);
+				}
+			}
+			assertEquals(longest, st.longestPrefixOf(query), "longestPrefixOf(" + query + ") at op " + at);
+		}
+	}
+	
+	
+	/***********************************************************************
+	 *  SymbolTableMap and OrderedSymbolTableMap against TreeMap itself
+	***********************************************************************/
+	@TestFactory
+	Stream<DynamicTest> maps() {
+		return tests(SymbolTable.class, SymbolTableConformanceTest::checkMap);
+	}
+	
+	private static <K extends Comparable<K>, V> void checkMap(SymbolTable<K, V> st, Engine<K, V> e) {
+		Map<K, V> map = new SymbolTableMap<K, V>(st);
+		TreeMap<K, V> ref = new TreeMap<K, V>();
+		assertThrows(NullPointerException.class, () -> map.put(e.key.apply(0), null));
+		
+		Random random = new Random(SEED);
+		for (int op = 0; op < OPS; op++) {
+			final int at = op;
+			final K key = e.key.apply(random.nextInt(KEYS));
+			int dice = random.nextInt(100);
+			if (dice < 70 - 40 * op / OPS) {
+				V value = e.value.apply(random.nextInt(1000));
+				assertEquals(ref.put(key, value), map.put(key, value), () -> "put(" + key + ") at op " + at);
+			} else if (dice < 99) {
+				assertEquals(ref.remove(key), map.remove(key), () -> "remove(" + key + ") at op " + at);
+			} else {
+				final int mod = 2 + random.nextInt(5);
+				map.entrySet().removeIf(entry -> entry.getKey().hashCode() % mod == 0);
+				ref.entrySet().removeIf(entry -> entry.getKey().hashCode() % mod == 0);
+			}
+			assertEquals(ref.get(key), map.get(key), () -> "get(" + key + ") at op " + at);
+			assertEquals(ref.containsKey(key), map.containsKey(key), () -> "containsKey(" + key + ") at op " + at);
+			assertEquals(ref.size(), map.size(), () -> "size() at op " + at);
+			if (op % 500 == 0) {
+				assertEquals(ref, map, () -> "equals() at op " + at);
+				assertEquals(map, ref, () -> "equals() at op " + at);
+				assertEquals(ref.hashCode(), map.hashCode(), () -> "hashCode() at op " + at);
+			}
+		}
+		map.clear();
+		assertTrue(st.isEmpty());
+	}
+	
+	@TestFactory
+	Stream<DynamicTest> navigableMaps() {
+		return tests(OrderedSymbolTable.class, new Check() {
+			public <K extends Comparable<K>, V> void run(SymbolTable<K, V> st, Engine<K, V> e) {
+				checkNavigable((OrderedSymbolTable<K, V>) st, e);
+			}
+		});
+	}
+	
+	private static <K extends Comparable<K>, V> void checkNavigable(OrderedSymbolTable<K, V> st, Engine<K, V> e) {
+		NavigableMap<K, V> map = new OrderedSymbolTableMap<K, V>(st);
+		TreeMap<K, V> ref = new TreeMap<K, V>();
+		checkNavigable(ref, map, e.key.apply(0), "empty");
+		
+		Random random = new Random(SEED);
+		for (int op = 0; op < OPS; op++) {
+			K key = e.key.apply(random.nextInt(KEYS + 4) - 2);
+			K other = e.key.apply(random.nextInt(KEYS + 4) - 2);
+			K low = key.compareTo(other) <= 0 ? key : other;
+			K high = key.compareTo(other) <= 0 ? other : key;
+			boolean lowInclusive = random.nextBoolean();
+			boolean highInclusive = random.nextBoolean();
+			String at = " at op " + op;
+			
+			int dice = random.nextInt(100);
+			if (dice < 70 - 40 * op / OPS) {
+				V value = e.value.apply(random.nextInt(1000));
+				assertEquals(ref.put(key, value), map.put(key, value), "put" + at);
+			} else if (dice < 95) {
+				assertEquals(ref.remove(key), map.remove(key), "remove" + at);
+			} else if (dice < 97) {
+				assertAgree(() -> ref.pollFirstEntry(), () -> map.pollFirstEntry(), "pollFirstEntry()" + at);
+			} else {
+				assertAgree(() -> ref.pollLastEntry(), () -> map.pollLastEntry(), "pollLastEntry()" + at);
+			}
+			checkNavigable(ref, map, key, at);
+			
+			// one random view, through the same calls
+			switch (random.nextInt(6)) {
+			case 0:
+				checkNavigable(ref.subMap(low, lowInclusive, high, highInclusive),
+						map.subMap(low, lowInclusive, high, highInclusive), other, "subMap" + at);
+				break;
+			case 1:
+				checkNavigable(ref.headMap(high, highInclusive), map.headMap(high, highInclusive), other,
+						"headMap" + at);
+				break;
+			case 2:
+				checkNavigable(ref.tailMap(low, lowInclusive), map.tailMap(low, lowInclusive), other,
+						"tailMap" + at);
+				break;
+			case 3:
+				checkNavigable(ref.descendingMap(), map.descendingMap(), other, "descendingMap" + at);
+				break;
+			case 4:
+				checkNavigable(ref.descendingMap().subMap(high, highInclusive, low, lowInclusive),
+						map.descendingMap().subMap(high, highInclusive, low, lowInclusive), other,
+						"descending subMap" + at);
+				break;
+			default:
+				checkNavigable(ref.headMap(high, true).descendingMap().tailMap(low, lowInclusive),
+						map.headMap(high, true).descendingMap().tailMap(low, lowInclusive), other,
+						"nested views" + at);
+			}
+			
+			// writes through a view must respect its bounds
+			V value = e.value.apply(random.nextInt(1000));
+			NavigableMap<K, V> refView = ref.subMap(low, true, high, false);
+			NavigableMap<K, V> view = map.subMap(low, true, high, false);
+			assertAgree(() -> refView.put(other, value), () -> view.put(other, value), "view put" + at);
+			assertEquals(ref.size(), map.size(), "size() after view put" + at);
+		}
+	}
+	
+	private static <K, V> void checkNavigable(NavigableMap<K, V> ref, NavigableMap<K, V> map, K key, String at) {
+		assertEquals(ref.size(), map.size(), "size() " + at);
+		assertEquals(ref.isEmpty(), map.isEmpty(), "isEmpty() " + at);
+		assertAgree(() -> ref.firstKey(), () -> map.firstKey(), "firstKey() " + at);
+		assertAgree(() -> ref.lastKey(), () -> map.lastKey(), "lastKey() " + at);
+		assertAgree(() -> ref.firstEntry(), () -> map.firstEntry(), "firstEntry() " + at);
+		assertAgree(() -> ref.lastEntry(), () -> map.lastEntry(), "lastEntry() " + at);
+		assertAgree(() -> ref.lowerKey(key), () -> map.lowerKey(key), "lowerKey(" + key + ") " + at);
+		assertAgree(() -> ref.floorKey(key), () -> map.floorKey(key), "floorKey(" + key + ") " + at);
+		assertAgree(() -> ref.ceilingKey(key), () -> map.ceilingKey(key), "ceilingKey(" + key + ") " + at);
+		assertAgree(() -> ref.higherKey(key), () -> map.higherKey(key), "higherKey(" + key + ") " + at);
+		assertAgree(() -> ref.higherEntry(key), () -> map.higherEntry(key), "higherEntry(" + key + ") " + at);
+		assertAgree(() -> ref.containsKey(key), () -> map.containsKey(key), "containsKey(" + key + ") " + at);
+		assertAgree(() -> ref.get(key), () -> map.get(key), "get(" + key + ") " + at);
+		assertEquals(list(ref.entrySet()), list(map.entrySet()), "entrySet() " + at);
+		assertEquals(list(ref.descendingKeySet()), list(map.descendingKeySet()), "descendingKeySet() " + at);
+	}
+	
+}